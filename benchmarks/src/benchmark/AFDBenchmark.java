@@ -0,0 +1,61 @@
+package benchmark;
+
+import modelo.AFD;
+import modelo.OyenteTraza;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulación de AFD: con traza de texto (lo que hace el panel), sin traza y sobre la
+ * tabla compilada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AFDBenchmark {
+
+    // "panel" es el ejemplo de la aplicación; los números son estados de un AFD aleatorio
+    @Param({"panel", "16", "256"})
+    public String modelo;
+
+    @Param({"16", "1024", "65536"})
+    public int longitud;
+
+    private AFD afd;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        afd = Modelos.afd(modelo);
+        cadena = Modelos.cadenaAleatoria(Modelos.simbolosAFD(modelo), longitud, 7);
+    }
+
+    @Benchmark
+    public boolean simularCadenaConTraza() {
+        return afd.simularCadena(cadena, new StringBuilder());
+    }
+
+    @Benchmark
+    public boolean simularCadenaSinTraza() {
+        return afd.simularCadena(cadena, OyenteTraza.NULO);
+    }
+
+    @Benchmark
+    public boolean aceptaCompilado() {
+        return afd.acepta(cadena);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import modelo.GramaticaLibreContexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análisis GLL con construcción del bosque SPPF frente a Earley, con la gramática de
+ * expresiones no ambigua y con la ambigua, donde el bosque crece de forma cúbica.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalizadorGLLBenchmark {
+
+    @Param({"expresionesIzq", "ambigua"})
+    public String modelo;
+
+    @Param({"16", "64", "256"})
+    public int longitud;
+
+    private GramaticaLibreContexto glc;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        glc = Modelos.gramaticaLibreContexto(modelo);
+        cadena = Modelos.cadenaGLC(modelo, longitud, 7);
+        glc.getCompilada();
+    }
+
+    @Benchmark
+    public int analizarGLL() {
+        return glc.analizarGLL(cadena).getBosque().getNumEmpaquetados();
+    }
+
+    @Benchmark
+    public BigInteger contarDerivaciones() {
+        return glc.analizarGLL(cadena).getBosque().contarDerivaciones();
+    }
+
+    @Benchmark
+    public boolean reconocerEarley() {
+        return glc.reconocerEarley(cadena).isAceptada();
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import modelo.AnalizadorLALR;
+import modelo.GramaticaLibreContexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análisis LALR(1) frente a Earley con expresiones recursivas por la izquierda, y la
+ * construcción de las tablas para gramáticas de cientos de producciones ("niveles100"
+ * tiene 302).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalizadorLALRBenchmark {
+
+    @Param({"expresionesIzq", "niveles100"})
+    public String modelo;
+
+    @Param({"64", "1024", "16384"})
+    public int longitud;
+
+    private GramaticaLibreContexto glc;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        glc = Modelos.gramaticaLibreContexto(modelo);
+        cadena = Modelos.cadenaGLC(modelo, longitud, 7);
+        glc.getAnalizadorLALR();
+    }
+
+    @Benchmark
+    public boolean analizarLALR() {
+        return glc.analizarLALR(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public boolean reconocerEarley() {
+        return glc.reconocerEarley(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public AnalizadorLALR construirTablas() {
+        return AnalizadorLALR.construir(glc.getCompilada());
+    }
+}
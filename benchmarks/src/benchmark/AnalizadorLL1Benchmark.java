@@ -0,0 +1,55 @@
+package benchmark;
+
+import modelo.GramaticaLibreContexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análisis LL(1) frente a Earley con gramáticas LL(1): el ejemplo del panel (a^n b a^n)
+ * y expresiones aritméticas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalizadorLL1Benchmark {
+
+    @Param({"panel", "expresiones"})
+    public String modelo;
+
+    @Param({"64", "1024", "16384"})
+    public int longitud;
+
+    private GramaticaLibreContexto glc;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        glc = Modelos.gramaticaLibreContexto(modelo);
+        cadena = Modelos.cadenaGLC(modelo, longitud, 7);
+        glc.getAnalizadorLL1();
+    }
+
+    @Benchmark
+    public boolean analizarLL1() {
+        return glc.analizarLL1(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public boolean reconocerEarley() {
+        return glc.reconocerEarley(cadena).isAceptada();
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import modelo.AutomataPila;
+import modelo.OyenteTraza;
+import modelo.TrazaCompactaAP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulación de autómatas de pila sobre cadenas aceptadas. El motor por backtracking usa
+ * una pila explícita de marcos, así que la profundidad solo la limita setMaxMarcos y las
+ * longitudes pueden ser de miles de símbolos. La traza es la compacta que usa el panel;
+ * la de texto crece con el cuadrado de la longitud. "marcado" es determinista y usa el
+ * camino de una sola pasada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutomataPilaBenchmark {
+
+    @Param({"panel", "palindromos", "marcado"})
+    public String modelo;
+
+    @Param({"64", "1024", "8192"})
+    public int longitud;
+
+    private AutomataPila ap;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        ap = Modelos.automataPila(modelo);
+        cadena = Modelos.cadenaAP(modelo, longitud, 7);
+    }
+
+    @Benchmark
+    public boolean simularCadenaConTraza() {
+        return ap.simularCadena(cadena, new TrazaCompactaAP());
+    }
+
+    @Benchmark
+    public boolean simularCadenaSinTraza() {
+        return ap.simularCadena(cadena, OyenteTraza.NULO);
+    }
+
+    @Benchmark
+    public boolean simularGSS() {
+        return ap.simularGSS(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public boolean simularParalelo() {
+        return ap.simularParalelo(cadena).isAceptada();
+    }
+}
@@ -0,0 +1,24 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta todos los benchmarks con el perfilador de GC, que agrega la tasa de asignación
+ * (gc.alloc.rate y gc.alloc.rate.norm, bytes por operación) a cada resultado.
+ * Un argumento opcional filtra los benchmarks por expresión regular, por ejemplo "AFD".
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String filtro = args.length > 0 ? args[0] : "Benchmark";
+        Options opciones = new OptionsBuilder()
+                .include(EjecutarBenchmarks.class.getPackageName() + "\\..*" + filtro + ".*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import modelo.AFD;
+import modelo.EmparejadorAFD;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabla compilada del AFD frente al emparejador generado en tiempo de ejecución, para
+ * AFD aleatorios completos de distintos tamaños. La entrada es uniforme (saltos
+ * impredecibles) o sesgada, con el 95% de los caracteres 'a', más parecida a texto real.
+ * Reporta nanosegundos por carácter (menos es mejor). Con 1024 estados el generador
+ * supera su umbral y devuelve la misma tabla, así que las dos mediciones coinciden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(EmparejadorAFDBenchmark.LONGITUD_CADENA)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmparejadorAFDBenchmark {
+
+    static final int LONGITUD_CADENA = 1 << 20;
+
+    @Param({"2", "16", "128", "1024"})
+    public int estados;
+
+    @Param({"uniforme", "sesgada"})
+    public String entrada;
+
+    private EmparejadorAFD tabla;
+    private EmparejadorAFD generado;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        AFD afd = Modelos.afdAleatorio(estados, "abcd", 42);
+        tabla = afd.getCompilado();
+        generado = afd.generarEmparejador();
+        cadena = entrada.equals("uniforme")
+                ? Modelos.cadenaAleatoria("abcd", LONGITUD_CADENA, 7)
+                : Modelos.cadenaSesgada("abcd", LONGITUD_CADENA, 95, 7);
+    }
+
+    @Benchmark
+    public boolean tabla() {
+        return tabla.acepta(cadena);
+    }
+
+    @Benchmark
+    public boolean generado() {
+        return generado.acepta(cadena);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import modelo.GramaticaLibreContexto;
+import modelo.OyenteTraza;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación con gramáticas libres de contexto: el ejemplo del panel (a^n b a^n) y
+ * palíndromos pares.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GramaticaLibreContextoBenchmark {
+
+    @Param({"panel", "palindromos"})
+    public String modelo;
+
+    @Param({"8", "64", "256"})
+    public int longitud;
+
+    private GramaticaLibreContexto glc;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        glc = Modelos.gramaticaLibreContexto(modelo);
+        cadena = Modelos.cadenaGLC(modelo, longitud, 7);
+    }
+
+    @Benchmark
+    public boolean verificarCadenaConTraza() {
+        return glc.verificarCadena(cadena, new StringBuilder());
+    }
+
+    @Benchmark
+    public boolean verificarCadenaSinTraza() {
+        return glc.verificarCadena(cadena, OyenteTraza.NULO);
+    }
+
+    @Benchmark
+    public boolean reconocerEarley() {
+        return glc.reconocerEarley(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public boolean reconocerCYK() {
+        return glc.reconocerCYK(cadena).isAceptada();
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import modelo.GramaticaRegular;
+import modelo.OyenteTraza;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación con gramáticas regulares: el ejemplo del panel y contadores módulo N.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GramaticaRegularBenchmark {
+
+    @Param({"panel", "contador4", "contador24"})
+    public String modelo;
+
+    @Param({"8", "64", "512"})
+    public int longitud;
+
+    private GramaticaRegular gr;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        gr = Modelos.gramaticaRegular(modelo);
+        cadena = Modelos.cadenaGR(modelo, longitud, 7);
+    }
+
+    @Benchmark
+    public boolean verificarCadenaConTraza() {
+        return gr.verificarCadena(cadena, new StringBuilder());
+    }
+
+    @Benchmark
+    public boolean verificarCadenaSinTraza() {
+        return gr.verificarCadena(cadena, OyenteTraza.NULO);
+    }
+}
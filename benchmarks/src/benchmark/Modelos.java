@@ -0,0 +1,324 @@
+package benchmark;
+
+import modelo.AFD;
+import modelo.AutomataPila;
+import modelo.GramaticaLibreContexto;
+import modelo.GramaticaRegular;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Modelos y cadenas de entrada compartidos por los benchmarks.
+ * "panel" es siempre el ejemplo que carga por defecto el panel correspondiente de la
+ * aplicación; el resto son familias parametrizadas por tamaño.
+ */
+final class Modelos {
+
+    private Modelos() {}
+
+    // --- AFD ---
+
+    /**
+     * AFD por nombre: "panel" (paridad de 0s) o el número de estados de un AFD aleatorio
+     * sobre el alfabeto "abcd".
+     */
+    static AFD afd(String modelo) {
+        if (modelo.equals("panel")) {
+            Map<String, Map<String, String>> delta = new HashMap<>();
+            delta.put("q0", mapa("0", "q1", "1", "q0"));
+            delta.put("q1", mapa("0", "q0", "1", "q1"));
+            return new AFD(conjunto("q0", "q1"), conjunto("0", "1"), delta, "q0", conjunto("q0"));
+        }
+        return afdAleatorio(Integer.parseInt(modelo), "abcd", 42);
+    }
+
+    static String simbolosAFD(String modelo) {
+        return modelo.equals("panel") ? "01" : "abcd";
+    }
+
+    /**
+     * AFD completo con n estados y transiciones aleatorias; la mitad de los estados son finales.
+     */
+    static AFD afdAleatorio(int n, String simbolos, long semilla) {
+        Random random = new Random(semilla);
+        Set<String> estados = new HashSet<>();
+        Set<String> alfabeto = new HashSet<>();
+        Set<String> finales = new HashSet<>();
+        Map<String, Map<String, String>> delta = new HashMap<>();
+
+        for (char c : simbolos.toCharArray()) alfabeto.add(String.valueOf(c));
+        for (int i = 0; i < n; i++) {
+            String q = "q" + i;
+            estados.add(q);
+            if (i % 2 == 0) finales.add(q);
+            Map<String, String> desde = new HashMap<>();
+            for (String a : alfabeto) desde.put(a, "q" + random.nextInt(n));
+            delta.put(q, desde);
+        }
+        return new AFD(estados, alfabeto, delta, "q0", finales);
+    }
+
+    // --- Autómata de pila ---
+
+    /**
+     * AP por nombre: "panel" (a^n b^n con pila vacía inicial), "palindromos"
+     * (w w^R sobre {a, b}, que adivina la mitad de forma no determinista) o "marcado"
+     * (w c w^R, determinista: la 'c' marca la mitad).
+     */
+    static AutomataPila automataPila(String modelo) {
+        Set<String> estados = conjunto("q0", "q1", "qf");
+        Set<String> alfabeto = conjunto("a", "b");
+        String transiciones;
+        Set<String> alfabetoPila;
+        Set<String> finales = conjunto("qf");
+        if (modelo.equals("marcado")) {
+            alfabeto = conjunto("a", "b", "c");
+            alfabetoPila = conjunto("A", "B");
+            transiciones = "q0,a,λ=q0,A\n" +
+                    "q0,b,λ=q0,B\n" +
+                    "q0,c,λ=q1,λ\n" +
+                    "q1,a,A=q1,λ\n" +
+                    "q1,b,B=q1,λ\n";
+            finales = conjunto("q1");
+        } else if (modelo.equals("panel")) {
+            alfabetoPila = conjunto("A");
+            transiciones = "q0,a,λ=q0,A\n" +
+                    "q0,a,A=q0,AA\n" +
+                    "q0,λ,A=q1,A\n" +
+                    "q0,λ,λ=qf,λ\n" +
+                    "q1,b,A=q1,λ\n" +
+                    "q1,λ,λ=qf,λ\n";
+        } else if (modelo.equals("palindromos")) {
+            alfabetoPila = conjunto("A", "B");
+            transiciones = "q0,a,λ=q0,A\n" +
+                    "q0,b,λ=q0,B\n" +
+                    "q0,λ,λ=q1,λ\n" +
+                    "q1,a,A=q1,λ\n" +
+                    "q1,b,B=q1,λ\n" +
+                    "q1,λ,λ=qf,λ\n";
+        } else {
+            throw new IllegalArgumentException("Modelo de AP desconocido: " + modelo);
+        }
+        return new AutomataPila(estados, alfabeto, alfabetoPila,
+                AutomataPila.parseRawTransiciones(transiciones, estados, alfabeto, alfabetoPila),
+                "q0", AutomataPila.LAMBDA, finales);
+    }
+
+    /**
+     * Cadena aceptada de aproximadamente la longitud pedida.
+     */
+    static String cadenaAP(String modelo, int longitud, long semilla) {
+        if (modelo.equals("panel")) {
+            return "a".repeat(longitud / 2) + "b".repeat(longitud / 2);
+        }
+        String w = cadenaAleatoria("ab", longitud / 2, semilla);
+        return w + (modelo.equals("marcado") ? "c" : "") + new StringBuilder(w).reverse();
+    }
+
+    // --- Gramática regular ---
+
+    /**
+     * GR por nombre: "panel" (S -> aA | b, A -> bS | a) o "contadorN", con N variables
+     * de una letra que cuentan las 'a' módulo N.
+     */
+    static GramaticaRegular gramaticaRegular(String modelo) {
+        Map<String, Set<String>> producciones = new HashMap<>();
+        Set<String> variables = new LinkedHashSet<>();
+        if (modelo.equals("panel")) {
+            variables.addAll(conjunto("S", "A"));
+            producciones.put("S", conjunto("aA", "b"));
+            producciones.put("A", conjunto("bS", "a"));
+            return new GramaticaRegular(variables, conjunto("a", "b"), producciones, "S");
+        }
+        int n = Integer.parseInt(modelo.substring("contador".length()));
+        if (n < 1 || n > 26) throw new IllegalArgumentException("El contador admite de 1 a 26 variables.");
+        for (int i = 0; i < n; i++) {
+            String v = variableLetra(i);
+            String siguiente = variableLetra((i + 1) % n);
+            variables.add(v);
+            Set<String> cuerpos = conjunto("a" + siguiente, "b" + v);
+            if (i == n - 1) cuerpos.add("a");
+            producciones.put(v, cuerpos);
+        }
+        return new GramaticaRegular(variables, conjunto("a", "b"), producciones, variableLetra(0));
+    }
+
+    /**
+     * Cadena aceptada: para el contador, termina en 'a' y su número de 'a' es múltiplo de N.
+     */
+    static String cadenaGR(String modelo, int longitud, long semilla) {
+        if (modelo.equals("panel")) {
+            return "ab".repeat(longitud / 2) + "b";
+        }
+        int n = Integer.parseInt(modelo.substring("contador".length()));
+        char[] c = cadenaAleatoria("ab", longitud, semilla).toCharArray();
+        c[longitud - 1] = 'a';
+        int aes = 0;
+        for (char x : c) if (x == 'a') aes++;
+        for (int i = 0; i < longitud - 1 && aes % n != 0; i++) {
+            if (c[i] == 'b') {
+                c[i] = 'a';
+                aes++;
+            }
+        }
+        return new String(c);
+    }
+
+    private static String variableLetra(int i) {
+        return String.valueOf((char) ('A' + i));
+    }
+
+    // --- Gramática libre de contexto ---
+
+    /**
+     * GLC por nombre: "panel" (S -> aSa | b) o "palindromos"
+     * (S -> aSa | bSb | a | b | λ).
+     */
+    static GramaticaLibreContexto gramaticaLibreContexto(String modelo) {
+        Map<String, Set<String>> producciones = new HashMap<>();
+        if (modelo.equals("panel")) {
+            producciones.put("S", conjunto("aSa", "b"));
+        } else if (modelo.equals("palindromos")) {
+            producciones.put("S", conjunto("aSa", "bSb", "a", "b", "λ"));
+        } else if (modelo.equals("expresiones")) {
+            // Expresiones aritméticas sin recursión izquierda (LL(1))
+            producciones.put("E", conjunto("TX"));
+            producciones.put("X", conjunto("+TX", "λ"));
+            producciones.put("T", conjunto("FY"));
+            producciones.put("Y", conjunto("*FY", "λ"));
+            producciones.put("F", conjunto("(E)", "i"));
+            return new GramaticaLibreContexto(conjunto("E", "X", "T", "Y", "F"), conjunto("+", "*", "(", ")", "i"),
+                    producciones, "E");
+        } else if (modelo.equals("expresionesIzq")) {
+            // Las mismas expresiones con recursión izquierda (LALR(1), no LL(1))
+            producciones.put("E", conjunto("E+T", "T"));
+            producciones.put("T", conjunto("T*F", "F"));
+            producciones.put("F", conjunto("(E)", "i"));
+            return new GramaticaLibreContexto(conjunto("E", "T", "F"), conjunto("+", "*", "(", ")", "i"),
+                    producciones, "E");
+        } else if (modelo.equals("expresionesInutiles")) {
+            // expresionesIzq con una variable que no genera nada (U) y otra inalcanzable (W):
+            // la normalización las quita y la gramática se achica
+            producciones.put("E", conjunto("E+T", "T", "UE", "EU"));
+            producciones.put("T", conjunto("T*F", "F"));
+            producciones.put("F", conjunto("(E)", "i", "UF"));
+            producciones.put("U", conjunto("U+", "*U", "UU"));
+            producciones.put("W", conjunto("W+i", "i"));
+            return new GramaticaLibreContexto(conjunto("E", "T", "F", "U", "W"), conjunto("+", "*", "(", ")", "i"),
+                    producciones, "E");
+        } else if (modelo.equals("ambigua")) {
+            // Las mismas expresiones sin precedencia: el número de derivaciones crece como Catalan
+            producciones.put("E", conjunto("E+E", "E*E", "(E)", "i"));
+            return new GramaticaLibreContexto(conjunto("E"), conjunto("+", "*", "(", ")", "i"), producciones, "E");
+        } else if (modelo.startsWith("niveles")) {
+            return gramaticaPorNiveles(Integer.parseInt(modelo.substring("niveles".length())));
+        } else {
+            throw new IllegalArgumentException("Modelo de GLC desconocido: " + modelo);
+        }
+        return new GramaticaLibreContexto(conjunto("S"), conjunto("a", "b"), producciones, "S");
+    }
+
+    static String cadenaGLC(String modelo, int longitud, long semilla) {
+        if (modelo.equals("panel")) {
+            return "a".repeat(longitud / 2) + "b" + "a".repeat(longitud / 2);
+        }
+        if (modelo.equals("expresiones") || modelo.equals("expresionesIzq") || modelo.equals("expresionesInutiles")
+                || modelo.equals("ambigua")) {
+            return expresionAleatoria(longitud, "+*", new Random(semilla));
+        }
+        if (modelo.startsWith("niveles")) {
+            int niveles = Integer.parseInt(modelo.substring("niveles".length()));
+            StringBuilder operadores = new StringBuilder();
+            for (int k = 0; k < 2 * niveles; k++) operadores.append(operadorDeNivel(k));
+            return expresionAleatoria(longitud, operadores.toString(), new Random(semilla));
+        }
+        String w = cadenaAleatoria("ab", longitud / 2, semilla);
+        return w + new StringBuilder(w).reverse();
+    }
+
+    /**
+     * Gramática de expresiones con la cantidad dada de niveles de precedencia, dos
+     * operadores binarios asociativos a izquierda por nivel: E_k -> E_k o E_k+1 | E_k+1, y
+     * el último nivel -> (E_0) | i. Tiene 3 * niveles + 2 producciones; variables y
+     * operadores son caracteres fuera de ASCII para que quepan cientos.
+     */
+    private static GramaticaLibreContexto gramaticaPorNiveles(int niveles) {
+        Set<String> variables = new LinkedHashSet<>();
+        Set<String> terminales = new LinkedHashSet<>(Arrays.asList("(", ")", "i"));
+        Map<String, Set<String>> producciones = new HashMap<>();
+        for (int k = 0; k <= niveles; k++) variables.add(String.valueOf(variableDeNivel(k)));
+        for (int k = 0; k < niveles; k++) {
+            char e = variableDeNivel(k);
+            char siguiente = variableDeNivel(k + 1);
+            char o1 = operadorDeNivel(2 * k);
+            char o2 = operadorDeNivel(2 * k + 1);
+            terminales.add(String.valueOf(o1));
+            terminales.add(String.valueOf(o2));
+            producciones.put(String.valueOf(e), conjunto("" + e + o1 + siguiente, "" + e + o2 + siguiente, "" + siguiente));
+        }
+        producciones.put(String.valueOf(variableDeNivel(niveles)), conjunto("(" + variableDeNivel(0) + ")", "i"));
+        return new GramaticaLibreContexto(variables, terminales, producciones, String.valueOf(variableDeNivel(0)));
+    }
+
+    private static char variableDeNivel(int k) {
+        return (char) (0x100 + k);
+    }
+
+    private static char operadorDeNivel(int k) {
+        return (char) (0x1000 + k);
+    }
+
+    /** Expresión de aproximadamente la longitud dada: términos "i" o "(...)" unidos por los operadores. */
+    private static String expresionAleatoria(int longitud, String operadores, Random random) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < longitud) {
+            if (sb.length() > 0) sb.append(operadores.charAt(random.nextInt(operadores.length())));
+            int resto = longitud - sb.length();
+            if (resto > 8 && random.nextInt(4) == 0) {
+                sb.append('(').append(expresionAleatoria(resto / 3, operadores, random)).append(')');
+            } else {
+                sb.append('i');
+            }
+        }
+        return sb.toString();
+    }
+
+    // --- Utilidades ---
+
+    static String cadenaAleatoria(String simbolos, int longitud, long semilla) {
+        Random random = new Random(semilla);
+        char[] c = new char[longitud];
+        for (int i = 0; i < longitud; i++) c[i] = simbolos.charAt(random.nextInt(simbolos.length()));
+        return new String(c);
+    }
+
+    /**
+     * Cadena donde el primer símbolo aparece con el porcentaje dado y el resto se reparte.
+     */
+    static String cadenaSesgada(String simbolos, int longitud, int porcentaje, long semilla) {
+        Random random = new Random(semilla);
+        char[] c = new char[longitud];
+        for (int i = 0; i < longitud; i++) {
+            c[i] = random.nextInt(100) < porcentaje
+                    ? simbolos.charAt(0)
+                    : simbolos.charAt(1 + random.nextInt(simbolos.length() - 1));
+        }
+        return new String(c);
+    }
+
+    private static Set<String> conjunto(String... elementos) {
+        return new HashSet<>(Arrays.asList(elementos));
+    }
+
+    private static Map<String, String> mapa(String... claveValor) {
+        Map<String, String> m = new HashMap<>();
+        for (int i = 0; i < claveValor.length; i += 2) m.put(claveValor[i], claveValor[i + 1]);
+        return m;
+    }
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import modelo.GramaticaCompilada;
+import modelo.GramaticaLibreContexto;
+import modelo.NormalizadorGramatica;
+import modelo.ReconocedorEarley;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de normalizar la gramática y Earley sobre la gramática escrita frente a la
+ * normalizada. Cuando la normalización agrega producciones (la eliminación de λ en
+ * expresiones y palindromos, la de unitarias en niveles) la normalizada pierde; cuando
+ * quita símbolos inútiles (expresionesInutiles) gana. earleyGLC pasa por
+ * GramaticaLibreContexto, que solo usa la normalizada si no crece: debería seguir a la
+ * mejor de las dos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizadorGramaticaBenchmark {
+
+    @Param({"expresiones", "palindromos", "niveles8", "expresionesInutiles"})
+    public String modelo;
+
+    @Param({"64", "256"})
+    public int longitud;
+
+    private GramaticaLibreContexto glc;
+    private GramaticaCompilada original;
+    private GramaticaCompilada normalizada;
+    private String cadena;
+
+    @Setup
+    public void preparar() {
+        glc = Modelos.gramaticaLibreContexto(modelo);
+        original = glc.getCompilada();
+        normalizada = glc.normalizar(false).getGramatica();
+        cadena = Modelos.cadenaGLC(modelo, longitud, 7);
+    }
+
+    @Benchmark
+    public int normalizar() {
+        return NormalizadorGramatica.normalizar(original, false).getProduccionesDespues();
+    }
+
+    @Benchmark
+    public boolean earleyOriginal() {
+        return new ReconocedorEarley(original).reconocer(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public boolean earleyNormalizada() {
+        return new ReconocedorEarley(normalizada).reconocer(cadena).isAceptada();
+    }
+
+    @Benchmark
+    public boolean earleyGLC() {
+        return glc.reconocerEarley(cadena).isAceptada();
+    }
+}
@@ -1,9 +1,15 @@
 package controlador;
 
 import modelo.AFD;
+import modelo.AnalizadorGLL;
+import modelo.AnalizadorLALR;
+import modelo.AnalizadorLL1;
+import modelo.BosqueSPPF;
 import modelo.GramaticaRegular;
 import modelo.GramaticaLibreContexto;
+import modelo.NormalizadorGramatica;
 import modelo.AutomataPila;
+import modelo.TrazaCompactaAP;
 import vista.AFDPanel;
 import vista.GRPanel;
 import vista.GLCPanel;
@@ -32,6 +38,14 @@ public class MainController implements ActionListener {
     private GLCPanel glcPanel;
     private APPanel apPanel;
 
+    // Pasos de la traza del AP que se formatean a la vez
+    private static final int PASOS_POR_PAGINA_AP = 500;
+
+    // Última simulación paso a paso del AP: su traza sin formatear y la página visible
+    private TrazaCompactaAP trazaAP;
+    private String resumenAP;
+    private int paginaTrazaAP;
+
     public MainController(MainView view) {
         this.view = view;
     }
@@ -78,15 +92,54 @@ public class MainController implements ActionListener {
             case AFDPanel.CMD_SIMULAR_AFD:
                 simularAFD();
                 break;
+            case AFDPanel.CMD_MINIMIZAR_AFD:
+                minimizarAFD();
+                break;
             case GRPanel.CMD_VERIFICAR_GR:
                 verificarGR();
                 break;
             case GLCPanel.CMD_VERIFICAR_GLC:
                 verificarGLC();
                 break;
+            case GLCPanel.CMD_RECONOCER_GLC_EARLEY:
+                reconocerGLCEarley();
+                break;
+            case GLCPanel.CMD_RECONOCER_GLC_CYK:
+                reconocerGLCCYK();
+                break;
+            case GLCPanel.CMD_ANALIZAR_GLC_LL1:
+                analizarGLCLL1();
+                break;
+            case GLCPanel.CMD_ANALIZAR_GLC_LALR:
+                analizarGLCLALR();
+                break;
+            case GLCPanel.CMD_ANALIZAR_GLC_GLL:
+                analizarGLCGLL();
+                break;
+            case GLCPanel.CMD_NORMALIZAR_GLC:
+                normalizarGLC(false);
+                break;
+            case GLCPanel.CMD_NORMALIZAR_FACTORIZAR_GLC:
+                normalizarGLC(true);
+                break;
             case APPanel.CMD_SIMULAR_AP:
                 simularAP();
                 break;
+            case APPanel.CMD_SIMULAR_AP_ANCHURA:
+                simularAPAnchura();
+                break;
+            case APPanel.CMD_SIMULAR_AP_GSS:
+                simularAPGSS();
+                break;
+            case APPanel.CMD_SIMULAR_AP_PARALELO:
+                simularAPParalelo();
+                break;
+            case APPanel.CMD_TRAZA_AP_ANTERIOR:
+                mostrarPaginaTrazaAP(paginaTrazaAP - 1);
+                break;
+            case APPanel.CMD_TRAZA_AP_SIGUIENTE:
+                mostrarPaginaTrazaAP(paginaTrazaAP + 1);
+                break;
 
             default:
                 // Manejo de comandos desconocidos
@@ -98,27 +151,11 @@ public class MainController implements ActionListener {
 
     private void simularAFD() {
         try {
-            // 1. Obtener datos de la Vista
-            Set<String> estados = parseList(afdPanel.getEstadosInput());
-            Set<String> alfabeto = parseList(afdPanel.getAlfabetoInput());
-            String estadoInicial = afdPanel.getEstadoInicialInput();
-            Set<String> estadosFinales = parseList(afdPanel.getEstadosFinalesInput());
-            String transicionesRaw = afdPanel.getTransicionesInput();
+            // 1. Obtener datos de la Vista y crear el Modelo
+            AFD afd = construirAFD();
             String cadenaPrueba = afdPanel.getCadenaPruebaInput();
 
-            if (estadoInicial.isEmpty()) {
-                throw new IllegalArgumentException("El Estado Inicial es obligatorio.");
-            }
-            if (estadosFinales.isEmpty()) {
-                throw new IllegalArgumentException("El conjunto de Estados Finales (F) no puede estar vacío.");
-            }
-
-            // 2. Parsear transiciones y crear el Modelo
-            Map<String, Map<String, String>> delta = parseRawTransicionesAFD(transicionesRaw, estados, alfabeto);
-
-            AFD afd = new AFD(estados, alfabeto, delta, estadoInicial, estadosFinales);
-
-            // 3. Simular y 4. Mostrar resultado en la Vista
+            // 2. Simular y 3. Mostrar resultado en la Vista
             StringBuilder logBuffer = new StringBuilder();
             afd.simularCadena(cadenaPrueba, logBuffer);
 
@@ -133,6 +170,46 @@ public class MainController implements ActionListener {
         }
     }
 
+    /**
+     * Minimiza el AFD definido en la Vista y muestra los tamaños antes/después.
+     */
+    private void minimizarAFD() {
+        try {
+            AFD afd = construirAFD();
+            afdPanel.mostrarResultado(afd.minimizar().describir());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en el AFD: " + e.getMessage(), "Error de AFD", JOptionPane.ERROR_MESSAGE);
+            afdPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al minimizar el AFD: " + e.getMessage(), "Error de AFD", JOptionPane.ERROR_MESSAGE);
+            afdPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee la 5-tupla del panel AFD, la valida y crea el Modelo.
+     */
+    private AFD construirAFD() {
+        Set<String> estados = parseList(afdPanel.getEstadosInput());
+        Set<String> alfabeto = parseList(afdPanel.getAlfabetoInput());
+        String estadoInicial = afdPanel.getEstadoInicialInput();
+        Set<String> estadosFinales = parseList(afdPanel.getEstadosFinalesInput());
+        String transicionesRaw = afdPanel.getTransicionesInput();
+
+        if (estadoInicial.isEmpty()) {
+            throw new IllegalArgumentException("El Estado Inicial es obligatorio.");
+        }
+        if (estadosFinales.isEmpty()) {
+            throw new IllegalArgumentException("El conjunto de Estados Finales (F) no puede estar vacío.");
+        }
+
+        // Parsear transiciones y crear el Modelo
+        Map<String, Map<String, String>> delta = parseRawTransicionesAFD(transicionesRaw, estados, alfabeto);
+
+        return new AFD(estados, alfabeto, delta, estadoInicial, estadosFinales);
+    }
+
     private void verificarGR() {
         try {
             // 1. Obtener datos de la Vista
@@ -174,25 +251,10 @@ public class MainController implements ActionListener {
 
     private void verificarGLC() {
         try {
-            // 1. Obtener datos de la Vista
-            Set<String> variables = parseList(glcPanel.getVariablesInput());
-            Set<String> terminales = parseList(glcPanel.getTerminalesInput());
-            String simboloInicial = glcPanel.getSimboloInicialInput();
-            String produccionesRaw = glcPanel.getProduccionesInput();
+            // 1. Obtener datos de la Vista y 2. crear el Modelo
+            GramaticaLibreContexto glc = construirGLC();
             String cadenaPrueba = glcPanel.getCadenaPruebaInput();
 
-            if (simboloInicial.isEmpty()) {
-                throw new IllegalArgumentException("El Símbolo Inicial (S) es obligatorio.");
-            }
-            if (!variables.contains(simboloInicial)) {
-                throw new IllegalArgumentException("El Símbolo Inicial debe estar en el conjunto de Variables.");
-            }
-
-            // 2. Parsear producciones y crear el Modelo
-            Map<String, Set<String>> producciones = parseRawProducciones(produccionesRaw);
-
-            GramaticaLibreContexto glc = new GramaticaLibreContexto(variables, terminales, producciones, simboloInicial);
-
             // 3. Verificar y 4. Mostrar resultado en la Vista
             StringBuilder logBuffer = new StringBuilder();
             boolean aceptada = glc.verificarCadena(cadenaPrueba, logBuffer);
@@ -210,44 +272,266 @@ public class MainController implements ActionListener {
     }
 
 
+    /**
+     * Reconoce la cadena con Earley: respuesta correcta para cualquier GLC, sin traza.
+     */
+    private void reconocerGLCEarley() {
+        try {
+            GramaticaLibreContexto glc = construirGLC();
+            String cadenaPrueba = glcPanel.getCadenaPruebaInput();
+            glcPanel.mostrarResultado("Cadena a evaluar: " + cadenaPrueba + "\n" + glc.reconocerEarley(cadenaPrueba).describir());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reconoce la cadena con CYK sobre la forma normal de Chomsky de la gramática.
+     */
+    private void reconocerGLCCYK() {
+        try {
+            GramaticaLibreContexto glc = construirGLC();
+            String cadenaPrueba = glcPanel.getCadenaPruebaInput();
+            glcPanel.mostrarResultado("Cadena a evaluar: " + cadenaPrueba + "\n" + glc.reconocerCYK(cadenaPrueba).describir()
+                    + "\n" + glc.getFormaNormalChomsky().describir(40));
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Analiza la cadena con la tabla LL(1); si la gramática no es LL(1) muestra los
+     * conflictos de la tabla en lugar del resultado.
+     */
+    private void analizarGLCLL1() {
+        try {
+            GramaticaLibreContexto glc = construirGLC();
+            String cadenaPrueba = glcPanel.getCadenaPruebaInput();
+            AnalizadorLL1 ll1 = glc.getAnalizadorLL1();
+            if (!ll1.esLL1()) {
+                glcPanel.mostrarResultado("--- ANÁLISIS LL(1) ---\n" + ll1.describir());
+                return;
+            }
+            glcPanel.mostrarResultado("Cadena a evaluar: " + cadenaPrueba + "\n" + glc.analizarLL1(cadenaPrueba).describir()
+                    + "\n" + ll1.describir());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Analiza la cadena con las tablas LALR(1); si hay conflictos los muestra en lugar
+     * del resultado. Siempre informa el tamaño de las tablas y el tiempo de construcción.
+     */
+    private void analizarGLCLALR() {
+        try {
+            GramaticaLibreContexto glc = construirGLC();
+            String cadenaPrueba = glcPanel.getCadenaPruebaInput();
+            AnalizadorLALR lalr = glc.getAnalizadorLALR();
+            if (!lalr.esLALR1()) {
+                glcPanel.mostrarResultado("--- ANÁLISIS LALR(1) ---\n" + lalr.describir());
+                return;
+            }
+            glcPanel.mostrarResultado("Cadena a evaluar: " + cadenaPrueba + "\n" + glc.analizarLALR(cadenaPrueba).describir()
+                    + "\n" + lalr.describir());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Analiza la cadena con GLL, que admite cualquier GLC, y muestra el número de
+     * derivaciones, la primera de ellas y los nodos del bosque compartido.
+     */
+    private void analizarGLCGLL() {
+        try {
+            GramaticaLibreContexto glc = construirGLC();
+            String cadenaPrueba = glcPanel.getCadenaPruebaInput();
+            AnalizadorGLL.ResultadoGLL resultado = glc.analizarGLL(cadenaPrueba);
+            StringBuilder sb = new StringBuilder("Cadena a evaluar: " + cadenaPrueba + "\n" + resultado.describir());
+            if (resultado.isAceptada()) {
+                String derivacion = resultado.getBosque().primeraDerivacion(2000);
+                if (!derivacion.isEmpty()) sb.append("Primera derivación: ").append(derivacion).append("\n");
+                sb.append("Nodos del bosque:\n").append(resultado.getBosque().describirNodos(60));
+            }
+            glcPanel.mostrarResultado(sb.toString());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Normaliza la GLC del panel y, si la gramática normalizada acepta la cadena de
+     * prueba, muestra su derivación traducida a las producciones escritas.
+     */
+    private void normalizarGLC(boolean factorizar) {
+        try {
+            GramaticaLibreContexto glc = construirGLC();
+            String cadenaPrueba = glcPanel.getCadenaPruebaInput();
+            NormalizadorGramatica.ResultadoNormalizacion resultado = glc.normalizar(factorizar);
+            StringBuilder sb = new StringBuilder(resultado.describir(80));
+            BosqueSPPF bosque = new AnalizadorGLL(resultado.getGramatica()).analizar(cadenaPrueba).getBosque();
+            int[] derivacion = bosque.primeraDerivacionIzquierda();
+            if (derivacion.length > 0) {
+                sb.append("\nCadena a evaluar: ").append(cadenaPrueba).append("\n");
+                sb.append("Derivación en la gramática normalizada: ")
+                        .append(resultado.getGramatica().describirDerivacion(derivacion, 2000)).append("\n");
+                sb.append("Traducida a la gramática original: ")
+                        .append(resultado.getOriginal().describirDerivacion(resultado.traducirDerivacion(derivacion), 2000)).append("\n");
+            }
+            glcPanel.mostrarResultado(sb.toString());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar la GLC: " + e.getMessage(), "Error de GLC", JOptionPane.ERROR_MESSAGE);
+            glcPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Construye la GLC con los datos del panel.
+     */
+    private GramaticaLibreContexto construirGLC() {
+        Set<String> variables = parseList(glcPanel.getVariablesInput());
+        Set<String> terminales = parseList(glcPanel.getTerminalesInput());
+        String simboloInicial = glcPanel.getSimboloInicialInput();
+        String produccionesRaw = glcPanel.getProduccionesInput();
+
+        if (simboloInicial.isEmpty()) {
+            throw new IllegalArgumentException("El Símbolo Inicial (S) es obligatorio.");
+        }
+        if (!variables.contains(simboloInicial)) {
+            throw new IllegalArgumentException("El Símbolo Inicial debe estar en el conjunto de Variables.");
+        }
+
+        // Parsear producciones y crear el Modelo
+        Map<String, Set<String>> producciones = parseRawProducciones(produccionesRaw);
+
+        return new GramaticaLibreContexto(variables, terminales, producciones, simboloInicial);
+    }
+
     /**
      * Lógica de simulación del Autómata con Pila (AP).
      * CORRECCIÓN: Lee el Símbolo Inicial de Pila (Z0) para permitir "λ" (pila vacía).
      */
     private void simularAP() {
         try {
-            // 1. Obtener datos de la Vista
-            Set<String> estados = parseList(apPanel.getEstadosInput());
-            Set<String> alfabeto = parseList(apPanel.getAlfabetoInput());
-            Set<String> alfabetoPila = parseList(apPanel.getAlfabetoPilaInput());
-            String estadoInicial = apPanel.getEstadoInicialInput().trim();
-
-            // Simbolo Inicial de Pila. Se pasa directamente a AutomataPila, que lo validará (puede ser "λ" para pila vacía).
-            String simboloInicialPila = apPanel.getSimboloInicialPilaInput().trim();
-
-            Set<String> estadosFinales = parseList(apPanel.getEstadosFinalesInput());
-            String transicionesRaw = apPanel.getTransicionesInput();
+            // 1. Obtener datos de la Vista y crear el Modelo
+            AutomataPila ap = construirAP();
             String cadenaPrueba = apPanel.getCadenaPruebaInput();
 
-            if (estadoInicial.isEmpty()) {
-                throw new IllegalArgumentException("El Estado Inicial es obligatorio.");
-            }
-            if (estadosFinales.isEmpty()) {
-                JOptionPane.showMessageDialog(view, "Advertencia: Para la aceptación solicitada ('Final y Pila Vacía'), el conjunto de Estados Finales (F) debe estar definido y la simulación lo usará.", "Advertencia de AP", JOptionPane.WARNING_MESSAGE);
+            // 3. Simular guardando la traza sin formatear y 4. Mostrar su primera página
+            TrazaCompactaAP traza = new TrazaCompactaAP();
+            ap.simularCadena(cadenaPrueba, traza);
+            StringBuilder resumen = new StringBuilder(ap.getDeterminismo().describir());
+            if (ap.getUltimaBusqueda() != null) {
+                resumen.append(ap.getUltimaBusqueda()).append("\n");
             }
 
-            // 2. Parsear transiciones y crear el Modelo
-            // Utilizamos el método estático de la clase AutomataPila para el parseo complejo de transiciones
-            Map<String, Set<AutomataPila.TransicionAP>> delta = AutomataPila.parseRawTransiciones(transicionesRaw, estados, alfabeto, alfabetoPila);
+            trazaAP = traza;
+            resumenAP = resumen.toString();
+            mostrarPaginaTrazaAP(0);
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
+            apPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
+            apPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formatea solo los pasos de una página de la última traza del AP.
+     */
+    private void mostrarPaginaTrazaAP(int pagina) {
+        if (trazaAP == null) return;
+        int total = trazaAP.getNumPasos();
+        int numPaginas = Math.max(1, (total + PASOS_POR_PAGINA_AP - 1) / PASOS_POR_PAGINA_AP);
+        paginaTrazaAP = Math.max(0, Math.min(pagina, numPaginas - 1));
+        int desde = paginaTrazaAP * PASOS_POR_PAGINA_AP;
+        int hasta = Math.min(total, desde + PASOS_POR_PAGINA_AP);
+
+        StringBuilder logBuffer = new StringBuilder();
+        trazaAP.renderizar(logBuffer, desde, hasta);
+        logBuffer.append(resumenAP);
+        String descripcion = total == 0 ? "" : "Pasos " + (desde + 1) + "-" + hasta + " de " + total;
+        apPanel.mostrarPaginaTraza(logBuffer.toString(), descripcion, paginaTrazaAP > 0, paginaTrazaAP < numPaginas - 1);
+    }
 
-            AutomataPila ap = new AutomataPila(estados, alfabeto, alfabetoPila, delta, estadoInicial, simboloInicialPila, estadosFinales);
+    /**
+     * Simula el AP en anchura con presupuestos de pasos y de configuraciones, para
+     * autómatas cuyos ciclos λ harían que la simulación con traza no termine.
+     */
+    private void simularAPAnchura() {
+        try {
+            AutomataPila ap = construirAP();
+            String cadenaPrueba = apPanel.getCadenaPruebaInput();
+            apPanel.mostrarResultado("Cadena a probar: " + cadenaPrueba + "\n" + ap.simularAnchura(cadenaPrueba).describir());
 
-            // 3. Simular y 4. Mostrar resultado en la Vista
-            StringBuilder logBuffer = new StringBuilder();
-            boolean aceptada = ap.simularCadena(cadenaPrueba, logBuffer);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
+            apPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
+            apPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
 
-            String resultadoFinal = logBuffer.toString();
-            apPanel.mostrarResultado(resultadoFinal);
+    /**
+     * Simula el AP con una pila estructurada como grafo: tiempo polinomial aunque el
+     * AP sea muy no determinista, sin traza paso a paso.
+     */
+    private void simularAPGSS() {
+        try {
+            AutomataPila ap = construirAP();
+            String cadenaPrueba = apPanel.getCadenaPruebaInput();
+            apPanel.mostrarResultado("Cadena a probar: " + cadenaPrueba + "\n" + ap.simularGSS(cadenaPrueba).describir());
+
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(view, "Error de definición en el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
+            apPanel.mostrarResultado("ERROR: " + e.getMessage());
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(view, "Error desconocido al procesar el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
+            apPanel.mostrarResultado("ERROR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Simula el AP repartiendo las ramas entre los núcleos disponibles.
+     */
+    private void simularAPParalelo() {
+        try {
+            AutomataPila ap = construirAP();
+            String cadenaPrueba = apPanel.getCadenaPruebaInput();
+            apPanel.mostrarResultado("Cadena a probar: " + cadenaPrueba + "\n" + ap.simularParalelo(cadenaPrueba).describir());
 
         } catch (IllegalArgumentException e) {
             JOptionPane.showMessageDialog(view, "Error de definición en el AP: " + e.getMessage(), "Error de AP", JOptionPane.ERROR_MESSAGE);
@@ -258,6 +542,35 @@ public class MainController implements ActionListener {
         }
     }
 
+    /**
+     * Construye el AP a partir de los campos de la Vista.
+     */
+    private AutomataPila construirAP() {
+        Set<String> estados = parseList(apPanel.getEstadosInput());
+        Set<String> alfabeto = parseList(apPanel.getAlfabetoInput());
+        Set<String> alfabetoPila = parseList(apPanel.getAlfabetoPilaInput());
+        String estadoInicial = apPanel.getEstadoInicialInput().trim();
+
+        // Simbolo Inicial de Pila. Se pasa directamente a AutomataPila, que lo validará (puede ser "λ" para pila vacía).
+        String simboloInicialPila = apPanel.getSimboloInicialPilaInput().trim();
+
+        Set<String> estadosFinales = parseList(apPanel.getEstadosFinalesInput());
+        String transicionesRaw = apPanel.getTransicionesInput();
+
+        if (estadoInicial.isEmpty()) {
+            throw new IllegalArgumentException("El Estado Inicial es obligatorio.");
+        }
+        if (estadosFinales.isEmpty()) {
+            JOptionPane.showMessageDialog(view, "Advertencia: Para la aceptación solicitada ('Final y Pila Vacía'), el conjunto de Estados Finales (F) debe estar definido y la simulación lo usará.", "Advertencia de AP", JOptionPane.WARNING_MESSAGE);
+        }
+
+        // 2. Parsear transiciones y crear el Modelo
+        // Utilizamos el método estático de la clase AutomataPila para el parseo complejo de transiciones
+        Map<String, Set<AutomataPila.TransicionAP>> delta = AutomataPila.parseRawTransiciones(transicionesRaw, estados, alfabeto, alfabetoPila);
+
+        return new AutomataPila(estados, alfabeto, alfabetoPila, delta, estadoInicial, simboloInicialPila, estadosFinales);
+    }
+
     //  MÉTODOS AUXILIARES DE PARSEO
     /**
      * Parsea una cadena de texto separada por comas (o espacios) en un Set<String>.
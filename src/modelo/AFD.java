@@ -1,7 +1,11 @@
 package modelo;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Representa un Autómata Finito Determinista (AFD).
@@ -25,6 +29,9 @@ public class AFD {
     // F: Conjunto de estados finales
     private final Set<String> estadosFinales;
 
+    // Tabla de transiciones compilada (estados y símbolos internados como enteros)
+    private final AFDCompilado compilado;
+
     /**
      * Constructor del AFD.
      */
@@ -39,6 +46,81 @@ public class AFD {
         this.estadosFinales = estadosFinales;
 
         // Aquí se pueden agregar más validaciones de consistencia del AFD
+
+        this.compilado = AFDCompilado.compilar(estados, alfabeto, transiciones, estadoInicial, estadosFinales);
+    }
+
+    /**
+     * Verifica si la cadena es aceptada usando la tabla compilada, sin registrar el proceso.
+     * Pensado para verificaciones masivas donde el log paso a paso no es necesario.
+     * @param cadena La cadena a probar.
+     * @return true si la cadena es aceptada, false si es rechazada.
+     */
+    public boolean acepta(CharSequence cadena) {
+        return compilado.acepta(cadena);
+    }
+
+    /**
+     * Genera una clase especializada para este AFD (ver {@link GeneradorEmparejadorAFD}).
+     * Si el AFD supera el umbral de tamaño se devuelve la tabla compilada.
+     */
+    public EmparejadorAFD generarEmparejador() {
+        return GeneradorEmparejadorAFD.generar(compilado);
+    }
+
+    /**
+     * Verifica una sola cadena muy larga dividiéndola en tramos que se simulan en paralelo
+     * de forma especulativa. Para cadenas cortas equivale a {@link #acepta(CharSequence)}.
+     */
+    public boolean aceptaParalelo(CharSequence cadena) {
+        return new SimuladorParaleloAFD(compilado).acepta(cadena);
+    }
+
+    /**
+     * Verifica en paralelo un lote de cadenas contra este AFD.
+     * @param cadenas Las cadenas a probar.
+     * @return Bitmap con un bit por cadena y el rendimiento medido.
+     */
+    public VerificadorLoteAFD.ResultadoLote verificarLote(Collection<? extends CharSequence> cadenas) {
+        return new VerificadorLoteAFD(compilado).verificar(cadenas);
+    }
+
+    /**
+     * Igual que {@link #verificarLote(Collection)} pero a partir de un flujo de cadenas.
+     */
+    public VerificadorLoteAFD.ResultadoLote verificarLote(Stream<? extends CharSequence> cadenas) {
+        return new VerificadorLoteAFD(compilado).verificar(cadenas);
+    }
+
+    /**
+     * Simula el AFD sobre un Reader en bloques de tamaño fijo, sin cargar la entrada en memoria.
+     * Para canales o archivos mapeados use {@link SimuladorFlujoAFD} directamente.
+     */
+    public SimuladorFlujoAFD.ResultadoFlujo simularFlujo(Reader lector) throws IOException {
+        return new SimuladorFlujoAFD(compilado).simular(lector);
+    }
+
+    /**
+     * Calcula el AFD mínimo equivalente (poda de inalcanzables + Hopcroft).
+     * @return El AFD mínimo, el mapeo de estados y los tamaños antes/después.
+     */
+    public MinimizadorAFD.ResultadoMinimizacion minimizar() {
+        return MinimizadorAFD.minimizar(this);
+    }
+
+    public AFDCompilado getCompilado() {
+        return compilado;
+    }
+
+    public Set<String> getEstados() { return estados; }
+    public Set<String> getAlfabeto() { return alfabeto; }
+    public Map<String, Map<String, String>> getTransiciones() { return transiciones; }
+    public String getEstadoInicial() { return estadoInicial; }
+    public Set<String> getEstadosFinales() { return estadosFinales; }
+
+    /** Número de pares (q, a) con δ(q, a) definida. */
+    public int getNumTransiciones() {
+        return transiciones.values().stream().mapToInt(Map::size).sum();
     }
 
     /**
@@ -48,11 +130,25 @@ public class AFD {
      * @return true si la cadena es aceptada, false si es rechazada.
      */
     public boolean simularCadena(String cadena, StringBuilder logBuffer) {
-        logBuffer.append("--- INICIO DE SIMULACIÓN ---\n");
-        logBuffer.append("Cadena a evaluar: ").append(cadena).append("\n");
+        return simularCadena(cadena, new TrazaTexto(logBuffer));
+    }
+
+    /**
+     * Simula la ejecución del AFD notificando cada paso al oyente.
+     * Con {@link OyenteTraza#NULO} se usa directamente la tabla compilada.
+     * @param cadena La cadena a probar.
+     * @param traza Oyente que recibe los eventos de la simulación.
+     * @return true si la cadena es aceptada, false si es rechazada.
+     */
+    public boolean simularCadena(CharSequence cadena, OyenteTraza traza) {
+        if (!traza.activo()) {
+            return compilado.acepta(cadena);
+        }
+
+        traza.inicio(OyenteTraza.Modelo.AFD, cadena);
 
         String estadoActual = estadoInicial;
-        logBuffer.append("Paso 0: Estado inicial: ").append(estadoActual).append("\n");
+        traza.estadoInicial(estadoActual);
 
         int paso = 1;
 
@@ -63,8 +159,8 @@ public class AFD {
 
             // 1. Validar que el símbolo esté en el alfabeto
             if (!alfabeto.contains(simbolo)) {
-                logBuffer.append("\n!!! ERROR !!!\n");
-                logBuffer.append("El símbolo '").append(simbolo).append("' de la cadena no pertenece al alfabeto del AFD.\n");
+                traza.simboloFueraDeAlfabeto(i, simboloChar);
+                traza.fin(false);
                 return false;
             }
 
@@ -73,37 +169,24 @@ public class AFD {
 
             if (transicionesDesdeEstado == null || !transicionesDesdeEstado.containsKey(simbolo)) {
                 // No hay transición definida para (estadoActual, simbolo)
-                logBuffer.append("\nEstado actual: ").append(estadoActual).append(", Símbolo leído: ").append(simbolo).append("\n");
-                logBuffer.append("!!! RECHAZADA !!!\n");
-                logBuffer.append("No existe transición definida para el par (").append(estadoActual).append(", ").append(simbolo).append(").\n");
+                traza.sinTransicion(i, estadoActual, simboloChar);
+                traza.fin(false);
                 return false;
             }
 
             String estadoSiguiente = transicionesDesdeEstado.get(simbolo);
 
             // 3. Registrar y actualizar el estado
-            logBuffer.append("Paso ").append(paso++).append(": Leer '").append(simbolo)
-                    .append("'. Transición δ(").append(estadoActual).append(", ").append(simbolo)
-                    .append(") -> ").append(estadoSiguiente).append("\n");
+            traza.transicion(paso++, estadoActual, simboloChar, estadoSiguiente);
 
             estadoActual = estadoSiguiente;
         }
 
-        logBuffer.append("\n--- FIN DE CADENA ---\n");
-        logBuffer.append("Estado final alcanzado: ").append(estadoActual).append("\n");
-
         // 4. Determinar si el estado final alcanzado es un estado de aceptación
         boolean aceptada = estadosFinales.contains(estadoActual);
 
-        if (aceptada) {
-            logBuffer.append("El estado ").append(estadoActual).append(" es un estado FINAL (F).\n");
-            logBuffer.append("RESULTADO: ACEPTADA\n");
-        } else {
-            logBuffer.append("El estado ").append(estadoActual).append(" NO es un estado final (F).\n");
-            logBuffer.append("RESULTADO: RECHAZADA\n");
-        }
-
-        logBuffer.append("--------------------------\n");
+        traza.estadoAlcanzado(estadoActual, aceptada);
+        traza.fin(aceptada);
 
         return aceptada;
     }
@@ -0,0 +1,226 @@
+package modelo;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Forma compilada de un AFD: estados y símbolos internados como enteros densos
+ * y la función de transición δ almacenada en una tabla plana int[].
+ *
+ * La tabla es completa: incluye un estado muerto explícito (no final y absorbente)
+ * y una columna 0 reservada para los caracteres que no pertenecen a Σ, de modo que
+ * el bucle de simulación no necesita ramas ni asigna memoria por carácter.
+ *
+ * Las columnas no son caracteres sino clases de equivalencia: dos caracteres comparten
+ * columna si van al mismo destino en todos los estados. Un alfabeto Unicode de miles
+ * de símbolos suele quedar en unas pocas clases. El carácter se traduce a su clase con
+ * una tabla de dos niveles sobre el BMP (bloques de 256 caracteres, con los bloques
+ * iguales compartidos), por lo que el costo sigue siendo O(1) por carácter.
+ */
+public final class AFDCompilado implements EmparejadorAFD {
+
+    // Columna reservada para los caracteres que no pertenecen al alfabeto
+    static final int COLUMNA_AJENA = 0;
+
+    // Nombres de los estados indexados por id (el estado muerto no tiene nombre)
+    private final String[] nombresEstados;
+
+    // Id del estado muerto (siempre el último)
+    private final int estadoMuerto;
+
+    private final int estadoInicial;
+
+    // Número de columnas de la tabla (clases de equivalencia, incluida la ajena)
+    private final int numColumnas;
+
+    // δ plana: tabla[estado * numColumnas + columna] -> estado siguiente
+    private final int[] tabla;
+
+    private final boolean[] finales;
+
+    // Carácter -> columna en dos niveles: bloques[indiceBloque[c >>> 8] + (c & 0xFF)]
+    private final int[] indiceBloque;
+    private final int[] bloques;
+
+    // Caracteres de Σ en orden ascendente (solo símbolos de un carácter)
+    private final char[] caracteres;
+
+    private AFDCompilado(String[] nombresEstados, int estadoInicial, int numColumnas, int[] tabla,
+                         boolean[] finales, int[] indiceBloque, int[] bloques, char[] caracteres) {
+        this.nombresEstados = nombresEstados;
+        this.estadoMuerto = nombresEstados.length;
+        this.estadoInicial = estadoInicial;
+        this.numColumnas = numColumnas;
+        this.tabla = tabla;
+        this.finales = finales;
+        this.indiceBloque = indiceBloque;
+        this.bloques = bloques;
+        this.caracteres = caracteres;
+    }
+
+    /**
+     * Compila la definición basada en mapas de un AFD.
+     * Los símbolos de Σ con más de un carácter se ignoran, ya que la simulación lee
+     * la cadena carácter a carácter y nunca podrían coincidir.
+     */
+    public static AFDCompilado compilar(Set<String> estados, Set<String> alfabeto,
+                                        Map<String, Map<String, String>> transiciones,
+                                        String estadoInicial, Set<String> estadosFinales) {
+        // 1. Internar estados (Q, más los que aparezcan solo en δ o como q0)
+        Map<String, Integer> idEstado = new HashMap<>();
+        Set<String> todos = new LinkedHashSet<>(estados);
+        todos.add(estadoInicial);
+        for (Map.Entry<String, Map<String, String>> e : transiciones.entrySet()) {
+            todos.add(e.getKey());
+            todos.addAll(e.getValue().values());
+        }
+        String[] nombres = todos.toArray(new String[0]);
+        for (int i = 0; i < nombres.length; i++) {
+            idEstado.put(nombres[i], i);
+        }
+        int muerto = nombres.length;
+
+        // 2. Internar los caracteres de Σ
+        char[] caracteres = alfabeto.stream()
+                .filter(s -> s.length() == 1)
+                .mapToInt(s -> s.charAt(0))
+                .sorted()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString().toCharArray();
+
+        // 3. Clases de equivalencia de caracteres por refinamiento: se parte de una sola
+        // clase (la ajena, a la que van también los símbolos sin transiciones) y cada
+        // estado separa los caracteres de una clase según su destino. Los caracteres que
+        // un estado no menciona van al estado muerto y conservan su clase.
+        int[] clase = new int[caracteres.length];
+        int numClases = 1;
+        for (Map.Entry<String, Map<String, String>> e : transiciones.entrySet()) {
+            Map<Long, Integer> division = new HashMap<>();
+            for (Map.Entry<String, String> t : e.getValue().entrySet()) {
+                String simbolo = t.getKey();
+                if (simbolo.length() != 1 || !alfabeto.contains(simbolo)) continue;
+                int i = Arrays.binarySearch(caracteres, simbolo.charAt(0));
+                long clave = ((long) clase[i] << 32) | idEstado.get(t.getValue());
+                Integer nueva = division.get(clave);
+                if (nueva == null) {
+                    nueva = numClases++;
+                    division.put(clave, nueva);
+                }
+                clase[i] = nueva;
+            }
+        }
+
+        // Renumerar las clases de forma densa; la ajena sigue siendo la columna 0
+        int[] columnaDeClase = new int[numClases];
+        Arrays.fill(columnaDeClase, -1);
+        columnaDeClase[0] = COLUMNA_AJENA;
+        int numColumnas = 1;
+        for (int i = 0; i < caracteres.length; i++) {
+            if (columnaDeClase[clase[i]] < 0) columnaDeClase[clase[i]] = numColumnas++;
+            clase[i] = columnaDeClase[clase[i]];
+        }
+
+        // 4. Tabla de dos niveles carácter -> columna, compartiendo bloques iguales
+        int[] indiceBloque = new int[256];
+        Map<IntBuffer, Integer> bloquesUnicos = new HashMap<>();
+        int[] bloques = new int[0];
+        int j = 0;
+        for (int b = 0; b < 256; b++) {
+            int[] bloque = new int[256];
+            for (; j < caracteres.length && (caracteres[j] >>> 8) == b; j++) {
+                bloque[caracteres[j] & 0xFF] = clase[j];
+            }
+            Integer desplazamiento = bloquesUnicos.get(IntBuffer.wrap(bloque));
+            if (desplazamiento == null) {
+                desplazamiento = bloques.length;
+                bloques = Arrays.copyOf(bloques, bloques.length + 256);
+                System.arraycopy(bloque, 0, bloques, desplazamiento, 256);
+                bloquesUnicos.put(IntBuffer.wrap(bloque), desplazamiento);
+            }
+            indiceBloque[b] = desplazamiento;
+        }
+
+        // 5. Construir la tabla completa; toda entrada no definida va al estado muerto
+        int[] tabla = new int[(muerto + 1) * numColumnas];
+        Arrays.fill(tabla, muerto);
+        for (Map.Entry<String, Map<String, String>> e : transiciones.entrySet()) {
+            int origen = idEstado.get(e.getKey());
+            for (Map.Entry<String, String> t : e.getValue().entrySet()) {
+                String simbolo = t.getKey();
+                if (simbolo.length() != 1 || !alfabeto.contains(simbolo)) continue;
+                int columna = clase[Arrays.binarySearch(caracteres, simbolo.charAt(0))];
+                tabla[origen * numColumnas + columna] = idEstado.get(t.getValue());
+            }
+        }
+
+        boolean[] finales = new boolean[muerto + 1];
+        for (String f : estadosFinales) {
+            Integer id = idEstado.get(f);
+            if (id != null) finales[id] = true;
+        }
+
+        return new AFDCompilado(nombres, idEstado.get(estadoInicial), numColumnas, tabla,
+                finales, indiceBloque, bloques, caracteres);
+    }
+
+    /**
+     * Decide si la cadena pertenece al lenguaje sin asignar memoria por carácter.
+     */
+    @Override
+    public boolean acepta(CharSequence cadena) {
+        return finales[recorrer(estadoInicial, cadena, 0, cadena.length())];
+    }
+
+    /**
+     * Aplica δ sobre cadena[desde, hasta) partiendo de un estado dado y devuelve el
+     * estado alcanzado. Se detiene en cuanto cae en el estado muerto.
+     */
+    public int recorrer(int estado, CharSequence cadena, int desde, int hasta) {
+        final int[] tabla = this.tabla;
+        final int numColumnas = this.numColumnas;
+        for (int i = desde; i < hasta && estado != estadoMuerto; i++) {
+            estado = tabla[estado * numColumnas + columna(cadena.charAt(i))];
+        }
+        return estado;
+    }
+
+    /**
+     * δ(estado, c) sobre la tabla compilada.
+     */
+    public int siguiente(int estado, char c) {
+        return tabla[estado * numColumnas + columna(c)];
+    }
+
+    int columna(char c) {
+        return bloques[indiceBloque[c >>> 8] + (c & 0xFF)];
+    }
+
+    public int getEstadoInicial() { return estadoInicial; }
+    public int getEstadoMuerto() { return estadoMuerto; }
+    public boolean esFinal(int estado) { return finales[estado]; }
+
+    /** Número de estados, incluido el estado muerto. */
+    public int getNumEstados() { return estadoMuerto + 1; }
+
+    /** Número de columnas: clases de equivalencia de caracteres, incluida la ajena. */
+    public int getNumColumnas() { return numColumnas; }
+
+    /** Memoria aproximada de la tabla δ y del mapeo carácter -> columna, en bytes. */
+    public long getBytesTablas() {
+        return 4L * (tabla.length + indiceBloque.length + bloques.length);
+    }
+
+    /** Nombre del estado en la definición original, o null para el estado muerto. */
+    public String nombreEstado(int estado) {
+        return estado == estadoMuerto ? null : nombresEstados[estado];
+    }
+
+    /** Caracteres de Σ en orden ascendente. */
+    public char[] getCaracteres() { return caracteres.clone(); }
+
+    int[] tabla() { return tabla; }
+}
@@ -0,0 +1,201 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decide si un AP es determinista y, cuando lo es, lo simula en una sola pasada.
+ *
+ * Dos transiciones del mismo estado están en conflicto si pueden aplicarse a la misma
+ * configuración: sus entradas se solapan (son iguales, una es λ, o un símbolo de Σ es
+ * prefijo del otro) y sus topes también (son iguales o uno es λ, que vale para cualquier
+ * tope). Sin conflictos, en cada configuración hay a lo sumo una transición aplicable y
+ * la simulación no necesita backtracking: la pila es un int[] y no se reserva memoria
+ * por paso.
+ */
+public final class AnalisisDeterminismoAP {
+
+    // Conflictos que se enumeran en describir()
+    private static final int MAX_CONFLICTOS_MOSTRADOS = 10;
+
+    private final AutomataPilaCompilado ap;
+    private final List<String> conflictos;
+
+    private AnalisisDeterminismoAP(AutomataPilaCompilado ap, List<String> conflictos) {
+        this.ap = ap;
+        this.conflictos = conflictos;
+    }
+
+    public static AnalisisDeterminismoAP analizar(AutomataPilaCompilado ap) {
+        List<String> conflictos = new ArrayList<>();
+        for (int q = 0; q < ap.getNumEstados(); q++) {
+            int[] ts = ap.transicionesDe[q];
+            for (int i = 0; i < ts.length; i++) {
+                for (int j = i + 1; j < ts.length; j++) {
+                    if (enConflicto(ap, ts[i], ts[j])) {
+                        conflictos.add(ap.transicion(ts[i]) + " y " + ap.transicion(ts[j]));
+                    }
+                }
+            }
+        }
+        return new AnalisisDeterminismoAP(ap, Collections.unmodifiableList(conflictos));
+    }
+
+    private static boolean enConflicto(AutomataPilaCompilado ap, int a, int b) {
+        boolean topes = ap.tope[a] == AutomataPilaCompilado.LAMBDA || ap.tope[b] == AutomataPilaCompilado.LAMBDA
+                || ap.tope[a] == ap.tope[b];
+        if (!topes || !entradasSeSolapan(ap.entrada[a], ap.entrada[b])) return false;
+        // Una transición repetida no da dos caminos distintos
+        return ap.destino[a] != ap.destino[b] || ap.tope[a] != ap.tope[b]
+                || !Arrays.equals(ap.apilar[a], ap.apilar[b]) || !mismaEntrada(ap.entrada[a], ap.entrada[b]);
+    }
+
+    private static boolean entradasSeSolapan(String a, String b) {
+        return a == null || b == null || a.startsWith(b) || b.startsWith(a);
+    }
+
+    private static boolean mismaEntrada(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    public boolean isDeterminista() {
+        return conflictos.isEmpty();
+    }
+
+    /** Pares de transiciones en conflicto, como texto. */
+    public List<String> getConflictos() {
+        return conflictos;
+    }
+
+    public String describir() {
+        if (isDeterminista()) {
+            return "Análisis: el AP es determinista; se simula en una sola pasada, sin backtracking.\n";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("Análisis: el AP NO es determinista (").append(conflictos.size())
+                .append(" conflictos); se simula con backtracking.\n");
+        for (int i = 0; i < Math.min(conflictos.size(), MAX_CONFLICTOS_MOSTRADOS); i++) {
+            sb.append("  Conflicto: ").append(conflictos.get(i)).append("\n");
+        }
+        if (conflictos.size() > MAX_CONFLICTOS_MOSTRADOS) {
+            sb.append("  ... (").append(conflictos.size() - MAX_CONFLICTOS_MOSTRADOS).append(" más)\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return isDeterminista() ? "Determinista" : "No determinista (" + conflictos.size() + " conflictos)";
+    }
+
+    /**
+     * Simulación de una sola pasada. Solo es válida si el AP es determinista.
+     *
+     * Un ciclo de transiciones λ se reconoce sin guardar configuraciones: si en la misma
+     * posición de la entrada reaparece el par (estado, tope) a una altura de pila mayor o
+     * igual que la de su primera aparición, y la pila nunca bajó de esa altura entre las
+     * dos, el AP repetirá ese tramo para siempre sin vaciar la pila.
+     */
+    boolean simular(String cadena, OyenteTraza traza) {
+        if (!isDeterminista()) {
+            throw new IllegalStateException("El AP no es determinista.");
+        }
+        AutomataPilaCompilado c = ap;
+        int n = cadena.length();
+        int numSimbolos = c.getNumSimbolosPila() + 1; // + λ (pila vacía)
+
+        int[] pila = new int[16];
+        int altura = 0;
+        if (c.simboloInicialPila != AutomataPilaCompilado.LAMBDA) {
+            pila[altura++] = c.simboloInicialPila;
+        }
+        // Copia persistente de la pila, solo para la traza: el oyente puede guardarla
+        PilaPersistente pilaTraza = traza.activo() ? c.pilaInicial() : null;
+
+        // (estado, tope) vistos en la posición actual: altura a la que se vieron, o -1.
+        // registros guarda los pares vigentes, con alturas no decrecientes.
+        int[] alturaVisto = new int[c.getNumEstados() * numSimbolos];
+        Arrays.fill(alturaVisto, -1);
+        int[] registros = new int[16];
+        int numRegistros = 0;
+
+        int estado = c.getEstadoInicial();
+        int posicion = 0;
+        for (int paso = 0; ; paso++) {
+            if (posicion == n && altura == 0 && c.esFinal(estado)) {
+                traza.aceptacionPila(paso, c.nombreEstado(estado));
+                return true;
+            }
+            int tope = altura == 0 ? AutomataPilaCompilado.LAMBDA : pila[altura - 1];
+
+            int par = estado * numSimbolos + tope + 1;
+            if (alturaVisto[par] >= 0) {
+                traza.configuracionRepetida(paso, c.nombreEstado(estado), true);
+                return false;
+            }
+            alturaVisto[par] = altura;
+            if (numRegistros == registros.length) registros = Arrays.copyOf(registros, numRegistros * 2);
+            registros[numRegistros++] = par;
+
+            // La única transición aplicable, si la hay
+            int t = -1;
+            int consumidos = 0;
+            if (posicion < n) {
+                int simbolo = c.entradaDeCaracter(cadena.charAt(posicion));
+                if (simbolo != AutomataPilaCompilado.LAMBDA) {
+                    t = unica(estado, simbolo, tope);
+                    consumidos = 1;
+                }
+                for (int i = 0; t < 0 && i < c.entradasLargas.length; i++) {
+                    String texto = c.entrada(c.entradasLargas[i]);
+                    if (cadena.startsWith(texto, posicion)) {
+                        t = unica(estado, c.entradasLargas[i], tope);
+                        consumidos = texto.length();
+                    }
+                }
+            }
+            if (t < 0) {
+                t = unica(estado, AutomataPilaCompilado.LAMBDA, tope);
+                consumidos = 0;
+            }
+            if (t < 0) return false;
+
+            // Aplicar: sacar el tope si se exige y meter el reemplazo (apilar[t][0] arriba)
+            if (c.tope[t] != AutomataPilaCompilado.LAMBDA) altura--;
+            int[] reemplazo = c.apilar[t];
+            if (altura + reemplazo.length > pila.length) {
+                pila = Arrays.copyOf(pila, Math.max(pila.length * 2, altura + reemplazo.length));
+            }
+            for (int i = reemplazo.length - 1; i >= 0; i--) {
+                pila[altura++] = reemplazo[i];
+            }
+            estado = c.destino[t];
+            posicion += consumidos;
+
+            if (traza.activo()) {
+                traza.transicionPila(paso, c, t, pilaTraza);
+                pilaTraza = c.aplicar(t, pilaTraza);
+            }
+
+            // Los pares vistos dejan de valer al leer entrada o si la pila baja de su altura
+            while (numRegistros > 0 && (consumidos > 0 || alturaVisto[registros[numRegistros - 1]] > altura)) {
+                alturaVisto[registros[--numRegistros]] = -1;
+            }
+        }
+    }
+
+    /**
+     * La transición de la celda (estado, entrada, tope) o, si no hay, la de
+     * (estado, entrada, λ); -1 si no hay ninguna.
+     */
+    private int unica(int estado, int entrada, int tope) {
+        if (tope != AutomataPilaCompilado.LAMBDA) {
+            int desde = ap.inicioCandidatos(estado, entrada, tope);
+            if (desde < ap.finCandidatos(estado, entrada, tope)) return ap.candidatos[desde];
+        }
+        int desde = ap.inicioCandidatos(estado, entrada, AutomataPilaCompilado.LAMBDA);
+        return desde < ap.finCandidatos(estado, entrada, AutomataPilaCompilado.LAMBDA) ? ap.candidatos[desde] : -1;
+    }
+}
@@ -0,0 +1,344 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Analizador GLL (LL generalizado) que construye el bosque SPPF de todas las
+ * derivaciones de una cadena, para cualquier GLC: ambiguas, recursivas por la izquierda,
+ * con producciones λ o con ciclos.
+ *
+ * Sigue el algoritmo de Scott y Johnstone interpretado sobre las reglas punteadas de la
+ * gramática, sin generar código. Un descriptor (regla, nodo de la pila, posición, nodo
+ * del bosque) es un punto de la búsqueda descendente pendiente de continuar; las pilas
+ * de todas las alternativas se comparten en un grafo (GSS) cuyos nodos son (regla de
+ * retorno, posición), y al terminar una variable se retoma en cada arista de su nodo.
+ * Los descriptores, nodos y aristas se identifican por sus etiquetas, así que ninguno se
+ * procesa dos veces y el costo es O(n³) en el peor caso.
+ *
+ * Antes de predecir una producción se comprueba que el carácter actual esté en PRIMERO
+ * de su cuerpo (salvo que el cuerpo sea anulable), lo que descarta la mayoría de las
+ * alternativas sin crear descriptores.
+ */
+public final class AnalizadorGLL {
+
+    // Siguiente símbolo de una regla con el punto al final
+    private static final int COMPLETA = -1;
+
+    // Nodo del bosque ausente (el $ del algoritmo)
+    private static final int SIN_NODO = BosqueSPPF.SIN_HIJO;
+
+    private final GramaticaCompilada g;
+
+    // Regla punteada r = inicioRegla[p] + k, como en el reconocedor de Earley
+    private final int[] inicioRegla;
+    private final int[] produccionDeRegla;
+    private final int[] siguienteSimbolo;
+    // true si la regla es A -> x•β con x terminal o variable no anulable y β no vacía:
+    // su prefijo es un solo nodo de símbolo y no hace falta un nodo intermedio
+    private final boolean[] prefijoSimple;
+
+    // PRIMERO del cuerpo de cada producción (sobre los terminales) y si es anulable
+    private final long[][] primeroCuerpo;
+    private final boolean[] cuerpoAnulable;
+
+    public AnalizadorGLL(GramaticaCompilada g) {
+        this.g = g;
+        int numProducciones = g.getNumProducciones();
+        inicioRegla = new int[numProducciones];
+        for (int p = 0; p < numProducciones; p++) {
+            inicioRegla[p] = g.inicioCuerpo[p] + p;
+        }
+        int total = g.simbolos.length + numProducciones;
+        produccionDeRegla = new int[total];
+        siguienteSimbolo = new int[total];
+        prefijoSimple = new boolean[total];
+        for (int p = 0; p < numProducciones; p++) {
+            int desde = g.inicioCuerpo[p];
+            int longitud = g.longitudCuerpo(p);
+            for (int k = 0; k <= longitud; k++) {
+                int r = inicioRegla[p] + k;
+                produccionDeRegla[r] = p;
+                siguienteSimbolo[r] = k < longitud ? g.simbolos[desde + k] : COMPLETA;
+                prefijoSimple[r] = k == 1 && k < longitud
+                        && (!g.esVariable(g.simbolos[desde]) || !g.anulable[g.simbolos[desde]]);
+            }
+        }
+
+        int palabras = (g.numTerminales + 63) >>> 6;
+        long[][] primero = g.calcularPrimeros(Math.max(palabras, 1));
+        primeroCuerpo = new long[numProducciones][Math.max(palabras, 1)];
+        cuerpoAnulable = new boolean[numProducciones];
+        for (int p = 0; p < numProducciones; p++) {
+            boolean anulable = true;
+            for (int i = g.inicioCuerpo[p]; i < g.inicioCuerpo[p + 1]; i++) {
+                int s = g.simbolos[i];
+                if (!g.esVariable(s)) {
+                    int t = s - g.numVariables;
+                    primeroCuerpo[p][t >>> 6] |= 1L << t;
+                    anulable = false;
+                    break;
+                }
+                for (int q = 0; q < primeroCuerpo[p].length; q++) primeroCuerpo[p][q] |= primero[s][q];
+                if (!g.anulable[s]) {
+                    anulable = false;
+                    break;
+                }
+            }
+            cuerpoAnulable[p] = anulable;
+        }
+    }
+
+    public ResultadoGLL analizar(String cadena) {
+        long inicio = System.nanoTime();
+        Analisis a = new Analisis(cadena);
+        a.ejecutar();
+        return new ResultadoGLL(a.bosque, a.numDescriptores, a.numNodosPila, a.numAristas, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Estado del análisis de una cadena.
+     */
+    private final class Analisis {
+        private final int n;
+        // Terminal (sin desplazar) de cada carácter de la entrada, o -1 si no está en Σ
+        private final int[] entrada;
+        final BosqueSPPF bosque;
+
+        // Descriptores pendientes: cuádruplas (regla, nodo de la pila, posición, nodo del bosque)
+        private int[] pendientes = new int[256];
+        private int numPendientes;
+        private final IndicePares descriptores = new IndicePares();
+        int numDescriptores;
+
+        // GSS: el nodo 0 es la base; el resto (regla de retorno, posición)
+        private int[] reglaPila = new int[64];
+        private int[] posicionPila = new int[64];
+        private int[] primeraArista = new int[64];
+        private int[] primerRetorno = new int[64];
+        int numNodosPila;
+        private final IndicePares idNodoPila = new IndicePares();
+
+        // Aristas de la GSS: nodo del bosque de la etiqueta y nodo destino, en lista por origen
+        private int[] nodoArista = new int[64];
+        private int[] destinoArista = new int[64];
+        private int[] siguienteArista = new int[64];
+        int numAristas;
+        private final IndicePares idArista = new IndicePares();
+
+        // Retornos ya hechos de cada nodo de la pila (el conjunto P): nodos del bosque en lista
+        private int[] nodoRetorno = new int[64];
+        private int[] siguienteRetorno = new int[64];
+        private int numRetornos;
+        private final TablaClaves retornos = new TablaClaves();
+
+        Analisis(String cadena) {
+            this.n = cadena.length();
+            this.entrada = new int[n];
+            for (int i = 0; i < n; i++) {
+                int s = g.terminalDeCaracter(cadena.charAt(i));
+                entrada[i] = s < 0 ? -1 : s - g.numVariables;
+            }
+            this.bosque = new BosqueSPPF(g, inicioRegla, produccionDeRegla, n);
+            // Base de la GSS
+            reglaPila[0] = -1;
+            posicionPila[0] = 0;
+            primeraArista[0] = -1;
+            primerRetorno[0] = -1;
+            numNodosPila = 1;
+        }
+
+        void ejecutar() {
+            predecir(g.inicial, 0, 0);
+            while (numPendientes > 0) {
+                numPendientes -= 4;
+                int r = pendientes[numPendientes];
+                int u = pendientes[numPendientes + 1];
+                int i = pendientes[numPendientes + 2];
+                int w = pendientes[numPendientes + 3];
+                continuar(r, u, i, w);
+            }
+            bosque.cerrar();
+        }
+
+        /**
+         * Avanza la regla r desde la posición i leyendo terminales hasta llegar a una
+         * variable (que se predice) o al final de la regla (que retorna).
+         */
+        private void continuar(int r, int u, int i, int w) {
+            if (siguienteSimbolo[r] == COMPLETA && r == inicioRegla[produccionDeRegla[r]]) {
+                // Producción λ: el nodo de la variable tiene un hijo λ
+                int z = bosque.nodo(bosque.lambda(), i, i);
+                retornar(u, i, nodoP(r, SIN_NODO, z));
+                return;
+            }
+            while (true) {
+                int s = siguienteSimbolo[r];
+                if (s == COMPLETA) {
+                    retornar(u, i, w);
+                    return;
+                }
+                if (g.esVariable(s)) {
+                    int v = crear(r + 1, u, i, w);
+                    predecir(s, v, i);
+                    return;
+                }
+                int t = s - g.numVariables;
+                if (i == n || entrada[i] != t) return;
+                int z = bosque.nodo(s, i, i + 1);
+                i++;
+                r++;
+                w = nodoP(r, w, z);
+            }
+        }
+
+        /** Descriptores para las producciones de la variable que pueden empezar en i. */
+        private void predecir(int variable, int u, int i) {
+            int t = i < n ? entrada[i] : -1;
+            for (int p : g.produccionesDe[variable]) {
+                if (cuerpoAnulable[p] || (t >= 0 && (primeroCuerpo[p][t >>> 6] & (1L << t)) != 0)) {
+                    agregar(inicioRegla[p], u, i, SIN_NODO);
+                }
+            }
+        }
+
+        private void agregar(int r, int u, int i, int w) {
+            int antes = descriptores.tamano();
+            descriptores.agregar(((long) r << 32) | i, ((long) u << 32) | (w + 1));
+            if (descriptores.tamano() == antes) return;
+            numDescriptores++;
+            if (numPendientes + 4 > pendientes.length) pendientes = Arrays.copyOf(pendientes, pendientes.length * 2);
+            pendientes[numPendientes++] = r;
+            pendientes[numPendientes++] = u;
+            pendientes[numPendientes++] = i;
+            pendientes[numPendientes++] = w;
+        }
+
+        /**
+         * Crea (si no existe) el nodo de la pila para retornar a la regla r en la posición
+         * i y la arista hacia u con el nodo w; si ese nodo ya había retornado, la nueva
+         * arista recibe esos retornos.
+         */
+        private int crear(int r, int u, int i, int w) {
+            int v = idNodoPila.agregar(r, i) + 1;
+            if (v == numNodosPila) {
+                if (v == reglaPila.length) {
+                    int capacidad = v * 2;
+                    reglaPila = Arrays.copyOf(reglaPila, capacidad);
+                    posicionPila = Arrays.copyOf(posicionPila, capacidad);
+                    primeraArista = Arrays.copyOf(primeraArista, capacidad);
+                    primerRetorno = Arrays.copyOf(primerRetorno, capacidad);
+                }
+                reglaPila[v] = r;
+                posicionPila[v] = i;
+                primeraArista[v] = -1;
+                primerRetorno[v] = -1;
+                numNodosPila++;
+            }
+            int e = idArista.agregar(v, ((long) (w + 1) << 32) | u);
+            if (e == numAristas) {
+                if (e == nodoArista.length) {
+                    int capacidad = e * 2;
+                    nodoArista = Arrays.copyOf(nodoArista, capacidad);
+                    destinoArista = Arrays.copyOf(destinoArista, capacidad);
+                    siguienteArista = Arrays.copyOf(siguienteArista, capacidad);
+                }
+                nodoArista[e] = w;
+                destinoArista[e] = u;
+                siguienteArista[e] = primeraArista[v];
+                primeraArista[v] = e;
+                numAristas++;
+                for (int k = primerRetorno[v]; k >= 0; k = siguienteRetorno[k]) {
+                    int z = nodoRetorno[k];
+                    agregar(r, u, bosque.derecha(z), nodoP(r, w, z));
+                }
+            }
+            return v;
+        }
+
+        /** La variable del nodo u terminó en i con el nodo z: continuar en cada arista. */
+        private void retornar(int u, int i, int z) {
+            if (u == 0) return;
+            if (!retornos.agregar(((long) u << 32) | z)) return;
+            if (numRetornos == nodoRetorno.length) {
+                nodoRetorno = Arrays.copyOf(nodoRetorno, numRetornos * 2);
+                siguienteRetorno = Arrays.copyOf(siguienteRetorno, numRetornos * 2);
+            }
+            nodoRetorno[numRetornos] = z;
+            siguienteRetorno[numRetornos] = primerRetorno[u];
+            primerRetorno[u] = numRetornos++;
+
+            int r = reglaPila[u];
+            for (int e = primeraArista[u]; e >= 0; e = siguienteArista[e]) {
+                agregar(r, destinoArista[e], i, nodoP(r, nodoArista[e], z));
+            }
+        }
+
+        /**
+         * Nodo del bosque para la regla r = A -> α•β una vez reconocido α, a partir del
+         * nodo w del prefijo anterior (o SIN_NODO) y del nodo z del último símbolo.
+         */
+        private int nodoP(int r, int w, int z) {
+            if (prefijoSimple[r]) return z;
+            int p = produccionDeRegla[r];
+            int e = siguienteSimbolo[r] == COMPLETA ? g.cabeza[p] : bosque.etiquetaIntermedio(r);
+            int k = bosque.izquierda(z);
+            int j = bosque.derecha(z);
+            int y = bosque.nodo(e, w == SIN_NODO ? k : bosque.izquierda(w), j);
+            bosque.empaquetado(y, r, k, w, z);
+            return y;
+        }
+    }
+
+    /**
+     * Resultado del análisis GLL: el bosque y el tamaño de la búsqueda.
+     */
+    public static final class ResultadoGLL {
+        private final BosqueSPPF bosque;
+        private final int descriptores;
+        private final int nodosPila;
+        private final int aristasPila;
+        private final long nanos;
+
+        ResultadoGLL(BosqueSPPF bosque, int descriptores, int nodosPila, int aristasPila, long nanos) {
+            this.bosque = bosque;
+            this.descriptores = descriptores;
+            this.nodosPila = nodosPila;
+            this.aristasPila = aristasPila;
+            this.nanos = nanos;
+        }
+
+        public boolean isAceptada() { return bosque.isAceptada(); }
+
+        public BosqueSPPF getBosque() { return bosque; }
+
+        /** Descriptores procesados, cada uno una sola vez. */
+        public int getDescriptores() { return descriptores; }
+
+        public int getNodosPila() { return nodosPila; }
+
+        public int getAristasPila() { return aristasPila; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- ANÁLISIS GLL ---\n");
+            sb.append("RESULTADO: ").append(isAceptada() ? "ACEPTADA" : "RECHAZADA").append("\n");
+            if (isAceptada()) {
+                sb.append("Derivaciones: ").append(bosque.tieneInfinitasDerivaciones()
+                        ? "infinitas (la gramática tiene ciclos)" : bosque.contarDerivaciones().toString()).append("\n");
+            }
+            sb.append("Bosque SPPF: ").append(bosque.getNumNodos()).append(" nodos, ")
+                    .append(bosque.getNumEmpaquetados()).append(" nodos empaquetados\n");
+            sb.append("Pila compartida: ").append(nodosPila).append(" nodos, ").append(aristasPila).append(" aristas; ")
+                    .append(descriptores).append(" descriptores\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return (isAceptada() ? "ACEPTADA" : "RECHAZADA") + " (" + bosque.getNumNodos() + " nodos)";
+        }
+    }
+}
@@ -0,0 +1,897 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analizador ascendente LALR(1) generado a partir de una GLC compilada.
+ *
+ * La construcción sigue tres pasos:
+ * <ol>
+ *   <li>La colección de conjuntos de ítems LR(0) de la gramática aumentada S' -> S,
+ *       identificando cada estado por su núcleo.</li>
+ *   <li>Los símbolos de preanálisis de los ítems del núcleo por propagación: la clausura
+ *       LR(1) de cada ítem del núcleo con un símbolo ficticio # dice qué símbolos se
+ *       generan espontáneamente en los estados sucesores y a qué ítems se propagan los
+ *       del ítem original; después se propaga hasta el punto fijo.</li>
+ *   <li>Las tablas ACCIÓN e IR_A, que se guardan comprimidas por desplazamiento de
+ *       filas: cada fila tiene una base en un único arreglo de valores y otro de
+ *       comprobación dice a qué fila pertenece cada casilla. ACCIÓN tiene una fila por
+ *       estado (los estados con la misma fila la comparten) y la reducción más
+ *       frecuente de cada estado queda como acción por defecto; IR_A, como en yacc,
+ *       tiene una fila por variable indexada por estado, con el destino más frecuente
+ *       como defecto. Las entradas por defecto no ocupan casillas.</li>
+ * </ol>
+ * Los conflictos desplazar/reducir y reducir/reducir se guardan para mostrarlos; con
+ * alguno la gramática no es LALR(1) y el análisis no se permite.
+ *
+ * El análisis es el autómata de pila clásico sobre un int[] de estados: lineal en la
+ * longitud de la cadena.
+ */
+public final class AnalizadorLALR {
+
+    // Valores de la tabla de acciones: desplazar a s es s + 1, reducir p es -(p + 1)
+    private static final int ERROR = 0;
+
+    private final GramaticaCompilada g;
+
+    // La producción aumentada S' -> S tiene id numProducciones; reducirla es aceptar
+    private final int aumentada;
+    // Los cuerpos de la gramática seguidos del de la aumentada, como en GramaticaCompilada
+    private final int[] simbolos;
+    private final int[] inicioCuerpo;
+
+    // Regla punteada r = inicioRegla[p] + k, como en el reconocedor de Earley
+    private final int[] inicioRegla;
+    private final int[] produccionDeRegla;
+
+    // Columnas de ACCIÓN: los terminales y $ (numTerminales)
+    private final int columnaFin;
+
+    private final int numEstados;
+    private final int numItemsNucleo;
+
+    // ACCIÓN comprimida: la casilla baseAccion[s] + t es de s si su comprobación es filaDeEstado[s]
+    private final int[] filaDeEstado;
+    private final int numFilas;
+    private final int[] baseAccion;
+    private final int[] porDefecto;
+    private final int[] valorAccion;
+    private final int[] comprobacionAccion;
+
+    // IR_A comprimida por variable: la casilla baseIrA[A] + s es de A si su comprobación es A
+    private final int[] baseIrA;
+    private final int[] irADefecto;
+    private final int[] valorIrA;
+    private final int[] comprobacionIrA;
+    private final int casillasUsadas;
+
+    private final List<String> conflictos;
+    private final long nanosConstruccion;
+
+    private AnalizadorLALR(GramaticaCompilada g) {
+        long inicio = System.nanoTime();
+        this.g = g;
+        int numProducciones = g.getNumProducciones();
+        this.aumentada = numProducciones;
+        this.simbolos = Arrays.copyOf(g.simbolos, g.simbolos.length + 1);
+        simbolos[g.simbolos.length] = g.inicial;
+        this.inicioCuerpo = Arrays.copyOf(g.inicioCuerpo, numProducciones + 2);
+        inicioCuerpo[numProducciones + 1] = simbolos.length;
+        this.columnaFin = g.numTerminales;
+
+        inicioRegla = new int[numProducciones + 1];
+        for (int p = 0; p <= numProducciones; p++) {
+            inicioRegla[p] = inicioCuerpo[p] + p;
+        }
+        int total = simbolos.length + numProducciones + 1;
+        produccionDeRegla = new int[total];
+        for (int p = 0; p <= numProducciones; p++) {
+            Arrays.fill(produccionDeRegla, inicioRegla[p], inicioRegla[p] + longitudCuerpo(p) + 1, p);
+        }
+
+        Construccion c = new Construccion(total);
+        c.coleccionLR0();
+        c.preanalisis();
+        int[][] filas = c.tablas();
+        this.numEstados = c.nucleos.size();
+        this.numItemsNucleo = c.numItemsNucleo;
+        this.conflictos = Collections.unmodifiableList(c.conflictos);
+
+        // ACCIÓN: los estados con la misma fila la comparten
+        this.porDefecto = c.porDefecto;
+        this.filaDeEstado = new int[numEstados];
+        Map<ClaveArreglo, Integer> idFila = new HashMap<>();
+        List<int[]> distintas = new ArrayList<>();
+        for (int s = 0; s < numEstados; s++) {
+            Integer id = idFila.putIfAbsent(new ClaveArreglo(filas[s]), distintas.size());
+            if (id == null) {
+                id = distintas.size();
+                distintas.add(filas[s]);
+            }
+            filaDeEstado[s] = id;
+        }
+        this.numFilas = distintas.size();
+        Desplazamiento accion = new Desplazamiento(distintas);
+        int[] baseDeFila = accion.base;
+        this.baseAccion = new int[numEstados];
+        for (int s = 0; s < numEstados; s++) baseAccion[s] = baseDeFila[filaDeEstado[s]];
+        this.valorAccion = accion.valor;
+        this.comprobacionAccion = accion.comprobacion;
+
+        // IR_A: una fila por variable, indexada por estado
+        Desplazamiento irA = new Desplazamiento(Arrays.asList(c.columnasIrA()));
+        this.irADefecto = c.irADefecto;
+        this.baseIrA = irA.base;
+        this.valorIrA = irA.valor;
+        this.comprobacionIrA = irA.comprobacion;
+        this.casillasUsadas = accion.usadas + irA.usadas;
+        this.nanosConstruccion = System.nanoTime() - inicio;
+    }
+
+    /**
+     * Construye las tablas LALR(1) de la gramática; no falla si hay conflictos, en ese
+     * caso {@link #getConflictos()} los describe.
+     */
+    public static AnalizadorLALR construir(GramaticaCompilada g) {
+        return new AnalizadorLALR(g);
+    }
+
+    private int siguienteSimbolo(int r) {
+        int p = produccionDeRegla[r];
+        int k = r - inicioRegla[p];
+        return k < longitudCuerpo(p) ? simbolos[inicioCuerpo[p] + k] : -1;
+    }
+
+    private int longitudCuerpo(int p) {
+        return inicioCuerpo[p + 1] - inicioCuerpo[p];
+    }
+
+    private String nombreColumna(int t) {
+        return t == columnaFin ? "$" : g.nombreSimbolo(g.numVariables + t);
+    }
+
+    private String nombreProduccion(int p) {
+        return p == aumentada ? g.nombreSimbolo(g.inicial) + "' -> " + g.nombreSimbolo(g.inicial) : g.produccion(p);
+    }
+
+    /**
+     * Estado de la construcción: se descarta al terminar, solo quedan las tablas.
+     */
+    private final class Construccion {
+        private final int numReglas;
+
+        // Núcleos (reglas punteadas ordenadas) y su estado
+        final List<int[]> nucleos = new ArrayList<>();
+        private final Map<ClaveArreglo, Integer> estadoDeNucleo = new HashMap<>();
+        // Transiciones de cada estado: pares (símbolo, estado destino)
+        private final List<int[]> transiciones = new ArrayList<>();
+
+        // Preanálisis de cada ítem del núcleo (índice global), con # como última columna
+        private final int palabras;
+        private final int columnaPropagar;
+        private long[][] preanalisis;
+        private int[] inicioNucleo;
+        int numItemsNucleo;
+
+        // Para la clausura: preanálisis por variable, las variables que alcanzó y las pendientes
+        private final long[][] porVariable;
+        private final int[] tocadas;
+        private int numTocadas;
+        private final boolean[] tocada;
+        private final int[] pendientes;
+        private int numPendientes;
+        private final boolean[] enCola;
+        // Solo el símbolo ficticio #: "lo que tenga el ítem del núcleo"
+        private long[] marcaPropagar;
+        private final long[][] primero;
+        // Por regla punteada: PRIMERO de lo que sigue al símbolo tras el punto y si es anulable
+        private final long[][] primeroResto;
+        private final boolean[] restoAnulable;
+
+        final List<String> conflictos = new ArrayList<>();
+        int[] porDefecto;
+        int[] irADefecto;
+
+        Construccion(int numReglas) {
+            this.numReglas = numReglas;
+            this.columnaPropagar = g.numTerminales + 1;
+            this.palabras = (columnaPropagar + 64) >>> 6;
+            this.porVariable = new long[g.numVariables][palabras];
+            this.tocadas = new int[g.numVariables];
+            this.tocada = new boolean[g.numVariables];
+            this.pendientes = new int[g.numVariables];
+            this.enCola = new boolean[g.numVariables];
+            this.primero = g.calcularPrimeros(palabras);
+            this.primeroResto = new long[numReglas][];
+            this.restoAnulable = new boolean[numReglas];
+            for (int r = 0; r < numReglas; r++) {
+                int p = produccionDeRegla[r];
+                int k = r - inicioRegla[p];
+                long[] conjunto = new long[palabras];
+                boolean anulable = true;
+                for (int j = k + 1; j < longitudCuerpo(p) && anulable; j++) {
+                    int s = simbolos[inicioCuerpo[p] + j];
+                    if (!g.esVariable(s)) {
+                        agregar(conjunto, s - g.numVariables);
+                        anulable = false;
+                    } else {
+                        or(conjunto, primero[s]);
+                        anulable = g.anulable[s];
+                    }
+                }
+                primeroResto[r] = conjunto;
+                restoAnulable[r] = anulable;
+            }
+        }
+
+        /** Estados LR(0): cada núcleo nuevo se agrega al final y se expande en orden. */
+        void coleccionLR0() {
+            estado(new int[]{inicioRegla[aumentada]});
+            boolean[] predicha = new boolean[g.numVariables];
+            int[] clausura = new int[numReglas];
+            int[] cuantosPorSimbolo = new int[g.numVariables + g.numTerminales];
+            int[][] avanzadas = new int[g.numVariables + g.numTerminales][];
+            int[] simbolos = new int[g.numVariables + g.numTerminales];
+
+            for (int s = 0; s < nucleos.size(); s++) {
+                int n = clausuraLR0(nucleos.get(s), predicha, clausura);
+                int numSimbolos = 0;
+                for (int i = 0; i < n; i++) {
+                    int x = siguienteSimbolo(clausura[i]);
+                    if (x < 0) continue;
+                    if (cuantosPorSimbolo[x] == 0) {
+                        simbolos[numSimbolos++] = x;
+                        if (avanzadas[x] == null) avanzadas[x] = new int[4];
+                    }
+                    if (cuantosPorSimbolo[x] == avanzadas[x].length) {
+                        avanzadas[x] = Arrays.copyOf(avanzadas[x], avanzadas[x].length * 2);
+                    }
+                    avanzadas[x][cuantosPorSimbolo[x]++] = clausura[i] + 1;
+                }
+                Arrays.sort(simbolos, 0, numSimbolos);
+                int[] pares = new int[numSimbolos * 2];
+                for (int k = 0; k < numSimbolos; k++) {
+                    int x = simbolos[k];
+                    int[] nucleo = Arrays.copyOf(avanzadas[x], cuantosPorSimbolo[x]);
+                    Arrays.sort(nucleo);
+                    cuantosPorSimbolo[x] = 0;
+                    pares[2 * k] = x;
+                    pares[2 * k + 1] = estado(nucleo);
+                }
+                transiciones.add(pares);
+            }
+        }
+
+        private int estado(int[] nucleo) {
+            ClaveArreglo clave = new ClaveArreglo(nucleo);
+            Integer s = estadoDeNucleo.get(clave);
+            if (s == null) {
+                s = nucleos.size();
+                nucleos.add(nucleo);
+                estadoDeNucleo.put(clave, s);
+            }
+            return s;
+        }
+
+        /** Núcleo más las reglas con el punto al principio de las variables predichas. */
+        private int clausuraLR0(int[] nucleo, boolean[] predicha, int[] clausura) {
+            int n = 0;
+            for (int r : nucleo) clausura[n++] = r;
+            for (int i = 0; i < n; i++) {
+                int x = siguienteSimbolo(clausura[i]);
+                if (x < 0 || !g.esVariable(x) || predicha[x]) continue;
+                predicha[x] = true;
+                for (int p : g.produccionesDe[x]) clausura[n++] = inicioRegla[p];
+            }
+            for (int i = 0; i < n; i++) {
+                int x = siguienteSimbolo(clausura[i]);
+                if (x >= 0 && g.esVariable(x)) predicha[x] = false;
+            }
+            return n;
+        }
+
+        /**
+         * Preanálisis de los ítems del núcleo: generación espontánea y propagación.
+         */
+        void preanalisis() {
+            int numEstados = nucleos.size();
+            inicioNucleo = new int[numEstados + 1];
+            for (int s = 0; s < numEstados; s++) {
+                inicioNucleo[s + 1] = inicioNucleo[s] + nucleos.get(s).length;
+            }
+            numItemsNucleo = inicioNucleo[numEstados];
+            preanalisis = new long[numItemsNucleo][palabras];
+            agregar(preanalisis[0], columnaFin);
+
+            // Aristas de propagación: de cada ítem del núcleo a ítems de núcleos sucesores
+            int[][] propagaA = new int[numItemsNucleo][];
+            int[] destinos = new int[16];
+            for (int s = 0; s < numEstados; s++) {
+                int[] nucleo = nucleos.get(s);
+                for (int k = 0; k < nucleo.length; k++) {
+                    int item = inicioNucleo[s] + k;
+                    limpiarClausura();
+                    sembrar(nucleo[k], propagar());
+                    cerrar();
+
+                    int numDestinos = 0;
+                    // El propio ítem avanza con su símbolo y lleva su preanálisis
+                    int x = siguienteSimbolo(nucleo[k]);
+                    if (x >= 0) {
+                        destinos = agregarDestino(destinos, numDestinos++, itemNucleo(s, x, nucleo[k] + 1));
+                    }
+                    // Las reglas predichas avanzan su primer símbolo
+                    for (int j = 0; j < numTocadas; j++) {
+                        int b = tocadas[j];
+                        if (vacio(porVariable[b])) continue;
+                        for (int p : g.produccionesDe[b]) {
+                            if (longitudCuerpo(p) == 0) continue;
+                            int destino = itemNucleo(s, simbolos[inicioCuerpo[p]], inicioRegla[p] + 1);
+                            long[] la = porVariable[b];
+                            for (int q = 0; q < palabras; q++) {
+                                preanalisis[destino][q] |= la[q] & ~propagar()[q];
+                            }
+                            if (contiene(la, columnaPropagar)) {
+                                destinos = agregarDestino(destinos, numDestinos++, destino);
+                            }
+                        }
+                    }
+                    propagaA[item] = Arrays.copyOf(destinos, numDestinos);
+                }
+            }
+
+            // Propagar hasta el punto fijo
+            int[] cola = new int[numItemsNucleo];
+            boolean[] enColaItem = new boolean[numItemsNucleo];
+            int frente = 0;
+            int fin = 0;
+            for (int i = 0; i < numItemsNucleo; i++) {
+                if (!vacio(preanalisis[i])) {
+                    cola[fin++ % numItemsNucleo] = i;
+                    enColaItem[i] = true;
+                }
+            }
+            int enEspera = fin;
+            while (enEspera > 0) {
+                int i = cola[frente++ % numItemsNucleo];
+                enEspera--;
+                enColaItem[i] = false;
+                for (int j : propagaA[i]) {
+                    if (or(preanalisis[j], preanalisis[i]) && !enColaItem[j]) {
+                        enColaItem[j] = true;
+                        cola[fin++ % numItemsNucleo] = j;
+                        enEspera++;
+                    }
+                }
+            }
+        }
+
+        private long[] propagar() {
+            if (marcaPropagar == null) {
+                marcaPropagar = new long[palabras];
+                agregar(marcaPropagar, columnaPropagar);
+            }
+            return marcaPropagar;
+        }
+
+        private int[] agregarDestino(int[] destinos, int n, int destino) {
+            if (n == destinos.length) destinos = Arrays.copyOf(destinos, n * 2);
+            destinos[n] = destino;
+            return destinos;
+        }
+
+        /** Índice global del ítem (regla punteada r) en el núcleo del sucesor de s por x. */
+        private int itemNucleo(int s, int x, int r) {
+            int destino = transicion(s, x);
+            int k = Arrays.binarySearch(nucleos.get(destino), r);
+            return inicioNucleo[destino] + k;
+        }
+
+        private int transicion(int s, int x) {
+            int[] pares = transiciones.get(s);
+            int lo = 0;
+            int hi = pares.length / 2 - 1;
+            while (lo <= hi) {
+                int m = (lo + hi) >>> 1;
+                int y = pares[2 * m];
+                if (y == x) return pares[2 * m + 1];
+                if (y < x) lo = m + 1;
+                else hi = m - 1;
+            }
+            return -1;
+        }
+
+        private void limpiarClausura() {
+            for (int k = 0; k < numTocadas; k++) {
+                Arrays.fill(porVariable[tocadas[k]], 0);
+                tocada[tocadas[k]] = false;
+            }
+            numTocadas = 0;
+        }
+
+        /**
+         * Siembra el preanálisis de la variable tras el punto de r: PRIMERO de lo que
+         * sigue y, si eso es anulable, el preanálisis del ítem.
+         */
+        private void sembrar(int r, long[] preanalisisItem) {
+            int x = siguienteSimbolo(r);
+            if (x < 0 || !g.esVariable(x)) return;
+            if (!tocada[x]) {
+                tocada[x] = true;
+                tocadas[numTocadas++] = x;
+            }
+            boolean cambio = or(porVariable[x], primeroResto[r]);
+            if (restoAnulable[r]) cambio |= or(porVariable[x], preanalisisItem);
+            if (cambio && !enCola[x]) {
+                enCola[x] = true;
+                pendientes[numPendientes++] = x;
+            }
+        }
+
+        /** Clausura LR(1): propaga el preanálisis de cada variable a las que predice. */
+        private void cerrar() {
+            while (numPendientes > 0) {
+                int b = pendientes[--numPendientes];
+                enCola[b] = false;
+                for (int p : g.produccionesDe[b]) {
+                    sembrar(inicioRegla[p], porVariable[b]);
+                }
+            }
+        }
+
+        /**
+         * Filas de ACCIÓN de cada estado como pares (terminal, valor), sin la reducción
+         * por defecto del estado, que queda en porDefecto.
+         */
+        int[][] tablas() {
+            int numEstados = nucleos.size();
+            int[][] filas = new int[numEstados][];
+            porDefecto = new int[numEstados];
+            int[] fila = new int[columnaFin + 1];
+            int[] cuentaReduccion = new int[aumentada + 1];
+            for (int s = 0; s < numEstados; s++) {
+                Arrays.fill(fila, ERROR);
+                int[] pares = transiciones.get(s);
+                for (int k = 0; k < pares.length; k += 2) {
+                    int x = pares[k];
+                    if (!g.esVariable(x)) {
+                        fila[x - g.numVariables] = pares[k + 1] + 1;
+                    }
+                }
+
+                // Reducciones: ítems del núcleo completos y producciones λ de la clausura
+                int[] nucleo = nucleos.get(s);
+                limpiarClausura();
+                for (int k = 0; k < nucleo.length; k++) {
+                    sembrar(nucleo[k], preanalisis[inicioNucleo[s] + k]);
+                }
+                cerrar();
+                for (int k = 0; k < nucleo.length; k++) {
+                    if (siguienteSimbolo(nucleo[k]) < 0) {
+                        reducir(s, fila, produccionDeRegla[nucleo[k]], preanalisis[inicioNucleo[s] + k]);
+                    }
+                }
+                for (int j = 0; j < numTocadas; j++) {
+                    int b = tocadas[j];
+                    if (vacio(porVariable[b])) continue;
+                    for (int p : g.produccionesDe[b]) {
+                        if (longitudCuerpo(p) == 0) reducir(s, fila, p, porVariable[b]);
+                    }
+                }
+
+                // La reducción más frecuente de la fila pasa a ser la acción por defecto
+                int mejor = ERROR;
+                int mejorCuenta = 0;
+                for (int t = 0; t <= columnaFin; t++) {
+                    if (fila[t] < 0) {
+                        int p = -fila[t] - 1;
+                        if (++cuentaReduccion[p] > mejorCuenta) {
+                            mejorCuenta = cuentaReduccion[p];
+                            mejor = fila[t];
+                        }
+                    }
+                }
+                for (int t = 0; t <= columnaFin; t++) {
+                    if (fila[t] < 0) cuentaReduccion[-fila[t] - 1] = 0;
+                }
+                // Aceptar no se usa como defecto: $ debe estar realmente a la vista
+                if (mejor == -(aumentada + 1)) mejor = ERROR;
+                porDefecto[s] = mejor;
+
+                int entradas = 0;
+                for (int c = 0; c <= columnaFin; c++) {
+                    if (fila[c] != ERROR && fila[c] != mejor) entradas++;
+                }
+                int[] f = new int[entradas * 2];
+                int k = 0;
+                for (int c = 0; c <= columnaFin; c++) {
+                    if (fila[c] != ERROR && fila[c] != mejor) {
+                        f[k++] = c;
+                        f[k++] = fila[c];
+                    }
+                }
+                filas[s] = f;
+            }
+            return filas;
+        }
+
+        /**
+         * Columnas de IR_A por variable como pares (estado, destino + 1), sin el destino
+         * más frecuente de la variable, que queda en irADefecto.
+         */
+        int[][] columnasIrA() {
+            int numEstados = nucleos.size();
+            int[] cuantos = new int[g.numVariables];
+            for (int[] pares : transiciones) {
+                for (int k = 0; k < pares.length; k += 2) {
+                    if (g.esVariable(pares[k])) cuantos[pares[k]]++;
+                }
+            }
+            int[][] columna = new int[g.numVariables][];
+            for (int v = 0; v < g.numVariables; v++) {
+                columna[v] = new int[cuantos[v] * 2];
+                cuantos[v] = 0;
+            }
+            for (int s = 0; s < numEstados; s++) {
+                int[] pares = transiciones.get(s);
+                for (int k = 0; k < pares.length; k += 2) {
+                    int v = pares[k];
+                    if (!g.esVariable(v)) continue;
+                    columna[v][cuantos[v]++] = s;
+                    columna[v][cuantos[v]++] = pares[k + 1] + 1;
+                }
+            }
+
+            irADefecto = new int[g.numVariables];
+            int[] cuentaDestino = new int[numEstados + 1];
+            for (int v = 0; v < g.numVariables; v++) {
+                int[] c = columna[v];
+                int mejor = 0;
+                int mejorCuenta = 0;
+                for (int k = 1; k < c.length; k += 2) {
+                    if (++cuentaDestino[c[k]] > mejorCuenta) {
+                        mejorCuenta = cuentaDestino[c[k]];
+                        mejor = c[k];
+                    }
+                }
+                int entradas = 0;
+                for (int k = 1; k < c.length; k += 2) {
+                    cuentaDestino[c[k]] = 0;
+                    if (c[k] != mejor) entradas++;
+                }
+                irADefecto[v] = mejor - 1;
+                int[] sinDefecto = new int[entradas * 2];
+                int j = 0;
+                for (int k = 0; k < c.length; k += 2) {
+                    if (c[k + 1] == mejor) continue;
+                    sinDefecto[j++] = c[k];
+                    sinDefecto[j++] = c[k + 1];
+                }
+                columna[v] = sinDefecto;
+            }
+            return columna;
+        }
+
+        private void reducir(int s, int[] fila, int p, long[] la) {
+            for (int t = 0; t <= columnaFin; t++) {
+                if (!contiene(la, t)) continue;
+                int actual = fila[t];
+                int nueva = -(p + 1);
+                if (actual == ERROR) {
+                    fila[t] = nueva;
+                } else if (actual > 0) {
+                    // Desplazar/reducir: queda desplazar, como en yacc
+                    conflictos.add("Estado " + s + ", con " + nombreColumna(t) + ": desplazar o reducir "
+                            + nombreProduccion(p));
+                } else if (actual != nueva) {
+                    // Reducir/reducir: queda la producción de menor id
+                    int otra = -actual - 1;
+                    conflictos.add("Estado " + s + ", con " + nombreColumna(t) + ": reducir " + nombreProduccion(otra)
+                            + " o " + nombreProduccion(p));
+                    if (p < otra) fila[t] = nueva;
+                }
+            }
+        }
+    }
+
+    /** Arreglo de enteros como clave de hash: núcleos de estados y filas de la tabla. */
+    private static final class ClaveArreglo {
+        private final int[] reglas;
+        private final int hash;
+
+        ClaveArreglo(int[] reglas) {
+            this.reglas = reglas;
+            this.hash = Arrays.hashCode(reglas);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ClaveArreglo && Arrays.equals(reglas, ((ClaveArreglo) o).reglas);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+
+    /**
+     * Compresión por desplazamiento de un conjunto de filas ralas dadas como pares
+     * (columna, valor): cada fila se ubica en la primera base donde todas sus columnas
+     * caen en casillas libres, empezando por las filas con más entradas para que las
+     * ralas rellenen los huecos. Solo se prueban las bases que dejan la primera columna
+     * de la fila en una casilla libre. La comprobación de cada casilla es el índice de
+     * su fila.
+     */
+    private static final class Desplazamiento {
+        final int[] base;
+        int[] valor = new int[64];
+        int[] comprobacion = new int[64];
+        int usadas;
+        private int longitud;
+        private final BitSet ocupadas = new BitSet();
+
+        Desplazamiento(List<int[]> filas) {
+            Arrays.fill(comprobacion, -1);
+            base = new int[filas.size()];
+            Integer[] orden = new Integer[filas.size()];
+            for (int f = 0; f < orden.length; f++) orden[f] = f;
+            Arrays.sort(orden, (x, y) -> Integer.compare(filas.get(y).length, filas.get(x).length));
+            for (int f : orden) {
+                base[f] = ubicar(f, filas.get(f));
+            }
+            valor = Arrays.copyOf(valor, longitud);
+            comprobacion = Arrays.copyOf(comprobacion, longitud);
+        }
+
+        private int ubicar(int fila, int[] entradas) {
+            if (entradas.length == 0) return 0;
+            int primeraColumna = entradas[0];
+            for (int i = ocupadas.nextClearBit(primeraColumna); ; i = ocupadas.nextClearBit(i + 1)) {
+                int b = i - primeraColumna;
+                if (cabe(entradas, b)) {
+                    for (int k = 0; k < entradas.length; k += 2) {
+                        int j = b + entradas[k];
+                        asegurar(j + 1);
+                        valor[j] = entradas[k + 1];
+                        comprobacion[j] = fila;
+                        ocupadas.set(j);
+                        longitud = Math.max(longitud, j + 1);
+                        usadas++;
+                    }
+                    return b;
+                }
+            }
+        }
+
+        private boolean cabe(int[] entradas, int b) {
+            for (int k = 2; k < entradas.length; k += 2) {
+                if (ocupadas.get(b + entradas[k])) return false;
+            }
+            return true;
+        }
+
+        private void asegurar(int n) {
+            if (n <= valor.length) return;
+            int capacidad = Math.max(n, valor.length * 2);
+            valor = Arrays.copyOf(valor, capacidad);
+            int anterior = comprobacion.length;
+            comprobacion = Arrays.copyOf(comprobacion, capacidad);
+            Arrays.fill(comprobacion, anterior, capacidad, -1);
+        }
+    }
+
+    /** Entrada explícita de ACCIÓN para el estado y el terminal t, o ERROR si no está. */
+    private int entrada(int estado, int t) {
+        int i = baseAccion[estado] + t;
+        return i < comprobacionAccion.length && comprobacionAccion[i] == filaDeEstado[estado] ? valorAccion[i] : ERROR;
+    }
+
+    private int accion(int estado, int t) {
+        int v = entrada(estado, t);
+        return v != ERROR ? v : porDefecto[estado];
+    }
+
+    private int irA(int estado, int variable) {
+        int i = baseIrA[variable] + estado;
+        return i < comprobacionIrA.length && comprobacionIrA[i] == variable ? valorIrA[i] - 1 : irADefecto[variable];
+    }
+
+    // --- Operaciones sobre bitsets ---
+
+    private static boolean or(long[] destino, long[] origen) {
+        boolean cambio = false;
+        for (int q = 0; q < destino.length; q++) {
+            long nuevo = destino[q] | origen[q];
+            if (nuevo != destino[q]) {
+                destino[q] = nuevo;
+                cambio = true;
+            }
+        }
+        return cambio;
+    }
+
+    private static void agregar(long[] conjunto, int t) {
+        conjunto[t >>> 6] |= 1L << t;
+    }
+
+    private static boolean contiene(long[] conjunto, int t) {
+        return (conjunto[t >>> 6] & (1L << t)) != 0;
+    }
+
+    private static boolean vacio(long[] conjunto) {
+        for (long w : conjunto) {
+            if (w != 0) return false;
+        }
+        return true;
+    }
+
+    /** true si la tabla no tiene conflictos. */
+    public boolean esLALR1() { return conflictos.isEmpty(); }
+
+    /** Conflictos de la tabla, "Estado 4, con a: desplazar o reducir A -> λ". */
+    public List<String> getConflictos() { return conflictos; }
+
+    public int getNumEstados() { return numEstados; }
+
+    /** Casillas de los arreglos de valores comprimidos de ACCIÓN e IR_A (y de los de comprobación). */
+    public int getCasillasTabla() { return valorAccion.length + valorIrA.length; }
+
+    /** Casillas de las tablas sin comprimir: estados × (terminales + $ + variables). */
+    public long getCasillasSinComprimir() { return (long) numEstados * (g.numTerminales + 1 + g.numVariables); }
+
+    public long getNanosConstruccion() { return nanosConstruccion; }
+
+    /**
+     * Analiza la cadena con las tablas, desplazando y reduciendo.
+     * @throws IllegalStateException si la gramática no es LALR(1).
+     */
+    public ResultadoLALR analizar(String cadena) {
+        if (!esLALR1()) {
+            throw new IllegalStateException("La gramática no es LALR(1): " + conflictos.size() + " conflictos en la tabla.");
+        }
+        long inicio = System.nanoTime();
+        int n = cadena.length();
+        int[] pila = new int[64];
+        int cima = 0;
+        pila[cima++] = 0;
+        int maxPila = 1;
+        int desplazamientos = 0;
+        int reducciones = 0;
+        int i = 0;
+        int t = columna(cadena, 0);
+
+        while (true) {
+            if (t < 0) {
+                return new ResultadoLALR(false, desplazamientos, reducciones, maxPila, i,
+                        "el carácter '" + cadena.charAt(i) + "' no está en Σ", System.nanoTime() - inicio);
+            }
+            int estado = pila[cima - 1];
+            int a = accion(estado, t);
+            if (a > 0) {
+                if (cima == pila.length) pila = Arrays.copyOf(pila, cima * 2);
+                pila[cima++] = a - 1;
+                maxPila = Math.max(maxPila, cima);
+                desplazamientos++;
+                t = columna(cadena, ++i);
+            } else if (a < 0) {
+                int p = -a - 1;
+                if (p == aumentada) {
+                    return new ResultadoLALR(true, desplazamientos, reducciones, maxPila, -1, null,
+                            System.nanoTime() - inicio);
+                }
+                cima -= longitudCuerpo(p);
+                int destino = irA(pila[cima - 1], g.cabeza[p]);
+                if (cima == pila.length) pila = Arrays.copyOf(pila, cima * 2);
+                pila[cima++] = destino;
+                maxPila = Math.max(maxPila, cima);
+                reducciones++;
+            } else {
+                String error = i == n ? "la cadena terminó antes de tiempo" : "no se esperaba '" + cadena.charAt(i) + "'";
+                return new ResultadoLALR(false, desplazamientos, reducciones, maxPila, i,
+                        error + "; se esperaba uno de " + esperados(estado), System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    /** Columna del carácter en la posición i ($ al final), o -1 si no está en Σ. */
+    private int columna(String cadena, int i) {
+        if (i == cadena.length()) return columnaFin;
+        int s = g.terminalDeCaracter(cadena.charAt(i));
+        return s < 0 ? -1 : s - g.numVariables;
+    }
+
+    /** Terminales con una acción explícita en el estado. */
+    private String esperados(int estado) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int t = 0; t <= columnaFin; t++) {
+            if (entrada(estado, t) == ERROR) continue;
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(nombreColumna(t));
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Tamaño de las tablas, tiempo de construcción y conflictos, si los hay.
+     */
+    public String describir() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Autómata LALR(1): ").append(numEstados).append(" estados, ")
+                .append(numItemsNucleo).append(" ítems de núcleo, ").append(numFilas).append(" filas distintas\n");
+        sb.append("Tablas ACCIÓN/IR_A: ").append(getCasillasTabla()).append(" casillas comprimidas (")
+                .append(casillasUsadas).append(" ocupadas) frente a ").append(getCasillasSinComprimir())
+                .append(" sin comprimir\n");
+        sb.append(String.format("Construcción: %.3f ms%n", nanosConstruccion / 1e6));
+        if (esLALR1()) {
+            sb.append("La gramática es LALR(1).\n");
+        } else {
+            sb.append("La gramática NO es LALR(1): ").append(conflictos.size()).append(" conflictos en la tabla\n");
+            for (String c : conflictos) {
+                sb.append("  ").append(c).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resultado del análisis LALR(1).
+     */
+    public static final class ResultadoLALR {
+        private final boolean aceptada;
+        private final int desplazamientos;
+        private final int reducciones;
+        private final int maxPila;
+        private final int posicionError;
+        private final String error;
+        private final long nanos;
+
+        ResultadoLALR(boolean aceptada, int desplazamientos, int reducciones, int maxPila, int posicionError,
+                      String error, long nanos) {
+            this.aceptada = aceptada;
+            this.desplazamientos = desplazamientos;
+            this.reducciones = reducciones;
+            this.maxPila = maxPila;
+            this.posicionError = posicionError;
+            this.error = error;
+            this.nanos = nanos;
+        }
+
+        public boolean isAceptada() { return aceptada; }
+
+        public int getDesplazamientos() { return desplazamientos; }
+
+        public int getReducciones() { return reducciones; }
+
+        /** Altura máxima de la pila de estados. */
+        public int getMaxPila() { return maxPila; }
+
+        /** Posición de la cadena donde se detectó el error, o -1 si fue aceptada. */
+        public int getPosicionError() { return posicionError; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- ANÁLISIS LALR(1) ---\n");
+            sb.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+            if (!aceptada) {
+                sb.append("Error en la posición ").append(posicionError).append(": ").append(error).append("\n");
+            }
+            sb.append("Desplazamientos: ").append(desplazamientos).append(", reducciones: ").append(reducciones)
+                    .append(" (pila máxima ").append(maxPila).append(")\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return (aceptada ? "ACEPTADA" : "RECHAZADA") + " (" + desplazamientos + " desplazamientos, "
+                    + reducciones + " reducciones)";
+        }
+    }
+}
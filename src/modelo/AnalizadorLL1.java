@@ -0,0 +1,305 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Analizador predictivo LL(1) generado a partir de una GLC compilada.
+ *
+ * Al construirlo se calculan los conjuntos PRIMERO y SIGUIENTE de cada variable (como
+ * bitsets de long[] sobre los terminales, con el fin de cadena $ como un terminal más) y
+ * con ellos la tabla M[A, a] = producción a aplicar. Si alguna celda queda con dos
+ * producciones la gramática no es LL(1): los conflictos se guardan para mostrarlos y el
+ * análisis no se permite.
+ *
+ * Con una gramática LL(1) el análisis usa una pila de enteros y nunca retrocede: cada
+ * paso expande la variable de la cima con la producción de la tabla o consume el
+ * terminal de la cima, así que el costo es lineal en la longitud de la cadena.
+ */
+public final class AnalizadorLL1 {
+
+    private static final int SIN_PRODUCCION = -1;
+
+    private final GramaticaCompilada g;
+
+    // Columnas de la tabla: los terminales y $ (columna numTerminales)
+    private final int columnas;
+    private final int palabras;
+
+    private final long[][] primero;
+    private final long[][] siguiente;
+
+    // tabla[A * columnas + a]: producción para A con a a la vista, o SIN_PRODUCCION
+    private final int[] tabla;
+    private final List<String> conflictos;
+
+    private AnalizadorLL1(GramaticaCompilada g) {
+        this.g = g;
+        this.columnas = g.numTerminales + 1;
+        this.palabras = (columnas + 63) >>> 6;
+        this.primero = g.calcularPrimeros(palabras);
+        this.siguiente = new long[g.numVariables][palabras];
+        this.tabla = new int[g.numVariables * columnas];
+        Arrays.fill(tabla, SIN_PRODUCCION);
+        List<String> encontrados = new ArrayList<>();
+
+        calcularSiguiente();
+
+        long[] conjunto = new long[palabras];
+        for (int p = 0; p < g.getNumProducciones(); p++) {
+            int a = g.cabeza[p];
+            Arrays.fill(conjunto, 0);
+            if (primeroDeSecuencia(g.inicioCuerpo[p], g.inicioCuerpo[p + 1], conjunto)) {
+                or(conjunto, siguiente[a]);
+            }
+            for (int t = 0; t < columnas; t++) {
+                if (!contiene(conjunto, t)) continue;
+                int celda = a * columnas + t;
+                if (tabla[celda] == SIN_PRODUCCION) {
+                    tabla[celda] = p;
+                } else {
+                    encontrados.add("M[" + g.nombreSimbolo(a) + ", " + nombreColumna(t) + "]: "
+                            + g.produccion(tabla[celda]) + "  |  " + g.produccion(p));
+                }
+            }
+        }
+        this.conflictos = Collections.unmodifiableList(encontrados);
+    }
+
+    /**
+     * Construye la tabla LL(1) de la gramática; no falla si la gramática no es LL(1),
+     * en ese caso {@link #getConflictos()} dice por qué.
+     */
+    public static AnalizadorLL1 construir(GramaticaCompilada g) {
+        return new AnalizadorLL1(g);
+    }
+
+    /**
+     * Punto fijo: para A -> αBβ, SIGUIENTE(B) incluye PRIMERO(β) y, si β es anulable,
+     * también SIGUIENTE(A). $ sigue al símbolo inicial.
+     */
+    private void calcularSiguiente() {
+        agregar(siguiente[g.inicial], g.numTerminales);
+        long[] conjunto = new long[palabras];
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            for (int p = 0; p < g.getNumProducciones(); p++) {
+                int fin = g.inicioCuerpo[p + 1];
+                for (int k = g.inicioCuerpo[p]; k < fin; k++) {
+                    int b = g.simbolos[k];
+                    if (!g.esVariable(b)) continue;
+                    Arrays.fill(conjunto, 0);
+                    if (primeroDeSecuencia(k + 1, fin, conjunto)) {
+                        or(conjunto, siguiente[g.cabeza[p]]);
+                    }
+                    cambio |= or(siguiente[b], conjunto);
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega a destino PRIMERO de los símbolos [desde, hasta) del arreglo de cuerpos.
+     * @return true si la secuencia es anulable.
+     */
+    private boolean primeroDeSecuencia(int desde, int hasta, long[] destino) {
+        for (int k = desde; k < hasta; k++) {
+            int s = g.simbolos[k];
+            if (!g.esVariable(s)) {
+                agregar(destino, s - g.numVariables);
+                return false;
+            }
+            or(destino, primero[s]);
+            if (!g.anulable[s]) return false;
+        }
+        return true;
+    }
+
+    /** destino |= origen; true si destino cambió. */
+    private static boolean or(long[] destino, long[] origen) {
+        boolean cambio = false;
+        for (int q = 0; q < destino.length; q++) {
+            long nuevo = destino[q] | origen[q];
+            if (nuevo != destino[q]) {
+                destino[q] = nuevo;
+                cambio = true;
+            }
+        }
+        return cambio;
+    }
+
+    private static void agregar(long[] conjunto, int t) {
+        conjunto[t >>> 6] |= 1L << t;
+    }
+
+    private static boolean contiene(long[] conjunto, int t) {
+        return (conjunto[t >>> 6] & (1L << t)) != 0;
+    }
+
+    private String nombreColumna(int t) {
+        return t == g.numTerminales ? "$" : g.nombreSimbolo(g.numVariables + t);
+    }
+
+    private String nombresConjunto(long[] conjunto, boolean anulable) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int t = 0; t < columnas; t++) {
+            if (!contiene(conjunto, t)) continue;
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(nombreColumna(t));
+        }
+        if (anulable) sb.append(sb.length() > 1 ? ", λ" : "λ");
+        return sb.append("}").toString();
+    }
+
+    /** true si ninguna celda de la tabla tiene dos producciones. */
+    public boolean esLL1() { return conflictos.isEmpty(); }
+
+    /** Celdas con más de una producción, "M[A, a]: A -> α  |  A -> β". */
+    public List<String> getConflictos() { return conflictos; }
+
+    /**
+     * Analiza la cadena con la tabla, sin retroceder.
+     * @throws IllegalStateException si la gramática no es LL(1).
+     */
+    public ResultadoLL1 analizar(String cadena) {
+        if (!esLL1()) {
+            throw new IllegalStateException("La gramática no es LL(1): " + conflictos.size() + " conflictos en la tabla.");
+        }
+        long inicio = System.nanoTime();
+        int n = cadena.length();
+        int[] pila = new int[64];
+        int cima = 0;
+        pila[cima++] = g.inicial;
+        int maxPila = 1;
+        int pasos = 0;
+        int i = 0;
+
+        while (cima > 0) {
+            int a = columnaDe(cadena, i);
+            if (a < 0) {
+                return new ResultadoLL1(false, pasos, maxPila, i, "el carácter '" + cadena.charAt(i) + "' no está en Σ",
+                        System.nanoTime() - inicio);
+            }
+            int x = pila[--cima];
+            pasos++;
+            if (!g.esVariable(x)) {
+                if (x - g.numVariables != a) {
+                    return new ResultadoLL1(false, pasos, maxPila, i, "se esperaba '" + g.nombreSimbolo(x) + "'",
+                            System.nanoTime() - inicio);
+                }
+                i++;
+                continue;
+            }
+            int p = tabla[x * columnas + a];
+            if (p == SIN_PRODUCCION) {
+                return new ResultadoLL1(false, pasos, maxPila, i, "se esperaba uno de " + nombresConjunto(esperados(x), false),
+                        System.nanoTime() - inicio);
+            }
+            int longitud = g.longitudCuerpo(p);
+            if (cima + longitud > pila.length) {
+                pila = Arrays.copyOf(pila, Math.max(pila.length * 2, cima + longitud));
+            }
+            for (int k = g.inicioCuerpo[p + 1] - 1; k >= g.inicioCuerpo[p]; k--) {
+                pila[cima++] = g.simbolos[k];
+            }
+            maxPila = Math.max(maxPila, cima);
+        }
+
+        if (i < n) {
+            return new ResultadoLL1(false, pasos, maxPila, i, "sobran caracteres después de derivar " + g.nombreSimbolo(g.inicial),
+                    System.nanoTime() - inicio);
+        }
+        return new ResultadoLL1(true, pasos, maxPila, -1, null, System.nanoTime() - inicio);
+    }
+
+    /** Columna del carácter en la posición i ($ al final), o -1 si no está en Σ. */
+    private int columnaDe(String cadena, int i) {
+        if (i == cadena.length()) return g.numTerminales;
+        int s = g.terminalDeCaracter(cadena.charAt(i));
+        return s < 0 ? -1 : s - g.numVariables;
+    }
+
+    /** Columnas con alguna producción en la fila de la variable. */
+    private long[] esperados(int variable) {
+        long[] conjunto = new long[palabras];
+        for (int t = 0; t < columnas; t++) {
+            if (tabla[variable * columnas + t] != SIN_PRODUCCION) agregar(conjunto, t);
+        }
+        return conjunto;
+    }
+
+    /**
+     * PRIMERO y SIGUIENTE de cada variable y los conflictos de la tabla, si los hay.
+     */
+    public String describir() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Conjuntos PRIMERO y SIGUIENTE:\n");
+        for (int v = 0; v < g.numVariables; v++) {
+            sb.append("  ").append(g.nombreSimbolo(v))
+                    .append(": PRIMERO = ").append(nombresConjunto(primero[v], g.anulable[v]))
+                    .append(", SIGUIENTE = ").append(nombresConjunto(siguiente[v], false)).append("\n");
+        }
+        if (esLL1()) {
+            sb.append("La gramática es LL(1).\n");
+        } else {
+            sb.append("La gramática NO es LL(1): ").append(conflictos.size()).append(" conflictos en la tabla\n");
+            for (String c : conflictos) {
+                sb.append("  ").append(c).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resultado del análisis LL(1).
+     */
+    public static final class ResultadoLL1 {
+        private final boolean aceptada;
+        private final int pasos;
+        private final int maxPila;
+        private final int posicionError;
+        private final String error;
+        private final long nanos;
+
+        ResultadoLL1(boolean aceptada, int pasos, int maxPila, int posicionError, String error, long nanos) {
+            this.aceptada = aceptada;
+            this.pasos = pasos;
+            this.maxPila = maxPila;
+            this.posicionError = posicionError;
+            this.error = error;
+            this.nanos = nanos;
+        }
+
+        public boolean isAceptada() { return aceptada; }
+
+        /** Expansiones y lecturas realizadas. */
+        public int getPasos() { return pasos; }
+
+        /** Altura máxima de la pila de símbolos. */
+        public int getMaxPila() { return maxPila; }
+
+        /** Posición de la cadena donde se detectó el error, o -1 si fue aceptada. */
+        public int getPosicionError() { return posicionError; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- ANÁLISIS LL(1) ---\n");
+            sb.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+            if (!aceptada) {
+                sb.append("Error en la posición ").append(posicionError).append(": ").append(error).append("\n");
+            }
+            sb.append("Pasos: ").append(pasos).append(" (pila máxima ").append(maxPila).append(")\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return (aceptada ? "ACEPTADA" : "RECHAZADA") + " (" + pasos + " pasos)";
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package modelo;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Clase que representa un Autómata con Pila (AP).
@@ -21,6 +22,18 @@ public class AutomataPila {
     // Constante para representar la cadena vacía (Lambda/Epsilon)
     public static final String LAMBDA = "λ";
 
+    // Forma compilada (ids enteros) sobre la que corre la búsqueda
+    private final AutomataPilaCompilado compilado;
+
+    // Si es determinista, la simulación usa el camino de una sola pasada
+    private final AnalisisDeterminismoAP determinismo;
+
+    // Contadores de la memoización de la última simulación
+    private EstadisticasBusqueda ultimaBusqueda;
+
+    // Profundidad máxima de la búsqueda por backtracking
+    private int maxMarcos = PilaMarcos.MAX_MARCOS_POR_DEFECTO;
+
     /**
      * Constructor del Automata de Pila.
      */
@@ -34,113 +47,228 @@ public class AutomataPila {
         this.q0 = q0;
         this.Z0 = Z0;
         this.F = F;
+        this.compilado = AutomataPilaCompilado.compilar(Q, Gamma, Delta, q0, Z0, F);
+        this.determinismo = AnalisisDeterminismoAP.analizar(compilado);
     }
 
     public boolean simularCadena(String cadena, StringBuilder logBuffer) {
         logBuffer.setLength(0);
-        logBuffer.append("--- INICIO DE SIMULACIÓN AP (Aceptación por F y Pila Vacía) ---\n");
-        logBuffer.append("Cadena a probar: ").append(cadena.isEmpty() ? LAMBDA : cadena).append("\n");
+        return simularCadena(cadena, new TrazaTexto(logBuffer));
+    }
 
-        // Inicialización de la pila
-        Stack<String> pilaInicial = new Stack<>();
+    /**
+     * Simula el AP notificando cada transición aplicada al oyente. Si el AP es
+     * determinista se recorre el único camino posible; si no, se busca con backtracking.
+     * @param cadena La cadena a probar.
+     * @param traza Oyente que recibe los eventos ({@link OyenteTraza#NULO} para no registrar nada).
+     * @return true si la cadena es aceptada, false si es rechazada.
+     */
+    public boolean simularCadena(String cadena, OyenteTraza traza) {
+        traza.inicio(OyenteTraza.Modelo.AP, cadena);
 
         // LÓGICA DE PILA VACÍA: Solo inicializa la pila con Z0 si Z0 NO es LAMBDA
-        if (!Z0.trim().isEmpty() && !Z0.equals(LAMBDA)) {
-            logBuffer.append("Símbolo Inicial de Pila (Z0): ").append(Z0).append(". Pila inicial: [").append(Z0).append("]\n");
-            pilaInicial.push(Z0);
+        PilaPersistente pilaInicial = compilado.pilaInicial();
+        traza.pilaInicial(pilaInicial.esVacia() ? null : Z0);
+
+        boolean aceptada;
+        if (determinismo.isDeterminista()) {
+            aceptada = determinismo.simular(cadena, traza);
+            ultimaBusqueda = null;
         } else {
-            logBuffer.append("Símbolo Inicial de Pila (Z0): ").append(LAMBDA).append(" (Pila inicia vacía).\n");
+            EstadisticasBusqueda busqueda = new EstadisticasBusqueda();
+            aceptada = backtrackSimulacion(cadena, pilaInicial, traza, busqueda);
+            ultimaBusqueda = busqueda;
         }
 
-        // Llamada a la simulación recursiva
-        boolean aceptada = backtrackSimulacion(q0, cadena, pilaInicial, logBuffer, 0);
-
-        logBuffer.append("\n--- FIN DE SIMULACIÓN ---\n");
-        logBuffer.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
-        logBuffer.append("---------------------------------------------------\n");
+        traza.fin(aceptada);
 
         return aceptada;
     }
 
     /**
-     * Algoritmo de simulación recursivo (backtracking) para AP No Determinista.
+     * Contadores de la memoización de la última llamada a simularCadena, o null si
+     * todavía no se simuló ninguna cadena o si el AP es determinista (no hay búsqueda).
      */
-    private boolean backtrackSimulacion(String estadoActual, String subcadena, Stack<String> pila, StringBuilder logBuffer, int nivel) {
-        String padding = " ".repeat(nivel * 2);
+    public EstadisticasBusqueda getUltimaBusqueda() {
+        return ultimaBusqueda;
+    }
 
-        // 1. CONDICIÓN DE ACEPTACIÓN
-        // Cadena Consumida Y Pila Vacía Y Estado Final.
-        if (subcadena.isEmpty() && pila.isEmpty() && F.contains(estadoActual)) {
-            logBuffer.append(padding).append("-> ACEPTADO: Cadena terminada, Pila vacía, Estado (").append(estadoActual).append(") es Final.\n");
-            return true;
+    /**
+     * Cambia el presupuesto de la búsqueda por backtracking: cuántas configuraciones puede
+     * tener a la vez la rama actual. Al superarlo, simularCadena lanza IllegalStateException.
+     */
+    public void setMaxMarcos(int maxMarcos) {
+        if (maxMarcos <= 0) {
+            throw new IllegalArgumentException("El presupuesto de marcos debe ser positivo.");
         }
+        this.maxMarcos = maxMarcos;
+    }
 
-        // 2. Transiciones posibles desde el estado actual
-        Set<TransicionAP> transicionesPosibles = Delta.getOrDefault(estadoActual, Collections.emptySet());
-
-        // 3. Iterar sobre transiciones
-        for (TransicionAP t : transicionesPosibles) {
-            String simboloEntrada = t.simboloEntrada;
-            String simboloTope = t.simboloTope;
+    /** Resultado del análisis de determinismo, hecho al construir el AP. */
+    public AnalisisDeterminismoAP getDeterminismo() {
+        return determinismo;
+    }
 
-            // a) ¿Coincide el símbolo de entrada?
-            boolean consumeSimbolo = !simboloEntrada.equals(LAMBDA) && subcadena.startsWith(simboloEntrada);
-            boolean isLambdaInput = simboloEntrada.equals(LAMBDA);
+    public AutomataPilaCompilado getCompilado() {
+        return compilado;
+    }
 
-            if (consumeSimbolo || isLambdaInput) {
+    /**
+     * Simula la cadena en anchura con los presupuestos por defecto; nunca se cuelga
+     * (ver {@link SimuladorAnchuraAP}).
+     */
+    public SimuladorAnchuraAP.ResultadoAnchura simularAnchura(String cadena) {
+        return new SimuladorAnchuraAP(compilado).simular(cadena);
+    }
 
-                // b) Lógica de coincidencia de tope de pila (X):
+    /**
+     * Simula la cadena con una pila estructurada como grafo (ver {@link SimuladorGSSAP}):
+     * misma respuesta que simularCadena, en tiempo polinomial.
+     */
+    public SimuladorGSSAP.ResultadoGSS simularGSS(String cadena) {
+        return new SimuladorGSSAP(compilado).simular(cadena);
+    }
 
-                // 1. Coincidencia específica (X != λ): Se requiere que la pila NO esté vacía y que el tope sea X.
-                boolean matchSpecificPop = !simboloTope.equals(LAMBDA) && !pila.isEmpty() && pila.peek().equals(simboloTope);
+    /**
+     * Busca en paralelo en el pool fork-join común (ver {@link SimuladorParaleloAP}), con
+     * el presupuesto interactivo {@link SimuladorParaleloAP#CONFIGURACIONES_INTERACTIVAS}.
+     */
+    public SimuladorParaleloAP.ResultadoParalelo simularParalelo(String cadena) {
+        return new SimuladorParaleloAP(compilado, ForkJoinPool.commonPool(),
+                SimuladorParaleloAP.CONFIGURACIONES_INTERACTIVAS).simular(cadena);
+    }
 
-                // 2. Coincidencia λ (X = λ): Significa "no me importa el tope de la pila" o "la pila debe estar vacía".
-                boolean matchLambdaPop = simboloTope.equals(LAMBDA);
+    /**
+     * Simulación por backtracking para AP No Determinista, con una pila explícita de
+     * marcos en lugar de recursión: la profundidad solo la limita el presupuesto de
+     * marcos. Las configuraciones (estado, posición, pila) que ya fallaron no se vuelven
+     * a expandir, y una configuración que reaparece dentro de su propia rama (ciclo de
+     * transiciones λ) se corta. La pila es persistente: cada rama apila y desapila en
+     * O(1) sobre la cola que comparte con las demás, sin copiarla.
+     */
+    private boolean backtrackSimulacion(String cadena, PilaPersistente pilaInicial, OyenteTraza traza,
+                                        EstadisticasBusqueda busqueda) {
+        AutomataPilaCompilado c = compilado;
+        PilaMarcos<MarcoAP> marcos = new PilaMarcos<>(MarcoAP::new, maxMarcos);
+        if (entrar(compilado.getEstadoInicial(), cadena, 0, pilaInicial, 0, traza, busqueda, marcos)) {
+            return true;
+        }
 
-                // La transición es aplicable si hay coincidencia específica o si no requiere tope específico (matchLambdaPop)
-                if (matchSpecificPop || matchLambdaPop) {
+        while (!marcos.esVacia()) {
+            MarcoAP m = marcos.cima();
+            int t = siguienteCandidato(m, cadena);
+            if (t < 0) {
+                // Se agotaron las alternativas de esta configuración
+                busqueda.enCurso.remove(m.configuracion);
+                // Si la rama cortó un ciclo, su fallo depende del camino y no se puede reutilizar
+                if (busqueda.ciclosCortados == m.ciclosAntes) {
+                    busqueda.fallidas.add(m.configuracion);
+                }
+                marcos.desapilar();
+                continue;
+            }
 
-                    // Si se pide sacar un símbolo específico y la pila está vacía, no se puede aplicar.
-                    if (matchSpecificPop && pila.isEmpty()) continue;
+            // Tope específico (se saca) o λ ("no me importa el tope", no saca nada),
+            // y luego meter el reemplazo (su primer símbolo queda en el tope)
+            PilaPersistente nuevaPila = c.aplicar(t, m.pila);
 
-                    // Simulación de la transición
-                    Stack<String> nuevaPila = (Stack<String>) pila.clone();
-                    String nuevaSubcadena = subcadena;
-                    String pilaTopeStr = pila.isEmpty() ? LAMBDA : pila.peek();
+            // LOG: solo la transición y la pila de partida; el texto lo arma el oyente
+            if (traza.activo()) {
+                traza.transicionPila(m.nivel, c, t, m.pila);
+            }
 
-                    // I. Consumir entrada
-                    if (consumeSimbolo) {
-                        nuevaSubcadena = subcadena.substring(simboloEntrada.length());
-                    }
+            if (entrar(c.destino[t], cadena, m.posicion + m.consumidos, nuevaPila, m.nivel + 1, traza, busqueda, marcos)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                    // II. Modificar pila (Sacar: X)
-                    // Solo hacemos POP si X NO es λ. Si X es λ, la pila se queda igual (comportamiento de tu clase).
-                    if (matchSpecificPop) {
-                        nuevaPila.pop();
-                    }
+    /**
+     * Llega a una configuración: comprueba la aceptación y la memoización y, si hay que
+     * expandirla, apila su marco.
+     * @return true si la configuración acepta.
+     */
+    private boolean entrar(int estado, String cadena, int posicion, PilaPersistente pila, int nivel,
+                           OyenteTraza traza, EstadisticasBusqueda busqueda, PilaMarcos<MarcoAP> marcos) {
+        AutomataPilaCompilado c = compilado;
 
-                    // III. Modificar pila (Meter: YZ)
-                    String reemplazoPila = t.reemplazoPila;
-                    if (!reemplazoPila.equals(LAMBDA)) {
-                        // Meter de derecha a izquierda
-                        for (int i = reemplazoPila.length() - 1; i >= 0; i--) {
-                            nuevaPila.push(String.valueOf(reemplazoPila.charAt(i)));
-                        }
-                    }
+        // 1. CONDICIÓN DE ACEPTACIÓN
+        // Cadena Consumida Y Pila Vacía Y Estado Final.
+        if (posicion == cadena.length() && pila.esVacia() && c.esFinal(estado)) {
+            traza.aceptacionPila(nivel, c.nombreEstado(estado));
+            return true;
+        }
 
-                    // LOG
-                    logBuffer.append(padding).append("Paso: (").append(estadoActual).append(", '").append(simboloEntrada).append("', '").append(simboloTope)
-                            .append("') [Tope: ").append(pilaTopeStr).append("] -> (").append(t.estadoSiguiente).append(", '").append(t.reemplazoPila).append("'). Pila: ").append(pila).append(" -> ").append(nuevaPila).append("\n");
+        // Memoización de configuraciones
+        Configuracion configuracion = new Configuracion(estado, posicion, pila);
+        if (busqueda.fallidas.contains(configuracion)) {
+            busqueda.aciertos++;
+            traza.configuracionRepetida(nivel, c.nombreEstado(estado), false);
+            return false;
+        }
+        if (!busqueda.enCurso.add(configuracion)) {
+            busqueda.ciclosCortados++;
+            traza.configuracionRepetida(nivel, c.nombreEstado(estado), true);
+            return false;
+        }
+        busqueda.fallos++;
+
+        MarcoAP m = marcos.apilar();
+        m.estado = estado;
+        m.posicion = posicion;
+        m.pila = pila;
+        m.nivel = nivel;
+        m.configuracion = configuracion;
+        m.ciclosAntes = busqueda.ciclosCortados;
+        m.tope = pila.esVacia() ? AutomataPilaCompilado.LAMBDA : pila.tope();
+        m.grupo = -1;
+        m.vuelta = 1;
+        m.i = 0;
+        m.fin = 0;
+        return false;
+    }
 
-                    // Llamada recursiva
-                    if (backtrackSimulacion(t.estadoSiguiente, nuevaSubcadena, nuevaPila, logBuffer, nivel + 1)) {
-                        return true;
-                    }
-                }
+    /**
+     * Siguiente transición candidata del marco, o -1 si no quedan. Las celdas del
+     * índice (estado, entrada, tope) se recorren en este orden: primero las que consumen
+     * entrada (el símbolo de un carácter en la posición actual y los símbolos largos que
+     * coincidan), al final las transiciones λ; en cada una, primero el tope específico y
+     * luego el tope λ.
+     */
+    private int siguienteCandidato(MarcoAP m, String cadena) {
+        AutomataPilaCompilado c = compilado;
+        int numLargas = c.entradasLargas.length;
+        while (m.i == m.fin) {
+            if (m.vuelta == 0) {
+                m.vuelta = 1;
+            } else {
+                m.grupo++;
+                m.vuelta = 0;
+            }
+            if (m.grupo > numLargas + 1) return -1;
+            if (m.vuelta == 0 && m.tope == AutomataPilaCompilado.LAMBDA) continue;
+
+            int entrada;
+            if (m.grupo == 0) {
+                if (m.posicion >= cadena.length()) continue;
+                entrada = c.entradaDeCaracter(cadena.charAt(m.posicion));
+                if (entrada == AutomataPilaCompilado.LAMBDA) continue;
+                m.consumidos = 1;
+            } else if (m.grupo <= numLargas) {
+                entrada = c.entradasLargas[m.grupo - 1];
+                String texto = c.entrada(entrada);
+                if (!cadena.startsWith(texto, m.posicion)) continue;
+                m.consumidos = texto.length();
+            } else {
+                entrada = AutomataPilaCompilado.LAMBDA;
+                m.consumidos = 0;
             }
+            int tope = m.vuelta == 0 ? m.tope : AutomataPilaCompilado.LAMBDA;
+            m.i = c.inicioCandidatos(m.estado, entrada, tope);
+            m.fin = c.finCandidatos(m.estado, entrada, tope);
         }
-
-        return false;
+        return c.candidatos[m.i++];
     }
 
     public static Map<String, Set<TransicionAP>> parseRawTransiciones(String rawTransiciones,
@@ -217,6 +345,85 @@ public class AutomataPila {
         return delta;
     }
 
+    /**
+     * Marco de la búsqueda: una configuración en expansión y su cursor sobre las celdas
+     * del índice. Los marcos se reutilizan entre profundidades.
+     */
+    private static final class MarcoAP {
+        int estado;
+        int posicion;
+        PilaPersistente pila;
+        int nivel;
+        Configuracion configuracion;
+        int ciclosAntes;
+        int tope;
+
+        // Cursor: grupo de entrada (0 = carácter, 1..L = símbolos largos, L + 1 = λ),
+        // vuelta (0 = tope específico, 1 = tope λ) y rango [i, fin) de candidatos
+        int grupo;
+        int vuelta;
+        int i;
+        int fin;
+        int consumidos;
+    }
+
+    /**
+     * Configuración instantánea (estado, posición de lectura, contenido de la pila).
+     * Crearla es O(1): la pila persistente trae su hash precalculado.
+     */
+    private static final class Configuracion {
+        private final int estado;
+        private final int posicion;
+        private final PilaPersistente pila;
+
+        Configuracion(int estado, int posicion, PilaPersistente pila) {
+            this.estado = estado;
+            this.posicion = posicion;
+            this.pila = pila;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Configuracion)) return false;
+            Configuracion c = (Configuracion) o;
+            return estado == c.estado && posicion == c.posicion && pila.equals(c.pila);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * estado + posicion) + pila.hashCode();
+        }
+    }
+
+    /**
+     * Memoización de una simulación: configuraciones que fallaron, las que están en la
+     * rama actual, y los contadores que se exponen al usuario.
+     */
+    public static final class EstadisticasBusqueda {
+        private final Set<Configuracion> fallidas = new HashSet<>();
+        private final Set<Configuracion> enCurso = new HashSet<>();
+        private int aciertos;
+        private int fallos;
+        private int ciclosCortados;
+
+        /** Configuraciones que no se expandieron porque ya se sabía que fallaban. */
+        public int getAciertos() { return aciertos; }
+
+        /** Configuraciones nuevas que hubo que expandir. */
+        public int getFallos() { return fallos; }
+
+        /** Veces que una configuración reapareció dentro de su propia rama. */
+        public int getCiclosCortados() { return ciclosCortados; }
+
+        public int getConfiguracionesFallidas() { return fallidas.size(); }
+
+        @Override
+        public String toString() {
+            return "Memoización: " + fallos + " configuraciones expandidas, " + aciertos
+                    + " repetidas evitadas, " + ciclosCortados + " ciclos λ cortados.";
+        }
+    }
+
     /**
      * Clase interna para representar una Transición en el AP.
      */
@@ -0,0 +1,282 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Forma compilada de un AP: estados y símbolos de pila internados como enteros densos,
+ * y las transiciones guardadas en arreglos paralelos indexados por id de transición.
+ *
+ * Los símbolos de entrada también se internan; como Σ admite símbolos de más de un
+ * carácter, los de un solo carácter se resuelven con una tabla por carácter y los largos
+ * se comparan aparte. λ (en la entrada, el tope o el reemplazo) es {@link #LAMBDA}.
+ *
+ * Un índice agrupa las transiciones por (estado, símbolo de entrada o λ, tope o λ), así
+ * que en cada configuración los candidatos se obtienen en O(1) sin recorrer ni comparar
+ * las demás transiciones del estado.
+ */
+public final class AutomataPilaCompilado {
+
+    // Id reservado para λ
+    static final int LAMBDA = -1;
+
+    private final String[] nombresEstados;
+    private final String[] simbolosPila;
+    private final Map<String, Integer> idSimboloPila;
+
+    final int estadoInicial;
+
+    // Símbolo inicial de pila, o LAMBDA si la pila inicia vacía
+    final int simboloInicialPila;
+
+    final boolean[] finales;
+
+    // Transición t: origen[t] --entrada[t], tope[t] / apilar[t]--> destino[t]
+    final AutomataPila.TransicionAP[] transiciones;
+    final int[] origen;
+    final int[] destino;
+    final String[] entrada;       // null si es λ
+    final int[] tope;             // LAMBDA si no exige tope
+    final int[][] apilar;         // apilar[t][0] queda en el tope; vacío si es λ
+
+    // Ids de las transiciones que salen de cada estado
+    final int[][] transicionesDe;
+
+    // Símbolos de entrada usados en δ; los de un carácter se buscan por carácter
+    private final String[] entradas;
+    private final int[] entradaDeCaracter;
+    final int[] entradasLargas;
+
+    // Índice CSR: candidatos[inicioIndice[c] .. inicioIndice[c + 1]) para la celda
+    // c = celda(estado, entrada, tope)
+    private final int[] inicioIndice;
+    final int[] candidatos;
+
+    private AutomataPilaCompilado(String[] nombresEstados, String[] simbolosPila, Map<String, Integer> idSimboloPila,
+                                  int estadoInicial, int simboloInicialPila, boolean[] finales,
+                                  AutomataPila.TransicionAP[] transiciones, int[] origen, int[] destino,
+                                  String[] entrada, int[] tope, int[][] apilar, int[][] transicionesDe,
+                                  String[] entradas, int[] entradaDeCaracter, int[] entradasLargas,
+                                  int[] inicioIndice, int[] candidatos) {
+        this.nombresEstados = nombresEstados;
+        this.simbolosPila = simbolosPila;
+        this.idSimboloPila = idSimboloPila;
+        this.estadoInicial = estadoInicial;
+        this.simboloInicialPila = simboloInicialPila;
+        this.finales = finales;
+        this.transiciones = transiciones;
+        this.origen = origen;
+        this.destino = destino;
+        this.entrada = entrada;
+        this.tope = tope;
+        this.apilar = apilar;
+        this.transicionesDe = transicionesDe;
+        this.entradas = entradas;
+        this.entradaDeCaracter = entradaDeCaracter;
+        this.entradasLargas = entradasLargas;
+        this.inicioIndice = inicioIndice;
+        this.candidatos = candidatos;
+    }
+
+    /**
+     * Compila la definición de un AP. Z0 se apila como un único símbolo; los reemplazos
+     * se apilan carácter a carácter, igual que en la simulación original.
+     */
+    public static AutomataPilaCompilado compilar(Set<String> estados, Set<String> alfabetoPila,
+                                                 Map<String, Set<AutomataPila.TransicionAP>> delta,
+                                                 String estadoInicial, String simboloInicialPila,
+                                                 Set<String> estadosFinales) {
+        // 1. Internar estados
+        Set<String> todos = new LinkedHashSet<>(estados);
+        todos.add(estadoInicial);
+        List<AutomataPila.TransicionAP> lista = new ArrayList<>();
+        for (Set<AutomataPila.TransicionAP> ts : delta.values()) {
+            for (AutomataPila.TransicionAP t : ts) {
+                todos.add(t.estadoActual);
+                todos.add(t.estadoSiguiente);
+                lista.add(t);
+            }
+        }
+        String[] nombres = todos.toArray(new String[0]);
+        Map<String, Integer> idEstado = new HashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            idEstado.put(nombres[i], i);
+        }
+
+        // 2. Internar símbolos de pila
+        Map<String, Integer> idSimbolo = new HashMap<>();
+        List<String> simbolos = new ArrayList<>();
+        for (String g : alfabetoPila) {
+            internar(g, idSimbolo, simbolos);
+        }
+        boolean pilaVacia = simboloInicialPila.trim().isEmpty() || simboloInicialPila.equals(AutomataPila.LAMBDA);
+        int z0 = pilaVacia ? LAMBDA : internar(simboloInicialPila, idSimbolo, simbolos);
+
+        // 3. Transiciones en arreglos paralelos
+        int n = lista.size();
+        AutomataPila.TransicionAP[] transiciones = lista.toArray(new AutomataPila.TransicionAP[0]);
+        int[] origen = new int[n];
+        int[] destino = new int[n];
+        String[] entrada = new String[n];
+        int[] tope = new int[n];
+        int[][] apilar = new int[n][];
+        int[] salientes = new int[nombres.length];
+        for (int t = 0; t < n; t++) {
+            AutomataPila.TransicionAP tr = transiciones[t];
+            origen[t] = idEstado.get(tr.estadoActual);
+            destino[t] = idEstado.get(tr.estadoSiguiente);
+            entrada[t] = tr.simboloEntrada.equals(AutomataPila.LAMBDA) ? null : tr.simboloEntrada;
+            tope[t] = tr.simboloTope.equals(AutomataPila.LAMBDA) ? LAMBDA : internar(tr.simboloTope, idSimbolo, simbolos);
+            if (tr.reemplazoPila.equals(AutomataPila.LAMBDA)) {
+                apilar[t] = new int[0];
+            } else {
+                apilar[t] = new int[tr.reemplazoPila.length()];
+                for (int i = 0; i < apilar[t].length; i++) {
+                    apilar[t][i] = internar(String.valueOf(tr.reemplazoPila.charAt(i)), idSimbolo, simbolos);
+                }
+            }
+            salientes[origen[t]]++;
+        }
+
+        int[][] transicionesDe = new int[nombres.length][];
+        for (int q = 0; q < nombres.length; q++) {
+            transicionesDe[q] = new int[salientes[q]];
+            salientes[q] = 0;
+        }
+        for (int t = 0; t < n; t++) {
+            transicionesDe[origen[t]][salientes[origen[t]]++] = t;
+        }
+
+        boolean[] finales = new boolean[nombres.length];
+        for (String f : estadosFinales) {
+            Integer id = idEstado.get(f);
+            if (id != null) finales[id] = true;
+        }
+
+        // 4. Internar los símbolos de entrada
+        Map<String, Integer> idEntrada = new HashMap<>();
+        List<String> entradas = new ArrayList<>();
+        int[] entradaDe = new int[n];
+        int maxCaracter = -1;
+        for (int t = 0; t < n; t++) {
+            entradaDe[t] = entrada[t] == null ? LAMBDA : internar(entrada[t], idEntrada, entradas);
+            if (entrada[t] != null && entrada[t].length() == 1) {
+                maxCaracter = Math.max(maxCaracter, entrada[t].charAt(0));
+            }
+        }
+        int[] entradaDeCaracter = new int[maxCaracter + 1];
+        Arrays.fill(entradaDeCaracter, LAMBDA);
+        List<Integer> largas = new ArrayList<>();
+        for (int e = 0; e < entradas.size(); e++) {
+            String simbolo = entradas.get(e);
+            if (simbolo.length() == 1) {
+                entradaDeCaracter[simbolo.charAt(0)] = e;
+            } else {
+                largas.add(e);
+            }
+        }
+
+        // 5. Índice (estado, entrada, tope) -> transiciones, en formato CSR
+        int numEntradas = entradas.size();
+        int numSimbolos = simbolos.size();
+        long celdas = (long) nombres.length * (numEntradas + 1) * (numSimbolos + 1);
+        if (celdas >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El AP es demasiado grande para indexar sus transiciones.");
+        }
+        int[] inicioIndice = new int[(int) celdas + 1];
+        int[] celdaDe = new int[n];
+        for (int t = 0; t < n; t++) {
+            celdaDe[t] = celda(origen[t], entradaDe[t], tope[t], numEntradas, numSimbolos);
+            inicioIndice[celdaDe[t] + 1]++;
+        }
+        for (int i = 0; i < celdas; i++) {
+            inicioIndice[i + 1] += inicioIndice[i];
+        }
+        int[] candidatos = new int[n];
+        int[] llenado = Arrays.copyOf(inicioIndice, inicioIndice.length - 1);
+        for (int t = 0; t < n; t++) {
+            candidatos[llenado[celdaDe[t]]++] = t;
+        }
+
+        return new AutomataPilaCompilado(nombres, simbolos.toArray(new String[0]), idSimbolo,
+                idEstado.get(estadoInicial), z0, finales, transiciones, origen, destino, entrada, tope, apilar,
+                transicionesDe, entradas.toArray(new String[0]), entradaDeCaracter,
+                largas.stream().mapToInt(Integer::intValue).toArray(), inicioIndice, candidatos);
+    }
+
+    private static int celda(int estado, int entrada, int tope, int numEntradas, int numSimbolos) {
+        return (estado * (numEntradas + 1) + entrada + 1) * (numSimbolos + 1) + tope + 1;
+    }
+
+    /** Primera posición en {@link #candidatos} de la celda (estado, entrada, tope). */
+    int inicioCandidatos(int estado, int entrada, int tope) {
+        return inicioIndice[celda(estado, entrada, tope, entradas.length, simbolosPila.length)];
+    }
+
+    /** Posición siguiente a la última en {@link #candidatos} de la celda (estado, entrada, tope). */
+    int finCandidatos(int estado, int entrada, int tope) {
+        return inicioIndice[celda(estado, entrada, tope, entradas.length, simbolosPila.length) + 1];
+    }
+
+    /**
+     * Id del símbolo de entrada de un carácter que coincide con c, o LAMBDA si ninguna
+     * transición lo lee.
+     */
+    int entradaDeCaracter(char c) {
+        return c < entradaDeCaracter.length ? entradaDeCaracter[c] : LAMBDA;
+    }
+
+    /** Texto de un símbolo de entrada interno. */
+    String entrada(int id) { return entradas[id]; }
+
+    private static int internar(String simbolo, Map<String, Integer> ids, List<String> simbolos) {
+        Integer id = ids.get(simbolo);
+        if (id == null) {
+            id = simbolos.size();
+            ids.put(simbolo, id);
+            simbolos.add(simbolo);
+        }
+        return id;
+    }
+
+    /** Pila inicial de la simulación: [Z0], o vacía si Z0 es λ. */
+    public PilaPersistente pilaInicial() {
+        return simboloInicialPila == LAMBDA ? PilaPersistente.VACIA : PilaPersistente.VACIA.apilar(simboloInicialPila);
+    }
+
+    /**
+     * Pila que resulta de aplicar la transición t: saca el tope si t lo exige (un tope
+     * λ no saca nada) y mete su reemplazo.
+     */
+    public PilaPersistente aplicar(int t, PilaPersistente pila) {
+        return (tope[t] == LAMBDA ? pila : pila.desapilar()).apilar(apilar[t]);
+    }
+
+    public int getEstadoInicial() { return estadoInicial; }
+    public boolean esFinal(int estado) { return finales[estado]; }
+    public int getNumEstados() { return nombresEstados.length; }
+    public int getNumTransiciones() { return transiciones.length; }
+    public int getNumSimbolosPila() { return simbolosPila.length; }
+
+    public String nombreEstado(int estado) { return nombresEstados[estado]; }
+
+    /** Nombre de un símbolo de pila, o λ para {@link #LAMBDA}. */
+    public String nombreSimboloPila(int simbolo) {
+        return simbolo == LAMBDA ? AutomataPila.LAMBDA : simbolosPila[simbolo];
+    }
+
+    /** Id de un símbolo de pila, o null si no aparece en el autómata. */
+    public Integer idSimboloPila(String simbolo) {
+        return idSimboloPila.get(simbolo);
+    }
+
+    /** Nombres de los símbolos de pila indexados por id (para {@link PilaPersistente#aLista}). */
+    String[] simbolosPila() { return simbolosPila; }
+
+    public AutomataPila.TransicionAP transicion(int t) { return transiciones[t]; }
+}
@@ -0,0 +1,328 @@
+package modelo;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Bosque de análisis compartido y empaquetado (SPPF) con todas las derivaciones de una
+ * cadena, en la forma binarizada de Scott y Johnstone.
+ *
+ * Hay dos clases de nodos, ambos etiquetados con un intervalo [i, j) de la entrada:
+ * los de símbolo (una variable, un terminal o λ) y los intermedios, que representan el
+ * prefijo α de una regla punteada A -> α•β. Cada alternativa de un nodo es un nodo
+ * empaquetado con la regla y el pivote k, y a lo sumo dos hijos: un nodo que cubre
+ * [i, k) (opcional) y otro que cubre [k, j). Dos derivaciones que comparten un
+ * subárbol comparten el nodo, así que el bosque tiene tamaño polinómico aunque la
+ * cantidad de derivaciones sea exponencial.
+ *
+ * Todo vive en arreglos de enteros paralelos indexados por id de nodo; las alternativas
+ * de un nodo forman una lista enlazada.
+ */
+public final class BosqueSPPF {
+
+    /** Hijo ausente de un nodo empaquetado. */
+    static final int SIN_HIJO = -1;
+
+    private final GramaticaCompilada g;
+    private final int[] inicioRegla;
+    private final int[] produccionDeRegla;
+    private final int n;
+
+    // Etiquetas: los símbolos de la gramática, λ, y numSimbolos + r para la regla punteada r
+    private final int lambda;
+    private final int numSimbolos;
+
+    // Nodos de símbolo e intermedios
+    private int[] etiqueta = new int[256];
+    private int[] izquierda = new int[256];
+    private int[] derecha = new int[256];
+    private int[] primerEmpaquetado = new int[256];
+    private int numNodos;
+    private final IndicePares idNodo = new IndicePares();
+
+    // Nodos empaquetados: lista enlazada por nodo padre
+    private int[] regla = new int[256];
+    private int[] pivote = new int[256];
+    private int[] hijoIzquierdo = new int[256];
+    private int[] hijoDerecho = new int[256];
+    private int[] siguienteEmpaquetado = new int[256];
+    private int numEmpaquetados;
+    private final IndicePares idEmpaquetado = new IndicePares();
+
+    private int raiz = -1;
+
+    // Conteo de derivaciones, calculado al pedirlo
+    private BigInteger derivaciones;
+    private boolean infinitas;
+
+    BosqueSPPF(GramaticaCompilada g, int[] inicioRegla, int[] produccionDeRegla, int n) {
+        this.g = g;
+        this.inicioRegla = inicioRegla;
+        this.produccionDeRegla = produccionDeRegla;
+        this.n = n;
+        this.lambda = g.numVariables + g.numTerminales;
+        this.numSimbolos = lambda + 1;
+    }
+
+    /** Etiqueta de λ, para los nodos de las producciones vacías. */
+    int lambda() {
+        return lambda;
+    }
+
+    /** Etiqueta de un nodo intermedio para la regla punteada r. */
+    int etiquetaIntermedio(int r) {
+        return numSimbolos + r;
+    }
+
+    /** Id del nodo (etiqueta, i, j), creándolo si no existe. */
+    int nodo(int e, int i, int j) {
+        int id = idNodo.agregar(e, (long) i * (n + 1) + j);
+        if (id == numNodos) {
+            if (numNodos == etiqueta.length) {
+                int capacidad = numNodos * 2;
+                etiqueta = Arrays.copyOf(etiqueta, capacidad);
+                izquierda = Arrays.copyOf(izquierda, capacidad);
+                derecha = Arrays.copyOf(derecha, capacidad);
+                primerEmpaquetado = Arrays.copyOf(primerEmpaquetado, capacidad);
+            }
+            etiqueta[id] = e;
+            izquierda[id] = i;
+            derecha[id] = j;
+            primerEmpaquetado[id] = -1;
+            numNodos++;
+        }
+        return id;
+    }
+
+    /** Agrega al padre la alternativa (r, k) con esos hijos si no la tenía. */
+    void empaquetado(int padre, int r, int k, int izquierdo, int derecho) {
+        int id = idEmpaquetado.agregar(padre, (long) r * (n + 1) + k);
+        if (id < numEmpaquetados) return;
+        if (numEmpaquetados == regla.length) {
+            int capacidad = numEmpaquetados * 2;
+            regla = Arrays.copyOf(regla, capacidad);
+            pivote = Arrays.copyOf(pivote, capacidad);
+            hijoIzquierdo = Arrays.copyOf(hijoIzquierdo, capacidad);
+            hijoDerecho = Arrays.copyOf(hijoDerecho, capacidad);
+            siguienteEmpaquetado = Arrays.copyOf(siguienteEmpaquetado, capacidad);
+        }
+        regla[id] = r;
+        pivote[id] = k;
+        hijoIzquierdo[id] = izquierdo;
+        hijoDerecho[id] = derecho;
+        siguienteEmpaquetado[id] = primerEmpaquetado[padre];
+        primerEmpaquetado[padre] = id;
+        numEmpaquetados++;
+    }
+
+    int izquierda(int nodo) {
+        return izquierda[nodo];
+    }
+
+    int derecha(int nodo) {
+        return derecha[nodo];
+    }
+
+    /** Busca la raíz (S, 0, n); sin ella la cadena no pertenece al lenguaje. */
+    void cerrar() {
+        raiz = idNodo.buscar(g.inicial, n);
+    }
+
+    public boolean isAceptada() { return raiz >= 0; }
+
+    /** Id del nodo (S, 0, n), o -1 si la cadena fue rechazada. */
+    public int getRaiz() { return raiz; }
+
+    /** Nodos de símbolo e intermedios, incluidos los que no llegan a la raíz. */
+    public int getNumNodos() { return numNodos; }
+
+    public int getNumEmpaquetados() { return numEmpaquetados; }
+
+    /**
+     * true si la cadena tiene infinitas derivaciones: el bosque alcanzable desde la raíz
+     * tiene un ciclo, lo que pasa con producciones como A -> A o ciclos a través de
+     * variables anulables.
+     */
+    public boolean tieneInfinitasDerivaciones() {
+        contar();
+        return infinitas;
+    }
+
+    /**
+     * Cantidad de derivaciones (árboles de análisis) de la cadena, sin enumerarlas: en
+     * un recorrido en postorden, cada nodo suma sobre sus alternativas el producto de
+     * las cuentas de sus hijos.
+     * @throws IllegalStateException si son infinitas (ver {@link #tieneInfinitasDerivaciones()}).
+     */
+    public BigInteger contarDerivaciones() {
+        contar();
+        if (infinitas) {
+            throw new IllegalStateException("La cadena tiene infinitas derivaciones.");
+        }
+        return derivaciones;
+    }
+
+    private void contar() {
+        if (derivaciones != null || infinitas) return;
+        if (raiz < 0) {
+            derivaciones = BigInteger.ZERO;
+            return;
+        }
+        // Postorden iterativo; estado 1 = en la pila (un ciclo si se vuelve a él), 2 = contado
+        BigInteger[] cuenta = new BigInteger[numNodos];
+        byte[] estado = new byte[numNodos];
+        int[] pila = new int[64];
+        int[] siguiente = new int[64];
+        int cima = 0;
+        pila[cima] = raiz;
+        siguiente[cima++] = primerEmpaquetado[raiz];
+        estado[raiz] = 1;
+
+        while (cima > 0) {
+            int v = pila[cima - 1];
+            int e = siguiente[cima - 1];
+            if (e < 0) {
+                BigInteger total = primerEmpaquetado[v] < 0 ? BigInteger.ONE : BigInteger.ZERO;
+                for (int p = primerEmpaquetado[v]; p >= 0; p = siguienteEmpaquetado[p]) {
+                    BigInteger producto = cuenta[hijoDerecho[p]];
+                    if (hijoIzquierdo[p] != SIN_HIJO) producto = producto.multiply(cuenta[hijoIzquierdo[p]]);
+                    total = total.add(producto);
+                }
+                cuenta[v] = total;
+                estado[v] = 2;
+                cima--;
+                continue;
+            }
+            // Visitar los hijos de la alternativa e que falten, uno por vuelta
+            int hijo = -1;
+            if (hijoIzquierdo[e] != SIN_HIJO && estado[hijoIzquierdo[e]] != 2) hijo = hijoIzquierdo[e];
+            else if (estado[hijoDerecho[e]] != 2) hijo = hijoDerecho[e];
+            if (hijo < 0) {
+                siguiente[cima - 1] = siguienteEmpaquetado[e];
+                continue;
+            }
+            if (estado[hijo] == 1) {
+                infinitas = true;
+                return;
+            }
+            if (cima == pila.length) {
+                pila = Arrays.copyOf(pila, cima * 2);
+                siguiente = Arrays.copyOf(siguiente, cima * 2);
+            }
+            estado[hijo] = 1;
+            pila[cima] = hijo;
+            siguiente[cima++] = primerEmpaquetado[hijo];
+        }
+        derivaciones = cuenta[raiz];
+    }
+
+    /** Nombre de un nodo: "(E, 0, 3)" o "(E -> E+•E, 0, 2)". */
+    public String nombreNodo(int nodo) {
+        return "(" + nombreEtiqueta(etiqueta[nodo]) + ", " + izquierda[nodo] + ", " + derecha[nodo] + ")";
+    }
+
+    private String nombreEtiqueta(int e) {
+        if (e == lambda) return "λ";
+        if (e < numSimbolos) return g.nombreSimbolo(e);
+        return nombreRegla(e - numSimbolos);
+    }
+
+    private String nombreRegla(int r) {
+        int p = produccionDeRegla[r];
+        int k = r - inicioRegla[p];
+        StringBuilder sb = new StringBuilder(g.nombreSimbolo(g.cabeza[p])).append(" -> ");
+        int longitud = g.longitudCuerpo(p);
+        for (int i = 0; i < longitud; i++) {
+            if (i == k) sb.append('•');
+            sb.append(g.nombreSimbolo(g.simbolos[g.inicioCuerpo[p] + i]));
+        }
+        if (k == longitud) sb.append('•');
+        return sb.toString();
+    }
+
+    /**
+     * La primera derivación del bosque en forma de corchetes, "E[E[a] + E[a]]", tomando
+     * en cada nodo su primera alternativa, con a lo sumo maxCaracteres caracteres. Solo
+     * tiene sentido si las derivaciones son finitas.
+     */
+    public String primeraDerivacion(int maxCaracteres) {
+        return g.describirDerivacion(primeraDerivacionIzquierda(), maxCaracteres);
+    }
+
+    /**
+     * La primera derivación del bosque como derivación izquierda: los ids de las
+     * producciones aplicadas, en preorden, tomando en cada nodo su primera alternativa.
+     * Vacía si la cadena fue rechazada o si las derivaciones son infinitas.
+     */
+    public int[] primeraDerivacionIzquierda() {
+        if (raiz < 0 || tieneInfinitasDerivaciones()) return new int[0];
+        int[] derivacion = new int[64];
+        int numProducciones = 0;
+        // Pila de trabajo: nodos de variable por expandir
+        int[] pila = new int[64];
+        int cima = 0;
+        pila[cima++] = raiz;
+        int[] hijos = new int[16];
+        while (cima > 0) {
+            int v = pila[--cima];
+            int e = etiqueta[v];
+            if (e == lambda || !g.esVariable(e)) continue;
+            if (numProducciones == derivacion.length) derivacion = Arrays.copyOf(derivacion, numProducciones * 2);
+            derivacion[numProducciones++] = produccionDeRegla[regla[primerEmpaquetado[v]]];
+            // Los hijos de la primera alternativa, desplegando la cadena de nodos intermedios
+            int numHijos = 0;
+            for (int p = primerEmpaquetado[v]; p >= 0; ) {
+                if (numHijos == hijos.length) hijos = Arrays.copyOf(hijos, numHijos * 2);
+                hijos[numHijos++] = hijoDerecho[p];
+                int izq = hijoIzquierdo[p];
+                if (izq == SIN_HIJO) break;
+                if (etiqueta[izq] < numSimbolos) {
+                    if (numHijos == hijos.length) hijos = Arrays.copyOf(hijos, numHijos * 2);
+                    hijos[numHijos++] = izq;
+                    break;
+                }
+                p = primerEmpaquetado[izq];
+            }
+            if (cima + numHijos > pila.length) pila = Arrays.copyOf(pila, Math.max(pila.length * 2, cima + numHijos));
+            // hijos quedó de derecha a izquierda: apilado así se expande de izquierda a derecha
+            for (int k = 0; k < numHijos; k++) pila[cima++] = hijos[k];
+        }
+        return Arrays.copyOf(derivacion, numProducciones);
+    }
+
+    /**
+     * Los nodos alcanzables desde la raíz con sus alternativas, a lo sumo maxNodos.
+     */
+    public String describirNodos(int maxNodos) {
+        StringBuilder sb = new StringBuilder();
+        if (raiz < 0) return sb.toString();
+        boolean[] visto = new boolean[numNodos];
+        int[] cola = new int[numNodos];
+        int frente = 0;
+        int fin = 0;
+        cola[fin++] = raiz;
+        visto[raiz] = true;
+        int mostrados = 0;
+        while (frente < fin) {
+            int v = cola[frente++];
+            if (primerEmpaquetado[v] < 0) continue;
+            if (mostrados++ == maxNodos) {
+                sb.append("  ...\n");
+                break;
+            }
+            sb.append("  ").append(nombreNodo(v)).append('\n');
+            for (int p = primerEmpaquetado[v]; p >= 0; p = siguienteEmpaquetado[p]) {
+                sb.append("    = ");
+                if (hijoIzquierdo[p] != SIN_HIJO) sb.append(nombreNodo(hijoIzquierdo[p])).append(' ');
+                sb.append(nombreNodo(hijoDerecho[p])).append('\n');
+                for (int hijo : new int[]{hijoIzquierdo[p], hijoDerecho[p]}) {
+                    if (hijo != SIN_HIJO && !visto[hijo]) {
+                        visto[hijo] = true;
+                        cola[fin++] = hijo;
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
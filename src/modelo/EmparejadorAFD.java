@@ -0,0 +1,14 @@
+package modelo;
+
+/**
+ * Motor que decide la pertenencia de cadenas al lenguaje de un AFD.
+ * Lo implementan la tabla compilada ({@link AFDCompilado}) y las clases especializadas
+ * que genera {@link GeneradorEmparejadorAFD}.
+ */
+public interface EmparejadorAFD {
+
+    /**
+     * @return true si la cadena es aceptada, false si es rechazada.
+     */
+    boolean acepta(CharSequence cadena);
+}
@@ -0,0 +1,270 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Una GLC convertida a forma normal de Chomsky (FNC): toda producción es A -> BC o
+ * A -> a, y solo el símbolo inicial puede derivar λ (se guarda aparte, en
+ * {@link #isAceptaVacia()}). La conversión sigue los pasos clásicos:
+ * <ol>
+ *   <li>START: un símbolo inicial nuevo S0 -> S que no aparece en ningún cuerpo.</li>
+ *   <li>TERM: en los cuerpos de dos o más símbolos, cada terminal a pasa a ser una
+ *       variable nueva T_a -> a.</li>
+ *   <li>BIN: los cuerpos de más de dos símbolos se parten en una cadena de variables
+ *       nuevas X1, X2, ...</li>
+ *   <li>DEL: se eliminan las producciones λ agregando las variantes que omiten las
+ *       variables anulables.</li>
+ *   <li>UNIT: se eliminan las producciones unitarias A -> B copiando a A las
+ *       producciones no unitarias de cada variable que A alcanza por ellas.</li>
+ * </ol>
+ * Las producciones quedan en tablas pensadas para CYK: por terminal, el conjunto de
+ * variables que lo producen, y por variable B, las C con alguna producción A -> BC y el
+ * conjunto de esas A, todos como bitsets de long[] sobre los ids de variable.
+ */
+public final class FormaNormalChomsky {
+
+    private final String[] nombres;
+    private final GramaticaCompilada original;
+
+    final int numVariables;
+    final int inicial;
+    final boolean aceptaVacia;
+
+    // Palabras de 64 bits de un conjunto de variables
+    final int palabras;
+
+    // Por terminal (id en la gramática original, sin desplazar): variables A con A -> a
+    final long[][] cabezasTerminal;
+
+    // Por variable B: las C con alguna A -> BC, y para cada una el conjunto de esas A
+    final int[][] segundos;
+    final long[][][] cabezasBinarias;
+
+    private final List<int[]> binarias;
+    private final List<int[]> terminalesFNC;
+
+    private FormaNormalChomsky(GramaticaCompilada original, String[] nombres, int inicial, boolean aceptaVacia,
+                               List<int[]> binarias, List<int[]> terminalesFNC) {
+        this.original = original;
+        this.nombres = nombres;
+        this.numVariables = nombres.length;
+        this.inicial = inicial;
+        this.aceptaVacia = aceptaVacia;
+        this.binarias = binarias;
+        this.terminalesFNC = terminalesFNC;
+        this.palabras = (numVariables + 63) >>> 6;
+
+        cabezasTerminal = new long[original.numTerminales][palabras];
+        for (int[] r : terminalesFNC) {
+            cabezasTerminal[r[1]][r[0] >>> 6] |= 1L << r[0];
+        }
+
+        // Agrupar A -> BC por B y luego por C
+        List<Map<Integer, long[]>> porB = new ArrayList<>();
+        for (int b = 0; b < numVariables; b++) porB.add(new LinkedHashMap<>());
+        for (int[] r : binarias) {
+            long[] cabezas = porB.get(r[1]).computeIfAbsent(r[2], c -> new long[palabras]);
+            cabezas[r[0] >>> 6] |= 1L << r[0];
+        }
+        segundos = new int[numVariables][];
+        cabezasBinarias = new long[numVariables][][];
+        for (int b = 0; b < numVariables; b++) {
+            Map<Integer, long[]> m = porB.get(b);
+            segundos[b] = new int[m.size()];
+            cabezasBinarias[b] = new long[m.size()][];
+            int k = 0;
+            for (Map.Entry<Integer, long[]> e : m.entrySet()) {
+                segundos[b][k] = e.getKey();
+                cabezasBinarias[b][k++] = e.getValue();
+            }
+        }
+    }
+
+    /**
+     * Convierte una gramática compilada a FNC.
+     */
+    public static FormaNormalChomsky convertir(GramaticaCompilada g) {
+        // Símbolos de trabajo: variables >= 0, terminal t como -(t + 1)
+        List<String> nombres = new ArrayList<>();
+        for (int v = 0; v < g.numVariables; v++) nombres.add(g.nombreSimbolo(v));
+        Set<List<Integer>> reglas = new LinkedHashSet<>();
+        for (int p = 0; p < g.getNumProducciones(); p++) {
+            List<Integer> r = new ArrayList<>();
+            r.add(g.cabeza[p]);
+            for (int i = g.inicioCuerpo[p]; i < g.inicioCuerpo[p + 1]; i++) {
+                int s = g.simbolos[i];
+                r.add(g.esVariable(s) ? s : -(s - g.numVariables + 1));
+            }
+            reglas.add(r);
+        }
+
+        // 1. START
+        int inicial = nombres.size();
+        nombres.add(g.nombreSimbolo(g.inicial) + "0");
+        reglas.add(List.of(inicial, g.inicial));
+
+        // 2. TERM
+        int[] varTerminal = new int[g.numTerminales];
+        Arrays.fill(varTerminal, -1);
+        Set<List<Integer>> term = new LinkedHashSet<>();
+        for (List<Integer> r : reglas) {
+            if (r.size() <= 2) {
+                term.add(r);
+                continue;
+            }
+            List<Integer> nueva = new ArrayList<>(r);
+            for (int i = 1; i < nueva.size(); i++) {
+                int s = nueva.get(i);
+                if (s >= 0) continue;
+                int t = -s - 1;
+                if (varTerminal[t] < 0) {
+                    varTerminal[t] = nombres.size();
+                    nombres.add("T_" + g.nombreSimbolo(g.numVariables + t));
+                    term.add(List.of(varTerminal[t], s));
+                }
+                nueva.set(i, varTerminal[t]);
+            }
+            term.add(nueva);
+        }
+
+        // 3. BIN
+        Set<List<Integer>> bin = new LinkedHashSet<>();
+        int auxiliares = 0;
+        for (List<Integer> r : term) {
+            if (r.size() <= 3) {
+                bin.add(r);
+                continue;
+            }
+            int cabeza = r.get(0);
+            for (int i = 1; i < r.size() - 2; i++) {
+                int siguiente = nombres.size();
+                nombres.add("X" + (++auxiliares));
+                bin.add(List.of(cabeza, r.get(i), siguiente));
+                cabeza = siguiente;
+            }
+            bin.add(List.of(cabeza, r.get(r.size() - 2), r.get(r.size() - 1)));
+        }
+
+        // 4. DEL
+        int numVariables = nombres.size();
+        boolean[] anulable = new boolean[numVariables];
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            for (List<Integer> r : bin) {
+                if (anulable[r.get(0)]) continue;
+                boolean todas = true;
+                for (int i = 1; i < r.size(); i++) {
+                    int s = r.get(i);
+                    if (s < 0 || !anulable[s]) {
+                        todas = false;
+                        break;
+                    }
+                }
+                if (todas) {
+                    anulable[r.get(0)] = true;
+                    cambio = true;
+                }
+            }
+        }
+        Set<List<Integer>> del = new LinkedHashSet<>();
+        for (List<Integer> r : bin) {
+            if (r.size() == 3) {
+                del.add(r);
+                int b = r.get(1);
+                int c = r.get(2);
+                if (b >= 0 && anulable[b]) del.add(List.of(r.get(0), c));
+                if (c >= 0 && anulable[c]) del.add(List.of(r.get(0), b));
+            } else if (r.size() == 2) {
+                del.add(r);
+            }
+        }
+
+        // 5. UNIT: cierre de los pares (A, B) con A =>* B por producciones unitarias
+        boolean[][] alcanza = new boolean[numVariables][numVariables];
+        List<List<Integer>> unitarias = new ArrayList<>();
+        for (int a = 0; a < numVariables; a++) unitarias.add(new ArrayList<>());
+        for (List<Integer> r : del) {
+            if (r.size() == 2 && r.get(1) >= 0) unitarias.get(r.get(0)).add(r.get(1));
+        }
+        for (int a = 0; a < numVariables; a++) {
+            alcanza[a][a] = true;
+            int[] pendientes = new int[numVariables];
+            int numPendientes = 0;
+            pendientes[numPendientes++] = a;
+            while (numPendientes > 0) {
+                int b = pendientes[--numPendientes];
+                for (int c : unitarias.get(b)) {
+                    if (!alcanza[a][c]) {
+                        alcanza[a][c] = true;
+                        pendientes[numPendientes++] = c;
+                    }
+                }
+            }
+        }
+        List<List<List<Integer>>> noUnitariasDe = new ArrayList<>();
+        for (int a = 0; a < numVariables; a++) noUnitariasDe.add(new ArrayList<>());
+        for (List<Integer> r : del) {
+            if (r.size() == 3 || r.get(1) < 0) noUnitariasDe.get(r.get(0)).add(r);
+        }
+        Set<List<Integer>> binarias = new LinkedHashSet<>();
+        Set<List<Integer>> terminales = new LinkedHashSet<>();
+        for (int a = 0; a < numVariables; a++) {
+            for (int b = 0; b < numVariables; b++) {
+                if (!alcanza[a][b]) continue;
+                for (List<Integer> r : noUnitariasDe.get(b)) {
+                    if (r.size() == 3) binarias.add(List.of(a, r.get(1), r.get(2)));
+                    else terminales.add(List.of(a, -r.get(1) - 1));
+                }
+            }
+        }
+
+        return new FormaNormalChomsky(g, nombres.toArray(new String[0]), inicial, anulable[inicial],
+                aArreglos(binarias), aArreglos(terminales));
+    }
+
+    private static List<int[]> aArreglos(Set<List<Integer>> reglas) {
+        List<int[]> lista = new ArrayList<>(reglas.size());
+        for (List<Integer> r : reglas) {
+            lista.add(r.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return lista;
+    }
+
+    public int getNumVariables() { return numVariables; }
+    public int getNumReglasBinarias() { return binarias.size(); }
+    public int getNumReglasTerminales() { return terminalesFNC.size(); }
+
+    /** true si la gramática genera λ (S0 -> λ, la única producción λ permitida). */
+    public boolean isAceptaVacia() { return aceptaVacia; }
+
+    /**
+     * Producciones de la FNC, a lo sumo maxReglas.
+     */
+    public String describir(int maxReglas) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Forma normal de Chomsky: ").append(numVariables).append(" variables, ")
+                .append(binarias.size()).append(" producciones A -> BC, ")
+                .append(terminalesFNC.size()).append(" producciones A -> a")
+                .append(aceptaVacia ? ", " + nombres[inicial] + " -> λ" : "").append("\n");
+        int mostradas = 0;
+        for (int[] r : terminalesFNC) {
+            if (mostradas++ >= maxReglas) break;
+            sb.append("  ").append(nombres[r[0]]).append(" -> ").append(original.nombreSimbolo(original.numVariables + r[1])).append("\n");
+        }
+        for (int[] r : binarias) {
+            if (mostradas++ >= maxReglas) break;
+            sb.append("  ").append(nombres[r[0]]).append(" -> ").append(nombres[r[1]]).append(" ").append(nombres[r[2]]).append("\n");
+        }
+        int total = binarias.size() + terminalesFNC.size();
+        if (total > maxReglas) {
+            sb.append("  ... (").append(total - maxReglas).append(" producciones más)\n");
+        }
+        return sb.toString();
+    }
+}
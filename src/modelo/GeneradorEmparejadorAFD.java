@@ -0,0 +1,286 @@
+package modelo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Genera en tiempo de ejecución una clase especializada para un AFD compilado.
+ *
+ * Cada estado se convierte en un bloque de código propio: comprueba el fin de la
+ * cadena, lee el siguiente carácter y salta con un lookupswitch directamente al bloque
+ * del estado destino. No hay tabla ni variable de estado, así que el JIT compila el
+ * AFD como un grafo de saltos. La clase se escribe a mano (formato class 49, que no
+ * requiere StackMapTable) y se define como clase oculta con
+ * {@link MethodHandles.Lookup#defineHiddenClass}, sin dependencias externas.
+ *
+ * Los AFD que superan el umbral de tamaño se quedan con la tabla compilada, porque
+ * el JIT no compila métodos tan grandes.
+ *
+ * El código generado gana cuando los saltos son predecibles (texto real, donde unas
+ * pocas transiciones dominan); con entradas aleatorias cada lookupswitch falla la
+ * predicción y la tabla, sin ramas, es más rápida.
+ */
+public final class GeneradorEmparejadorAFD {
+
+    // Estados a partir de los cuales no se genera código
+    static final int MAX_ESTADOS = 256;
+
+    // HotSpot no compila métodos de más de 8000 bytes (-XX:-DontCompileHugeMethods);
+    // un emparejador interpretado sería mucho más lento que la tabla
+    private static final int MAX_BYTES_CODIGO = 8000;
+
+    private static final String NOMBRE_CLASE = "modelo/EmparejadorAFDGenerado";
+
+    // Índices del pool de constantes (ver escribirPoolConstantes)
+    private static final int CP_ESTA_CLASE = 2;
+    private static final int CP_OBJECT = 4;
+    private static final int CP_INTERFAZ = 6;
+    private static final int CP_INIT = 7;
+    private static final int CP_VOID = 8;
+    private static final int CP_OBJECT_INIT = 10;
+    private static final int CP_LENGTH = 16;
+    private static final int CP_CHAR_AT = 20;
+    private static final int CP_ACEPTA = 21;
+    private static final int CP_ACEPTA_DESC = 22;
+    private static final int CP_CODE = 23;
+    private static final int CP_TAMANO = 24;
+
+    private GeneradorEmparejadorAFD() {}
+
+    /**
+     * Devuelve un emparejador especializado para el AFD, o la propia tabla compilada si
+     * el AFD es demasiado grande para generar código.
+     */
+    public static EmparejadorAFD generar(AFDCompilado afd) {
+        if (afd.getNumEstados() > MAX_ESTADOS) {
+            return afd;
+        }
+        byte[] codigo = generarCodigoAcepta(afd);
+        if (codigo == null) {
+            return afd;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClass(escribirClase(codigo), true);
+            return (EmparejadorAFD) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo generar el emparejador del AFD: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bytecode de boolean acepta(CharSequence cadena).
+     * Variables locales: 0 = this, 1 = cadena, 2 = i, 3 = longitud.
+     * @return null si el código excede el límite de tamaño.
+     */
+    private static byte[] generarCodigoAcepta(AFDCompilado afd) {
+        int numEstados = afd.getNumEstados() - 1; // sin el estado muerto
+        int muerto = afd.getEstadoMuerto();
+        char[] caracteres = afd.getCaracteres();
+
+        // Estimación previa para no construir código que no se podrá cargar
+        long estimado = 16 + (long) numEstados * 37;
+        for (int q = 0; q < numEstados; q++) {
+            for (char c : caracteres) {
+                if (afd.siguiente(q, c) != muerto) estimado += 8;
+            }
+        }
+        if (estimado > MAX_BYTES_CODIGO) {
+            return null;
+        }
+
+        // Etiquetas: bloque de cada estado, rechazo y un puente de regreso por estado
+        Codigo cod = new Codigo(2 * numEstados + 1);
+        int rechazo = numEstados;
+        int puentes = numEstados + 1;
+
+        // longitud = cadena.length(); i = 0; ir al estado inicial
+        cod.u1(0x2b);                                   // aload_1
+        cod.u1(0xb9).u2(CP_LENGTH).u1(1).u1(0);         // invokeinterface length()I
+        cod.u1(0x3e);                                   // istore_3
+        cod.u1(0x03);                                   // iconst_0
+        cod.u1(0x3d);                                   // istore_2
+        cod.saltoLargo(0xc8, afd.getEstadoInicial());   // goto_w
+
+        int[] claves = new int[caracteres.length];
+        int[] destinos = new int[caracteres.length];
+        for (int q = 0; q < numEstados; q++) {
+            cod.etiqueta(q);
+
+            // if (i >= longitud) return esFinal(q);
+            cod.u1(0x1c);                               // iload_2
+            cod.u1(0x1d);                               // iload_3
+            cod.u1(0xa1).u2(5);                         // if_icmplt +5
+            cod.u1(afd.esFinal(q) ? 0x04 : 0x03);       // iconst_1 / iconst_0
+            cod.u1(0xac);                               // ireturn
+
+            // switch (cadena.charAt(i++))
+            cod.u1(0x2b);                               // aload_1
+            cod.u1(0x1c);                               // iload_2
+            cod.u1(0xb9).u2(CP_CHAR_AT).u1(2).u1(0);    // invokeinterface charAt(I)C
+            cod.u1(0x84).u1(2).u1(1);                   // iinc 2, 1
+
+            int pares = 0;
+            for (char c : caracteres) {                 // ya vienen ordenados
+                int p = afd.siguiente(q, c);
+                if (p == muerto) continue;
+                claves[pares] = c;
+                destinos[pares++] = p;
+            }
+            int base = cod.posicion();
+            cod.u1(0xab);                               // lookupswitch
+            while (cod.posicion() % 4 != 0) cod.u1(0);
+            cod.salto(base, rechazo);
+            cod.u4(pares);
+            for (int j = 0; j < pares; j++) {
+                cod.u4(claves[j]);
+                cod.salto(base, puentes + destinos[j]);
+            }
+        }
+
+        cod.etiqueta(rechazo);
+        cod.u1(0x03);                                   // iconst_0
+        cod.u1(0xac);                                   // ireturn
+
+        // El intérprete solo cuenta como retroceso de un bucle los saltos goto/if hacia
+        // atrás, no los de un lookupswitch; sin estos puentes el método nunca se compilaría
+        // (ni siquiera por OSR). El JIT los elimina al compilar.
+        for (int q = 0; q < numEstados; q++) {
+            cod.etiqueta(puentes + q);
+            cod.saltoLargo(0xc8, q);                    // goto_w
+        }
+
+        byte[] bytes = cod.resolver();
+        return bytes.length > MAX_BYTES_CODIGO ? null : bytes;
+    }
+
+    /**
+     * Archivo .class completo con el constructor por defecto y el método acepta.
+     */
+    private static byte[] escribirClase(byte[] codigoAcepta) {
+        Codigo cf = new Codigo(0);
+        cf.u4(0xCAFEBABE).u2(0).u2(49);
+        escribirPoolConstantes(cf);
+        cf.u2(0x0031);                      // ACC_PUBLIC | ACC_FINAL | ACC_SUPER
+        cf.u2(CP_ESTA_CLASE).u2(CP_OBJECT);
+        cf.u2(1).u2(CP_INTERFAZ);           // implements EmparejadorAFD
+        cf.u2(0);                           // sin campos
+        cf.u2(2);                           // dos métodos
+
+        // public <init>() { super(); }
+        byte[] init = {0x2a, (byte) 0xb7, 0, (byte) CP_OBJECT_INIT, (byte) 0xb1};
+        escribirMetodo(cf, CP_INIT, CP_VOID, 1, 1, init);
+
+        // public boolean acepta(CharSequence)
+        escribirMetodo(cf, CP_ACEPTA, CP_ACEPTA_DESC, 2, 4, codigoAcepta);
+
+        cf.u2(0);                           // sin atributos de clase
+        return cf.resolver();
+    }
+
+    private static void escribirPoolConstantes(Codigo cf) {
+        cf.u2(CP_TAMANO);
+        utf8(cf, NOMBRE_CLASE);                         // 1
+        cf.u1(7).u2(1);                                 // 2 Class
+        utf8(cf, "java/lang/Object");                   // 3
+        cf.u1(7).u2(3);                                 // 4 Class
+        utf8(cf, "modelo/EmparejadorAFD");              // 5
+        cf.u1(7).u2(5);                                 // 6 Class
+        utf8(cf, "<init>");                             // 7
+        utf8(cf, "()V");                                // 8
+        cf.u1(12).u2(7).u2(8);                          // 9 NameAndType
+        cf.u1(10).u2(4).u2(9);                          // 10 Methodref Object.<init>
+        utf8(cf, "java/lang/CharSequence");             // 11
+        cf.u1(7).u2(11);                                // 12 Class
+        utf8(cf, "length");                             // 13
+        utf8(cf, "()I");                                // 14
+        cf.u1(12).u2(13).u2(14);                        // 15 NameAndType
+        cf.u1(11).u2(12).u2(15);                        // 16 InterfaceMethodref length
+        utf8(cf, "charAt");                             // 17
+        utf8(cf, "(I)C");                               // 18
+        cf.u1(12).u2(17).u2(18);                        // 19 NameAndType
+        cf.u1(11).u2(12).u2(19);                        // 20 InterfaceMethodref charAt
+        utf8(cf, "acepta");                             // 21
+        utf8(cf, "(Ljava/lang/CharSequence;)Z");        // 22
+        utf8(cf, "Code");                               // 23
+    }
+
+    private static void utf8(Codigo cf, String texto) {
+        cf.u1(1).u2(texto.length());
+        for (int i = 0; i < texto.length(); i++) cf.u1(texto.charAt(i)); // solo ASCII
+    }
+
+    private static void escribirMetodo(Codigo cf, int nombre, int descriptor, int maxPila, int maxLocales, byte[] codigo) {
+        cf.u2(0x0001).u2(nombre).u2(descriptor);
+        cf.u2(1);                                       // un atributo: Code
+        cf.u2(CP_CODE).u4(12 + codigo.length);
+        cf.u2(maxPila).u2(maxLocales).u4(codigo.length);
+        cf.bytes(codigo);
+        cf.u2(0);                                       // sin tabla de excepciones
+        cf.u2(0);                                       // sin atributos
+    }
+
+    /**
+     * Búfer de bytes big-endian con etiquetas y saltos que se resuelven al final.
+     */
+    private static final class Codigo {
+        private byte[] datos = new byte[256];
+        private int tamano;
+        private final int[] etiquetas;
+
+        // Saltos pendientes: {posición del desplazamiento, dirección base, etiqueta, ancho}
+        private final List<int[]> saltos = new ArrayList<>();
+
+        Codigo(int numEtiquetas) {
+            etiquetas = new int[numEtiquetas];
+            Arrays.fill(etiquetas, -1);
+        }
+
+        int posicion() { return tamano; }
+
+        Codigo u1(int v) {
+            if (tamano == datos.length) datos = Arrays.copyOf(datos, tamano * 2);
+            datos[tamano++] = (byte) v;
+            return this;
+        }
+
+        Codigo u2(int v) { return u1(v >>> 8).u1(v); }
+
+        Codigo u4(int v) { return u2(v >>> 16).u2(v); }
+
+        void bytes(byte[] b) {
+            for (byte x : b) u1(x);
+        }
+
+        void etiqueta(int etiqueta) {
+            etiquetas[etiqueta] = tamano;
+        }
+
+        /** Desplazamiento de 4 bytes hacia una etiqueta, relativo a la instrucción en base. */
+        void salto(int base, int etiqueta) {
+            saltos.add(new int[]{tamano, base, etiqueta});
+            u4(0);
+        }
+
+        /** Instrucción de salto con desplazamiento de 4 bytes (goto_w). */
+        void saltoLargo(int opcode, int etiqueta) {
+            int base = tamano;
+            u1(opcode);
+            salto(base, etiqueta);
+        }
+
+        byte[] resolver() {
+            for (int[] s : saltos) {
+                int desplazamiento = etiquetas[s[2]] - s[1];
+                for (int i = 0; i < 4; i++) {
+                    datos[s[0] + i] = (byte) (desplazamiento >>> (24 - 8 * i));
+                }
+            }
+            return Arrays.copyOf(datos, tamano);
+        }
+    }
+}
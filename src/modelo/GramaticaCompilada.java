@@ -0,0 +1,368 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Forma compilada de una GLC: variables y terminales internados como enteros densos y
+ * las producciones guardadas en arreglos paralelos indexados por id de producción, con
+ * todos los cuerpos seguidos en un único arreglo de símbolos.
+ *
+ * Un símbolo es un entero: las variables ocupan [0, numVariables) y los terminales
+ * [numVariables, numVariables + numTerminales). Como en la verificación original, los
+ * cuerpos se leen carácter a carácter y un carácter que está en Σ es terminal aunque
+ * también esté en V; λ y ε denotan el cuerpo vacío. Los terminales de la entrada se
+ * resuelven con una tabla por carácter.
+ *
+ * Al compilar se calculan también las variables anulables (las que derivan λ), que
+ * necesitan todos los motores de análisis.
+ */
+public final class GramaticaCompilada {
+
+    private final String[] nombresVariables;
+    private final char[] caracteresTerminales;
+    private final int[] terminalDeCaracter;
+
+    final int numVariables;
+    final int numTerminales;
+    final int inicial;
+
+    // Producción p: cabeza[p] -> simbolos[inicioCuerpo[p]] ... simbolos[inicioCuerpo[p + 1] - 1]
+    // (vacío si es λ); inicioCuerpo tiene una entrada más que producciones
+    final int[] cabeza;
+    final int[] simbolos;
+    final int[] inicioCuerpo;
+    private final String[] textoCuerpo;
+
+    // Ids de las producciones de cada variable
+    final int[][] produccionesDe;
+
+    final boolean[] anulable;
+
+    private GramaticaCompilada(String[] nombresVariables, char[] caracteresTerminales, int[] terminalDeCaracter,
+                               int inicial, int[] cabeza, int[] simbolos, int[] inicioCuerpo,
+                               String[] textoCuerpo, int[][] produccionesDe, boolean[] anulable) {
+        this.nombresVariables = nombresVariables;
+        this.caracteresTerminales = caracteresTerminales;
+        this.terminalDeCaracter = terminalDeCaracter;
+        this.numVariables = nombresVariables.length;
+        this.numTerminales = caracteresTerminales.length;
+        this.inicial = inicial;
+        this.cabeza = cabeza;
+        this.simbolos = simbolos;
+        this.inicioCuerpo = inicioCuerpo;
+        this.textoCuerpo = textoCuerpo;
+        this.produccionesDe = produccionesDe;
+        this.anulable = anulable;
+    }
+
+    /**
+     * Compila la definición de una GLC.
+     * @throws IllegalArgumentException si una producción usa un símbolo que no está en V
+     * ni en Σ, si su cabeza no está en V, o si un terminal tiene más de un carácter.
+     */
+    public static GramaticaCompilada compilar(Set<String> variables, Set<String> terminales,
+                                              Map<String, Set<String>> producciones, String simboloInicial) {
+        return compilar(variables, terminales, producciones, simboloInicial, false);
+    }
+
+    /**
+     * Compila la definición como la leen las verificaciones paso a paso, sin rechazarla:
+     * los caracteres de un cuerpo que no están en V ni en Σ se saltean, los terminales de
+     * más de un carácter no se internan (no hay un carácter que los lea), las producciones
+     * de cabezas que no están en V se ignoran y el símbolo inicial se interna aunque no
+     * esté en V. Los textos de los cuerpos quedan como se escribieron.
+     */
+    static GramaticaCompilada compilarTolerante(Set<String> variables, Set<String> terminales,
+                                                Map<String, Set<String>> producciones, String simboloInicial) {
+        return compilar(variables, terminales, producciones, simboloInicial, true);
+    }
+
+    private static GramaticaCompilada compilar(Set<String> variables, Set<String> terminales,
+                                               Map<String, Set<String>> producciones, String simboloInicial,
+                                               boolean tolerante) {
+        // 1. Internar variables
+        Map<String, Integer> idVariable = new HashMap<>();
+        List<String> nombres = new ArrayList<>();
+        for (String v : variables) {
+            idVariable.put(v, nombres.size());
+            nombres.add(v);
+        }
+        if (tolerante && !idVariable.containsKey(simboloInicial)) {
+            idVariable.put(simboloInicial, nombres.size());
+            nombres.add(simboloInicial);
+        }
+        Integer inicial = idVariable.get(simboloInicial);
+        if (inicial == null) {
+            throw new IllegalArgumentException("El símbolo inicial '" + simboloInicial + "' no está en V.");
+        }
+
+        // 2. Internar terminales (de un carácter, como los lee la verificación)
+        char[] caracteres = new char[terminales.size()];
+        int maxCaracter = -1;
+        int t = 0;
+        for (String a : terminales) {
+            if (a.length() != 1) {
+                if (tolerante) continue;
+                throw new IllegalArgumentException("El terminal '" + a + "' debe ser un solo carácter.");
+            }
+            caracteres[t++] = a.charAt(0);
+            maxCaracter = Math.max(maxCaracter, a.charAt(0));
+        }
+        caracteres = Arrays.copyOf(caracteres, t);
+        int[] terminalDeCaracter = new int[maxCaracter + 1];
+        Arrays.fill(terminalDeCaracter, -1);
+        for (int i = 0; i < caracteres.length; i++) {
+            terminalDeCaracter[caracteres[i]] = i;
+        }
+        int numVariables = nombres.size();
+
+        // 3. Producciones en arreglos paralelos, con los cuerpos uno tras otro
+        List<Integer> cabezas = new ArrayList<>();
+        List<String> textos = new ArrayList<>();
+        int[] simbolos = new int[16];
+        int[] inicioCuerpo = new int[16];
+        int total = 0;
+        for (Map.Entry<String, Set<String>> e : producciones.entrySet()) {
+            Integer a = idVariable.get(e.getKey());
+            if (a == null && tolerante) continue;
+            if (a == null) {
+                throw new IllegalArgumentException("La variable '" + e.getKey() + "' de las producciones no está en V.");
+            }
+            for (String texto : e.getValue()) {
+                if (total + texto.length() > simbolos.length) {
+                    simbolos = Arrays.copyOf(simbolos, Math.max(simbolos.length * 2, total + texto.length()));
+                }
+                if (cabezas.size() + 2 > inicioCuerpo.length) {
+                    inicioCuerpo = Arrays.copyOf(inicioCuerpo, inicioCuerpo.length * 2);
+                }
+                inicioCuerpo[cabezas.size()] = total;
+                for (int i = 0; i < texto.length(); i++) {
+                    char c = texto.charAt(i);
+                    String simbolo = String.valueOf(c);
+                    if (terminales.contains(simbolo)) {
+                        simbolos[total++] = numVariables + terminalDeCaracter[c];
+                    } else if (variables.contains(simbolo)) {
+                        simbolos[total++] = idVariable.get(simbolo);
+                    } else if (!tolerante && !simbolo.equals("λ") && !simbolo.equals("ε")) {
+                        throw new IllegalArgumentException("El símbolo '" + simbolo + "' de " + e.getKey() + " -> "
+                                + texto + " no está en V ni en Σ.");
+                    }
+                }
+                cabezas.add(a);
+                textos.add(texto);
+            }
+        }
+        int n = cabezas.size();
+        int[] cabeza = cabezas.stream().mapToInt(Integer::intValue).toArray();
+        inicioCuerpo[n] = total;
+        inicioCuerpo = Arrays.copyOf(inicioCuerpo, n + 1);
+        simbolos = Arrays.copyOf(simbolos, total);
+
+        return new GramaticaCompilada(nombres.toArray(new String[0]), caracteres, terminalDeCaracter, inicial,
+                cabeza, simbolos, inicioCuerpo, textos.toArray(new String[0]), agrupar(numVariables, cabeza),
+                anulables(numVariables, cabeza, simbolos, inicioCuerpo));
+    }
+
+    /**
+     * Otra gramática con el mismo Σ que esta (los mismos ids de terminal) y las
+     * producciones dadas, ya codificadas: variables en [0, nombresVariables.length) y el
+     * terminal t como nombresVariables.length + t. La usan las transformaciones que
+     * construyen una gramática nueva a partir de esta.
+     */
+    GramaticaCompilada conProducciones(String[] nombresVariables, int inicial, int[] cabeza, int[][] cuerpos) {
+        int numVariablesNueva = nombresVariables.length;
+        int n = cabeza.length;
+        int[] inicioCuerpoNuevo = new int[n + 1];
+        for (int p = 0; p < n; p++) {
+            inicioCuerpoNuevo[p + 1] = inicioCuerpoNuevo[p] + cuerpos[p].length;
+        }
+        int[] simbolosNuevos = new int[inicioCuerpoNuevo[n]];
+        String[] textos = new String[n];
+        for (int p = 0; p < n; p++) {
+            System.arraycopy(cuerpos[p], 0, simbolosNuevos, inicioCuerpoNuevo[p], cuerpos[p].length);
+            StringBuilder texto = new StringBuilder();
+            for (int s : cuerpos[p]) {
+                texto.append(s < numVariablesNueva ? nombresVariables[s] : String.valueOf(caracteresTerminales[s - numVariablesNueva]));
+            }
+            textos[p] = texto.length() == 0 ? "λ" : texto.toString();
+        }
+        return new GramaticaCompilada(nombresVariables, caracteresTerminales, terminalDeCaracter, inicial,
+                cabeza, simbolosNuevos, inicioCuerpoNuevo, textos, agrupar(numVariablesNueva, cabeza),
+                anulables(numVariablesNueva, cabeza, simbolosNuevos, inicioCuerpoNuevo));
+    }
+
+    /** Ids de las producciones de cada variable, en el orden de las producciones. */
+    private static int[][] agrupar(int numVariables, int[] cabeza) {
+        int[] cuantas = new int[numVariables];
+        for (int p = 0; p < cabeza.length; p++) {
+            cuantas[cabeza[p]]++;
+        }
+        int[][] produccionesDe = new int[numVariables][];
+        for (int v = 0; v < numVariables; v++) {
+            produccionesDe[v] = new int[cuantas[v]];
+            cuantas[v] = 0;
+        }
+        for (int p = 0; p < cabeza.length; p++) {
+            produccionesDe[cabeza[p]][cuantas[cabeza[p]]++] = p;
+        }
+        return produccionesDe;
+    }
+
+    /**
+     * Punto fijo: una variable es anulable si tiene una producción cuyo cuerpo solo
+     * tiene variables anulables (o está vacío).
+     */
+    private static boolean[] anulables(int numVariables, int[] cabeza, int[] simbolos, int[] inicioCuerpo) {
+        boolean[] anulable = new boolean[numVariables];
+        boolean cambio = true;
+        while (cambio) {
+            cambio = false;
+            for (int p = 0; p < cabeza.length; p++) {
+                if (anulable[cabeza[p]]) continue;
+                boolean todas = true;
+                for (int i = inicioCuerpo[p]; i < inicioCuerpo[p + 1]; i++) {
+                    int s = simbolos[i];
+                    if (s >= numVariables || !anulable[s]) {
+                        todas = false;
+                        break;
+                    }
+                }
+                if (todas) {
+                    anulable[cabeza[p]] = true;
+                    cambio = true;
+                }
+            }
+        }
+        return anulable;
+    }
+
+    /**
+     * Conjuntos PRIMERO de cada variable como bitsets de long[] sobre los ids de terminal
+     * (sin desplazar), de la cantidad de palabras indicada para que quepan columnas extra
+     * como el fin de cadena. Punto fijo sobre los cuerpos con las variables anulables.
+     */
+    long[][] calcularPrimeros(int palabras) {
+        long[][] primero = new long[numVariables][palabras];
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            for (int p = 0; p < cabeza.length; p++) {
+                long[] destino = primero[cabeza[p]];
+                for (int i = inicioCuerpo[p]; i < inicioCuerpo[p + 1]; i++) {
+                    int s = simbolos[i];
+                    if (s >= numVariables) {
+                        int t = s - numVariables;
+                        if ((destino[t >>> 6] & (1L << t)) == 0) {
+                            destino[t >>> 6] |= 1L << t;
+                            cambio = true;
+                        }
+                        break;
+                    }
+                    long[] origen = primero[s];
+                    for (int q = 0; q < palabras; q++) {
+                        if ((destino[q] | origen[q]) != destino[q]) {
+                            destino[q] |= origen[q];
+                            cambio = true;
+                        }
+                    }
+                    if (!anulable[s]) break;
+                }
+            }
+        }
+        return primero;
+    }
+
+    /** Símbolo terminal que corresponde al carácter c, o -1 si c no está en Σ. */
+    int terminalDeCaracter(char c) {
+        int t = c < terminalDeCaracter.length ? terminalDeCaracter[c] : -1;
+        return t < 0 ? -1 : numVariables + t;
+    }
+
+    int longitudCuerpo(int p) {
+        return inicioCuerpo[p + 1] - inicioCuerpo[p];
+    }
+
+    /** Texto del cuerpo de la producción p tal como se escribió, "aSb" o "λ". */
+    String textoCuerpo(int p) {
+        return textoCuerpo[p];
+    }
+
+    /** Si la producción p se escribió como λ o ε (no basta con que su cuerpo quede vacío). */
+    boolean esReglaLambda(int p) {
+        return textoCuerpo[p].equals("λ") || textoCuerpo[p].equals("ε");
+    }
+
+    boolean esVariable(int simbolo) {
+        return simbolo < numVariables;
+    }
+
+    public int getNumVariables() { return numVariables; }
+    public int getNumTerminales() { return numTerminales; }
+    public int getNumProducciones() { return cabeza.length; }
+    public int getSimboloInicial() { return inicial; }
+
+    public boolean esAnulable(int variable) { return anulable[variable]; }
+
+    /** Nombre de un símbolo: la variable o el carácter del terminal. */
+    public String nombreSimbolo(int simbolo) {
+        return simbolo < numVariables ? nombresVariables[simbolo]
+                : String.valueOf(caracteresTerminales[simbolo - numVariables]);
+    }
+
+    /** La producción p como se escribió: "A -> aSb". */
+    public String produccion(int p) {
+        return nombresVariables[cabeza[p]] + " -> " + textoCuerpo[p];
+    }
+
+    /**
+     * Una derivación izquierda (los ids de las producciones aplicadas, en preorden) en
+     * forma de corchetes, "E[E[a] + E[a]]", con a lo sumo maxCaracteres caracteres.
+     * @throws IllegalArgumentException si la secuencia no es una derivación izquierda completa.
+     */
+    public String describirDerivacion(int[] derivacion, int maxCaracteres) {
+        StringBuilder sb = new StringBuilder();
+        if (derivacion.length == 0) return "";
+        // Pila de trabajo: símbolos por escribir, CIERRE o LAMBDA
+        final int cierre = -1;
+        final int lambda = -2;
+        int[] pila = new int[64];
+        int cima = 0;
+        pila[cima++] = cabeza[derivacion[0]];
+        int siguiente = 0;
+        while (cima > 0 && sb.length() <= maxCaracteres) {
+            int s = pila[--cima];
+            if (s == cierre) {
+                sb.append(']');
+            } else if (s == lambda) {
+                sb.append('λ');
+            } else if (!esVariable(s)) {
+                sb.append(caracteresTerminales[s - numVariables]);
+            } else {
+                if (siguiente == derivacion.length || cabeza[derivacion[siguiente]] != s) {
+                    throw new IllegalArgumentException("La secuencia no es una derivación izquierda de la gramática.");
+                }
+                int p = derivacion[siguiente++];
+                sb.append(nombresVariables[s]).append('[');
+                if (cima + longitudCuerpo(p) + 2 > pila.length) {
+                    pila = Arrays.copyOf(pila, Math.max(pila.length * 2, cima + longitudCuerpo(p) + 2));
+                }
+                pila[cima++] = cierre;
+                if (longitudCuerpo(p) == 0) pila[cima++] = lambda;
+                for (int i = inicioCuerpo[p + 1] - 1; i >= inicioCuerpo[p]; i--) {
+                    pila[cima++] = simbolos[i];
+                }
+            }
+        }
+        if (sb.length() > maxCaracteres) {
+            sb.setLength(maxCaracteres);
+            sb.append("...");
+        } else if (siguiente < derivacion.length) {
+            throw new IllegalArgumentException("La secuencia no es una derivación izquierda de la gramática.");
+        }
+        return sb.toString();
+    }
+}
@@ -1,9 +1,8 @@
 package modelo;
 
+import java.nio.CharBuffer;
 import java.util.Map;
 import java.util.Set;
-import java.util.List;
-import java.util.Stack;
 
 /**
  * Representa una Gramática Libre de Contexto (GLC).
@@ -24,6 +23,28 @@ public class GramaticaLibreContexto {
     // S: Símbolo inicial
     private final String simboloInicial;
 
+    // Profundidad máxima de la búsqueda por backtracking
+    private int maxMarcos = PilaMarcos.MAX_MARCOS_POR_DEFECTO;
+
+    /**
+     * Gramáticas con más producciones no se normalizan antes de reconocer: el panel arma
+     * la GLC en cada análisis y la normalización se pagaría entera cada vez.
+     */
+    public static final int MAX_PRODUCCIONES_NORMALIZAR = 2_000;
+
+    // Forma compilada para los motores de análisis, su FNC y sus tablas LL(1) y LALR(1); se construyen al usarlas
+    private GramaticaCompilada compilada;
+    // Compilación tolerante para la verificación paso a paso (ver GramaticaCompilada.compilarTolerante)
+    private GramaticaCompilada compiladaVerificacion;
+    private FormaNormalChomsky formaNormal;
+    // Normalizaciones sin y con factorización por la izquierda; se calculan una vez
+    private NormalizadorGramatica.ResultadoNormalizacion normalizada;
+    // Gramática sobre la que reconocen Earley y CYK (ver getGramaticaReconocimiento)
+    private GramaticaCompilada gramaticaReconocimiento;
+    private NormalizadorGramatica.ResultadoNormalizacion normalizadaFactorizada;
+    private AnalizadorLL1 analizadorLL1;
+    private AnalizadorLALR analizadorLALR;
+
     /**
      * Constructor de la GLC.
      */
@@ -46,99 +67,299 @@ public class GramaticaLibreContexto {
      * @return true si la cadena es válida, false en caso contrario.
      */
     public boolean verificarCadena(String cadena, StringBuilder logBuffer) {
-        logBuffer.append("--- INICIO DE VERIFICACIÓN (GLC) ---\n");
-        logBuffer.append("Cadena a evaluar: ").append(cadena).append("\n");
-
-        // Usamos una pila para simular el proceso de derivación (Autómata con Pila implícito)
-        Stack<String> pila = new Stack<>();
-        pila.push("#"); // Símbolo de fondo de pila
-        pila.push(simboloInicial);
-
-        String input = cadena + "#"; // Símbolo de fin de entrada
-        int indiceEntrada = 0;
-        int paso = 1;
+        return verificarCadena(cadena, new TrazaTexto(logBuffer));
+    }
 
-        logBuffer.append("Pila Inicial: [#, ").append(simboloInicial).append("], Entrada: ").append(input).append("\n");
-        logBuffer.append("==================================\n");
+    /**
+     * Verifica la cadena notificando cada producción aplicada al oyente.
+     * @param cadena La cadena a verificar.
+     * @param traza Oyente que recibe los eventos ({@link OyenteTraza#NULO} para no registrar nada).
+     * @return true si la cadena es válida, false en caso contrario.
+     */
+    public boolean verificarCadena(String cadena, OyenteTraza traza) {
+        traza.inicio(OyenteTraza.Modelo.GLC, cadena);
+        traza.simboloInicial(simboloInicial);
 
         // Implementación básica de análisis sintáctico descendente (backtracking/fuerza bruta)
-        boolean aceptada = backtrackParse(simboloInicial, cadena, logBuffer, 0, new Stack<>(), 0);
+        boolean aceptada = backtrackParse(cadena, traza);
 
-        logBuffer.append("==================================\n");
-        logBuffer.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
-        logBuffer.append("---------------------------------\n");
+        traza.fin(aceptada);
         return aceptada;
     }
 
     /**
-     * Función recursiva de backtracking para el parsing de GLC.
-     * Demasiado lenta para GLCs ambiguas o grandes, pero sirve para la demostración.
+     * Forma compilada de la gramática (ver {@link GramaticaCompilada}).
+     * @throws IllegalArgumentException si las producciones usan símbolos que no están en V ni en Σ.
+     */
+    public GramaticaCompilada getCompilada() {
+        if (compilada == null) {
+            compilada = GramaticaCompilada.compilar(variables, terminales, producciones, simboloInicial);
+        }
+        return compilada;
+    }
+
+    /**
+     * Decide si la cadena pertenece al lenguaje con el reconocedor de Earley (ver
+     * {@link ReconocedorEarley}): correcto para cualquier GLC, a diferencia de la
+     * verificación paso a paso, y sin traza.
      */
-    private boolean backtrackParse(String variableActual, String subcadena, StringBuilder logBuffer, int nivel, Stack<String> pilaSimulada, int paso) {
-        String padding = "  ".repeat(nivel);
+    public ReconocedorEarley.ResultadoEarley reconocerEarley(String cadena) {
+        return new ReconocedorEarley(getGramaticaReconocimiento()).reconocer(cadena);
+    }
 
-        // Caso base de éxito: Cadena consumida y variable resuelta (o producción a λ)
-        if (subcadena.isEmpty() && (producciones.getOrDefault(variableActual, Set.of()).contains("λ") || producciones.getOrDefault(variableActual, Set.of()).contains("ε"))) {
-            logBuffer.append(padding).append("Paso ").append(paso++).append(": ").append(variableActual).append(" -> λ (Fin de cadena)\n");
-            return true;
+    /**
+     * Gramática que usan los reconocedores sin derivaciones (Earley y CYK): la
+     * normalizada (ver {@link #normalizar(boolean)}) si no tiene más producciones ni más
+     * símbolos que la original, porque sin producciones λ, unitarias ni inútiles cada
+     * cadena cuesta menos; si no, o si la original tiene más de
+     * {@link #MAX_PRODUCCIONES_NORMALIZAR} producciones o la normalización supera su
+     * presupuesto, la original. Reconocen el mismo lenguaje. GLL, LL(1) y LALR(1) siguen
+     * sobre la original porque muestran derivaciones y conflictos en las producciones
+     * del usuario.
+     */
+    public GramaticaCompilada getGramaticaReconocimiento() {
+        if (gramaticaReconocimiento == null) {
+            GramaticaCompilada original = getCompilada();
+            gramaticaReconocimiento = original;
+            if (original.getNumProducciones() <= MAX_PRODUCCIONES_NORMALIZAR) {
+                try {
+                    NormalizadorGramatica.ResultadoNormalizacion r = normalizar(false);
+                    if (r.getProduccionesDespues() <= r.getProduccionesAntes()
+                            && r.getSimbolosDespues() <= r.getSimbolosAntes()) {
+                        gramaticaReconocimiento = r.getGramatica();
+                    }
+                } catch (IllegalStateException e) {
+                    // La eliminación de λ superó el presupuesto: se reconoce con la original
+                }
+            }
+        }
+        return gramaticaReconocimiento;
+    }
+
+    /**
+     * La gramática en forma normal de Chomsky (ver {@link FormaNormalChomsky}), construida
+     * a partir de {@link #getGramaticaReconocimiento()}.
+     */
+    public FormaNormalChomsky getFormaNormalChomsky() {
+        if (formaNormal == null) {
+            formaNormal = FormaNormalChomsky.convertir(getGramaticaReconocimiento());
+        }
+        return formaNormal;
+    }
+
+    /**
+     * La gramática sin símbolos inútiles, producciones λ ni unitarias, y opcionalmente
+     * factorizada por la izquierda (ver {@link NormalizadorGramatica}), con las medidas
+     * de cada paso y la traducción de sus derivaciones a la gramática original.
+     * @throws IllegalStateException si la normalización supera
+     * {@link NormalizadorGramatica#MAX_PRODUCCIONES}.
+     */
+    public NormalizadorGramatica.ResultadoNormalizacion normalizar(boolean factorizar) {
+        if (factorizar) {
+            if (normalizadaFactorizada == null) {
+                normalizadaFactorizada = NormalizadorGramatica.normalizar(getCompilada(), true);
+            }
+            return normalizadaFactorizada;
+        }
+        if (normalizada == null) {
+            normalizada = NormalizadorGramatica.normalizar(getCompilada(), false);
+        }
+        return normalizada;
+    }
+
+    /**
+     * Decide si la cadena pertenece al lenguaje con CYK sobre la forma normal de
+     * Chomsky (ver {@link ReconocedorCYK}): costo predecible, pensado para cadenas de
+     * longitud media.
+     */
+    public ReconocedorCYK.ResultadoCYK reconocerCYK(String cadena) {
+        return new ReconocedorCYK(getGramaticaReconocimiento(), getFormaNormalChomsky()).reconocer(cadena);
+    }
+
+    /**
+     * Tabla LL(1) de la gramática con sus conflictos (ver {@link AnalizadorLL1}).
+     */
+    public AnalizadorLL1 getAnalizadorLL1() {
+        if (analizadorLL1 == null) {
+            analizadorLL1 = AnalizadorLL1.construir(getCompilada());
+        }
+        return analizadorLL1;
+    }
+
+    /**
+     * Analiza la cadena con la tabla LL(1), en tiempo lineal y sin retroceder.
+     * @throws IllegalStateException si la gramática no es LL(1); los conflictos están en
+     * {@link #getAnalizadorLL1()}.
+     */
+    public AnalizadorLL1.ResultadoLL1 analizarLL1(String cadena) {
+        return getAnalizadorLL1().analizar(cadena);
+    }
+
+    /**
+     * Analiza la cadena con GLL (ver {@link AnalizadorGLL}) y devuelve el bosque SPPF
+     * con todas sus derivaciones: sirve para cualquier GLC, incluidas las ambiguas, y
+     * permite contar las derivaciones sin enumerarlas.
+     */
+    public AnalizadorGLL.ResultadoGLL analizarGLL(String cadena) {
+        return new AnalizadorGLL(getCompilada()).analizar(cadena);
+    }
+
+    /**
+     * Autómata y tablas LALR(1) de la gramática con sus conflictos (ver {@link AnalizadorLALR}).
+     */
+    public AnalizadorLALR getAnalizadorLALR() {
+        if (analizadorLALR == null) {
+            analizadorLALR = AnalizadorLALR.construir(getCompilada());
         }
+        return analizadorLALR;
+    }
+
+    /**
+     * Analiza la cadena de abajo hacia arriba con las tablas LALR(1), en tiempo lineal.
+     * @throws IllegalStateException si la gramática no es LALR(1); los conflictos están en
+     * {@link #getAnalizadorLALR()}.
+     */
+    public AnalizadorLALR.ResultadoLALR analizarLALR(String cadena) {
+        return getAnalizadorLALR().analizar(cadena);
+    }
 
-        Set<String> reglas = producciones.getOrDefault(variableActual, Set.of());
+    /**
+     * Backtracking para el parsing de GLC, con una pila explícita de marcos en lugar de
+     * recursión: la profundidad solo la limita el presupuesto de marcos. Recorre la forma
+     * compilada, así que no busca símbolos en conjuntos ni crea cadenas al probar reglas.
+     * La compilación es la tolerante: como antes, los símbolos que no están en V ni en Σ se
+     * saltean en lugar de rechazar la gramática.
+     * Demasiado lento para GLCs ambiguas o grandes, pero sirve para la demostración.
+     */
+    private boolean backtrackParse(String cadena, OyenteTraza traza) {
+        if (compiladaVerificacion == null) {
+            compiladaVerificacion = GramaticaCompilada.compilarTolerante(variables, terminales, producciones, simboloInicial);
+        }
+        GramaticaCompilada g = compiladaVerificacion;
+        PilaMarcos<MarcoGLC> marcos = new PilaMarcos<>(MarcoGLC::new, maxMarcos);
+        if (entrar(g, g.inicial, cadena, 0, 0, 0, traza, marcos)) {
+            return true;
+        }
 
-        for (String regla : reglas) {
+        while (!marcos.esVacia()) {
+            MarcoGLC m = marcos.cima();
+            int[] reglas = g.produccionesDe[m.variable];
+            if (m.siguienteRegla == reglas.length) {
+                marcos.desapilar();
+                continue;
+            }
+            int p = reglas[m.siguienteRegla++];
+            int restantes = cadena.length() - m.desde;
+            int desdeCuerpo = g.inicioCuerpo[p];
+            int finCuerpo = g.inicioCuerpo[p + 1];
 
             // 1. Regla terminal (ej: a)
-            if (regla.length() == 1 && terminales.contains(regla)) {
-                if (subcadena.startsWith(regla)) {
-                    String restante = subcadena.substring(1);
-                    logBuffer.append(padding).append("Paso ").append(paso++).append(": ").append(variableActual).append(" -> ").append(regla)
-                            .append(". Consumido: '").append(regla).append("'. Restante: '").append(restante).append("'\n");
+            if (finCuerpo - desdeCuerpo == 1 && !g.esVariable(g.simbolos[desdeCuerpo]) && g.textoCuerpo(p).length() == 1) {
+                if (restantes > 0 && g.terminalDeCaracter(cadena.charAt(m.desde)) == g.simbolos[desdeCuerpo]) {
+                    traza.derivacion(m.nivel, m.paso++, g.nombreSimbolo(m.variable), g.textoCuerpo(p), resto(cadena, m.desde, traza), 1, OyenteTraza.TipoDerivacion.CONSUMIDO, null);
 
-                    if (restante.isEmpty()) {
+                    if (restantes == 1) {
                         return true; // Éxito si solo queda el terminal y consume toda la cadena.
                     }
                     // Si hay un error aquí, es porque la GLC real requiere más complejidad (AP).
                 }
+                continue;
             }
+
             // 2. Regla a variable o mixta (ej: AB o aB o ab)
-            else {
-                // Iterar sobre la regla para ver cuántos terminales consume
-                int charsConsumed = 0;
-                boolean match = true;
-
-                for (int i = 0; i < regla.length(); i++) {
-                    String simbolo = String.valueOf(regla.charAt(i));
-
-                    if (terminales.contains(simbolo)) {
-                        if (subcadena.length() > charsConsumed && subcadena.charAt(charsConsumed) == regla.charAt(i)) {
-                            charsConsumed++;
-                        } else {
-                            match = false; // El terminal no coincide
-                            break;
-                        }
-                    } else if (variables.contains(simbolo)) {
-                        // Es una variable, necesitamos recursión
-                        String subcadenaRestante = subcadena.substring(charsConsumed);
-                        logBuffer.append(padding).append("Paso ").append(paso++).append(": ").append(variableActual).append(" -> ").append(regla)
-                                .append(". Consumido (T): '").append(subcadena.substring(0, charsConsumed)).append("'. Próxima Variable: ").append(simbolo).append("\n");
-
-                        if (backtrackParse(simbolo, subcadenaRestante, logBuffer, nivel + 1, pilaSimulada, paso)) {
-                            return true; // Éxito a través de la recursión
-                        }
-                        match = false; // Falló la recursión, debe volver y probar otra regla
+            // Iterar sobre la regla para ver cuántos terminales consume
+            int charsConsumed = 0;
+            boolean match = true;
+
+            for (int i = desdeCuerpo; i < finCuerpo; i++) {
+                int simbolo = g.simbolos[i];
+
+                if (!g.esVariable(simbolo)) {
+                    if (restantes > charsConsumed && g.terminalDeCaracter(cadena.charAt(m.desde + charsConsumed)) == simbolo) {
+                        charsConsumed++;
+                    } else {
+                        match = false; // El terminal no coincide
                         break;
                     }
-                }
+                } else {
+                    // Es una variable: se baja un nivel. Si esa rama falla, al volver a
+                    // este marco se prueba la siguiente regla.
+                    traza.derivacion(m.nivel, m.paso++, g.nombreSimbolo(m.variable), g.textoCuerpo(p), resto(cadena, m.desde, traza), charsConsumed, OyenteTraza.TipoDerivacion.CONTINUA, g.nombreSimbolo(simbolo));
 
-                // Si la regla era completamente de terminales y la consumió
-                if (match && charsConsumed == subcadena.length() && charsConsumed > 0) {
-                    logBuffer.append(padding).append("Paso ").append(paso++).append(": ").append(variableActual).append(" -> ").append(regla)
-                            .append(". Cadena consumida completamente.\n");
-                    return true;
+                    if (entrar(g, simbolo, cadena, m.desde + charsConsumed, m.nivel + 1, m.paso, traza, marcos)) {
+                        return true; // Éxito a través de la rama
+                    }
+                    match = false;
+                    break;
                 }
             }
+
+            // Si la regla era completamente de terminales y la consumió
+            if (match && charsConsumed == restantes && charsConsumed > 0) {
+                traza.derivacion(m.nivel, m.paso++, g.nombreSimbolo(m.variable), g.textoCuerpo(p), resto(cadena, m.desde, traza), charsConsumed, OyenteTraza.TipoDerivacion.CADENA_CONSUMIDA, null);
+                return true;
+            }
         }
 
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Llega a una variable con la entrada pendiente desde la posición desde.
+     * @return true si la deriva directamente (λ al terminar la cadena); si no, apila su marco.
+     */
+    private boolean entrar(GramaticaCompilada g, int variable, String cadena, int desde, int nivel, int paso,
+                           OyenteTraza traza, PilaMarcos<MarcoGLC> marcos) {
+        // Caso base de éxito: Cadena consumida y variable resuelta (o producción a λ)
+        if (desde == cadena.length() && tieneReglaLambda(g, variable)) {
+            traza.derivacion(nivel, paso, g.nombreSimbolo(variable), "λ", resto(cadena, desde, traza), 0, OyenteTraza.TipoDerivacion.LAMBDA, null);
+            return true;
+        }
+
+        MarcoGLC m = marcos.apilar();
+        m.variable = variable;
+        m.siguienteRegla = 0;
+        m.desde = desde;
+        m.nivel = nivel;
+        m.paso = paso;
+        return false;
+    }
+
+    private static boolean tieneReglaLambda(GramaticaCompilada g, int variable) {
+        for (int p : g.produccionesDe[variable]) {
+            if (g.esReglaLambda(p)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Entrada pendiente desde la posición dada, sin copiarla; solo se construye si
+     * alguien escucha la traza.
+     */
+    private static CharSequence resto(String cadena, int desde, OyenteTraza traza) {
+        return traza.activo() ? CharBuffer.wrap(cadena, desde, cadena.length()) : "";
+    }
+
+    /**
+     * Cambia el presupuesto de la búsqueda: cuántas variables puede tener a la vez la
+     * derivación actual. Al superarlo, verificarCadena lanza IllegalStateException.
+     */
+    public void setMaxMarcos(int maxMarcos) {
+        if (maxMarcos <= 0) {
+            throw new IllegalArgumentException("El presupuesto de marcos debe ser positivo.");
+        }
+        this.maxMarcos = maxMarcos;
+    }
+
+    /**
+     * Marco de la búsqueda: una variable en expansión, la entrada que le queda y la
+     * siguiente regla por probar. Los marcos se reutilizan entre profundidades.
+     */
+    private static final class MarcoGLC {
+        int variable;
+        int siguienteRegla;
+        int desde;
+        int nivel;
+        int paso;
+    }
+}
@@ -1,5 +1,7 @@
 package modelo;
 
+import java.nio.CharBuffer;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -22,6 +24,15 @@ public class GramaticaRegular {
     // S: Símbolo inicial
     private final String simboloInicial;
 
+    // Profundidad máxima de la búsqueda por backtracking
+    private int maxMarcos = PilaMarcos.MAX_MARCOS_POR_DEFECTO;
+
+    // Forma compilada para los motores de las GLC; se construye al usarla
+    private GramaticaCompilada compilada;
+
+    // Reglas internadas para la verificación; se construyen al usarlas
+    private ReglasGR reglas;
+
     /**
      * Constructor de la Gramática Regular.
      */
@@ -42,73 +53,194 @@ public class GramaticaRegular {
      * @return true si la cadena es válida, false en caso contrario.
      */
     public boolean verificarCadena(String cadena, StringBuilder logBuffer) {
-        logBuffer.append("--- INICIO DE VERIFICACIÓN (GR) ---\n");
-        logBuffer.append("Cadena a evaluar: ").append(cadena).append("\n");
+        return verificarCadena(cadena, new TrazaTexto(logBuffer));
+    }
 
-        logBuffer.append("Implementación completa pendiente: Se requiere transformación a AFD/AFN.\n");
-        logBuffer.append("Por ahora, la verificación es un STUB y aceptará cadenas que solo usen terminales simples.\n");
+    /**
+     * Verifica la cadena notificando cada producción aplicada al oyente.
+     * @param cadena La cadena a verificar.
+     * @param traza Oyente que recibe los eventos ({@link OyenteTraza#NULO} para no registrar nada).
+     * @return true si la cadena es válida, false en caso contrario.
+     */
+    public boolean verificarCadena(String cadena, OyenteTraza traza) {
+        traza.inicio(OyenteTraza.Modelo.GR, cadena);
 
         if (cadena.isEmpty()) {
             return false; // Una GR pura no acepta lambda a menos que haya S -> lambda.
         }
 
-        boolean valida = verificarRecursivo(simboloInicial, cadena, logBuffer, 0);
+        boolean valida = verificarIterativo(cadena, traza);
 
-        logBuffer.append("RESULTADO: ").append(valida ? "ACEPTADA" : "RECHAZADA").append("\n");
-        logBuffer.append("---------------------------------\n");
+        traza.fin(valida);
         return valida;
     }
 
     /**
-     * Lógica recursiva simple para la simulación de la derivación.
-     * Esto es una simulación MUY básica y no cubre todos los casos de una GR/AFN.
+     * Forma compilada de la gramática (ver {@link GramaticaCompilada}), la misma que usan
+     * los motores de las GLC.
+     * @throws IllegalArgumentException si las producciones usan símbolos que no están en V
+     * ni en Σ, o si un terminal tiene más de un carácter.
      */
-    private boolean verificarRecursivo(String variableActual, String subcadena, StringBuilder logBuffer, int nivel) {
-        String padding = "  ".repeat(nivel);
+    public GramaticaCompilada getCompilada() {
+        if (compilada == null) {
+            compilada = GramaticaCompilada.compilar(variables, terminales, producciones, simboloInicial);
+        }
+        return compilada;
+    }
 
-        if (subcadena.isEmpty()) {
-            // Si la subcadena está vacía, solo es aceptable si la variable actual tiene una producción a λ (epsilon).
-            if (producciones.getOrDefault(variableActual, Set.of()).contains("λ") || producciones.getOrDefault(variableActual, Set.of()).contains("ε")) {
-                logBuffer.append(padding).append("-> ").append(variableActual).append(" -> λ (Éxito parcial)\n");
-                return true;
-            }
-            return false;
+    /**
+     * Reglas de la verificación, internadas una sola vez (ver {@link ReglasGR}).
+     */
+    private ReglasGR getReglas() {
+        if (reglas == null) {
+            reglas = new ReglasGR(GramaticaCompilada.compilarTolerante(variables, terminales, producciones, simboloInicial),
+                    variables, terminales);
         }
+        return reglas;
+    }
 
-        Set<String> reglas = producciones.getOrDefault(variableActual, Set.of());
+    /**
+     * Lógica simple para la simulación de la derivación, con una pila explícita de marcos
+     * en lugar de recursión: la profundidad solo la limita el presupuesto de marcos.
+     * Esto es una simulación MUY básica y no cubre todos los casos de una GR/AFN.
+     */
+    private boolean verificarIterativo(String cadena, OyenteTraza traza) {
+        ReglasGR r = getReglas();
+        GramaticaCompilada g = r.gramatica;
+        PilaMarcos<MarcoGR> marcos = new PilaMarcos<>(MarcoGR::new, maxMarcos);
+        if (entrar(g, g.inicial, cadena, 0, 0, traza, marcos)) {
+            return true;
+        }
 
-        for (String regla : reglas) {
-            // Regla es terminal
-            if (terminales.contains(regla)) {
-                if (regla.equals(subcadena)) {
-                    logBuffer.append(padding).append("-> ").append(variableActual).append(" -> ").append(regla).append(" (Cadena consumida)\n");
+        while (!marcos.esVacia()) {
+            MarcoGR m = marcos.cima();
+            int[] reglasVariable = g.produccionesDe[m.variable];
+            if (m.siguienteRegla == reglasVariable.length) {
+                marcos.desapilar();
+                continue;
+            }
+            int p = reglasVariable[m.siguienteRegla++];
+            int restantes = cadena.length() - m.desde;
+            String terminal = r.terminal[p];
+
+            // Regla es terminal (ej: a, o ab si Σ lo declara entero)
+            if (terminal != null) {
+                if (terminal.length() == restantes && cadena.startsWith(terminal, m.desde)) {
+                    traza.derivacion(m.nivel, -1, g.nombreSimbolo(m.variable), g.textoCuerpo(p), resto(cadena, m.desde, traza), restantes, OyenteTraza.TipoDerivacion.CADENA_CONSUMIDA, null);
                     return true;
                 }
             }
             // Regla es terminal + variable (ej: aB)
-            else if (regla.length() == 2 && terminales.contains(String.valueOf(regla.charAt(0))) && variables.contains(String.valueOf(regla.charAt(1)))) {
-                String terminal = String.valueOf(regla.charAt(0));
-                String siguienteVariable = String.valueOf(regla.charAt(1));
+            else if (r.siguiente[p] >= 0) {
+                int siguienteVariable = r.siguiente[p];
 
-                if (subcadena.startsWith(terminal)) {
-                    String restante = subcadena.substring(1);
-                    logBuffer.append(padding).append("-> ").append(variableActual).append(" -> ").append(terminal).append(siguienteVariable)
-                            .append(". Restante: ").append(restante).append("\n");
+                if (cadena.charAt(m.desde) == g.textoCuerpo(p).charAt(0)) {
+                    traza.derivacion(m.nivel, -1, g.nombreSimbolo(m.variable), g.textoCuerpo(p), resto(cadena, m.desde, traza), 1, OyenteTraza.TipoDerivacion.CONTINUA, g.nombreSimbolo(siguienteVariable));
 
-                    if (verificarRecursivo(siguienteVariable, restante, logBuffer, nivel + 1)) {
+                    // Si esa rama falla, al volver a este marco se prueba la siguiente regla
+                    if (entrar(g, siguienteVariable, cadena, m.desde + 1, m.nivel + 1, traza, marcos)) {
                         return true;
                     }
                 }
             }
-            // Regla es solo terminal (ej: a)
-            else if (regla.length() == 1 && terminales.contains(regla)) {
-                if (regla.equals(subcadena)) {
-                    logBuffer.append(padding).append("-> ").append(variableActual).append(" -> ").append(regla).append(" (Cadena consumida)\n");
+        }
+
+        return false;
+    }
+
+    /**
+     * Llega a una variable con la entrada pendiente desde la posición desde.
+     * @return true si la deriva directamente (λ al terminar la cadena); si la cadena no
+     * terminó, apila su marco.
+     */
+    private boolean entrar(GramaticaCompilada g, int variable, String cadena, int desde, int nivel, OyenteTraza traza,
+                           PilaMarcos<MarcoGR> marcos) {
+        if (desde == cadena.length()) {
+            // Si la subcadena está vacía, solo es aceptable si la variable actual tiene una producción a λ (epsilon).
+            for (int p : g.produccionesDe[variable]) {
+                if (g.esReglaLambda(p)) {
+                    traza.derivacion(nivel, -1, g.nombreSimbolo(variable), "λ", resto(cadena, desde, traza), 0, OyenteTraza.TipoDerivacion.LAMBDA, null);
                     return true;
                 }
             }
+            return false;
         }
 
+        MarcoGR m = marcos.apilar();
+        m.variable = variable;
+        m.siguienteRegla = 0;
+        m.desde = desde;
+        m.nivel = nivel;
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Entrada pendiente desde la posición dada, sin copiarla; solo se construye si
+     * alguien escucha la traza.
+     */
+    private static CharSequence resto(String cadena, int desde, OyenteTraza traza) {
+        return traza.activo() ? CharBuffer.wrap(cadena, desde, cadena.length()) : "";
+    }
+
+    /**
+     * Cambia el presupuesto de la búsqueda: cuántas variables puede tener a la vez la
+     * derivación actual. Al superarlo, verificarCadena lanza IllegalStateException.
+     */
+    public void setMaxMarcos(int maxMarcos) {
+        if (maxMarcos <= 0) {
+            throw new IllegalArgumentException("El presupuesto de marcos debe ser positivo.");
+        }
+        this.maxMarcos = maxMarcos;
+    }
+
+    /**
+     * Las producciones clasificadas una vez según las lee la verificación: las que son un
+     * terminal de Σ completo (de cualquier longitud, se comparan con startsWith) y las de
+     * la forma aB, con a en Σ y B en V. Las demás no son de una GR y se ignoran. La
+     * gramática es la compilación tolerante, así que los símbolos no declarados no la
+     * rechazan.
+     */
+    private static final class ReglasGR {
+        final GramaticaCompilada gramatica;
+        // Por producción: el terminal que forma la regla entera, o null
+        final String[] terminal;
+        // Por producción: la variable B de una regla aB, o -1
+        final int[] siguiente;
+
+        ReglasGR(GramaticaCompilada gramatica, Set<String> variables, Set<String> terminales) {
+            this.gramatica = gramatica;
+            Map<String, String> internados = new HashMap<>();
+            for (String a : terminales) {
+                internados.put(a, a);
+            }
+            Map<String, Integer> idVariable = new HashMap<>();
+            for (int v = 0; v < gramatica.numVariables; v++) {
+                idVariable.put(gramatica.nombreSimbolo(v), v);
+            }
+            int n = gramatica.getNumProducciones();
+            terminal = new String[n];
+            siguiente = new int[n];
+            for (int p = 0; p < n; p++) {
+                String texto = gramatica.textoCuerpo(p);
+                terminal[p] = internados.get(texto);
+                siguiente[p] = -1;
+                if (terminal[p] == null && texto.length() == 2
+                        && terminales.contains(String.valueOf(texto.charAt(0)))
+                        && variables.contains(String.valueOf(texto.charAt(1)))) {
+                    siguiente[p] = idVariable.get(String.valueOf(texto.charAt(1)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Marco de la búsqueda: una variable en expansión, la entrada que le queda y la
+     * siguiente regla por probar. Los marcos se reutilizan entre profundidades.
+     */
+    private static final class MarcoGR {
+        int variable;
+        int siguienteRegla;
+        int desde;
+        int nivel;
+    }
+}
@@ -0,0 +1,86 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Índice de pares de claves long: asigna a cada par distinto un entero denso 0, 1, 2...
+ * en orden de llegada, con direccionamiento abierto y sin objetos por elemento. Lo usa
+ * el analizador GLL para identificar nodos, aristas y descriptores por sus etiquetas.
+ */
+final class IndicePares {
+
+    private static final int VACIA = -1;
+
+    // Los dos miembros de cada par contiguos (casilla i en 2i y 2i+1), para que una
+    // comparación toque una sola línea de caché
+    private long[] claves;
+    // Índice denso guardado en cada casilla, o VACIA
+    private int[] indices;
+    private int tamano;
+
+    IndicePares() {
+        claves = new long[128];
+        indices = new int[64];
+        Arrays.fill(indices, VACIA);
+    }
+
+    /**
+     * Índice del par, agregándolo si no estaba: un par nuevo recibe el índice
+     * {@link #tamano()} anterior a la llamada.
+     */
+    int agregar(long a, long b) {
+        if (2 * (tamano + 1) > indices.length) crecer();
+        int mascara = indices.length - 1;
+        for (int i = casilla(a, b, mascara); ; i = (i + 1) & mascara) {
+            if (indices[i] == VACIA) {
+                if (tamano == Integer.MAX_VALUE) {
+                    throw new IllegalStateException("El índice de pares superó el máximo de elementos.");
+                }
+                claves[2 * i] = a;
+                claves[2 * i + 1] = b;
+                indices[i] = tamano;
+                return tamano++;
+            }
+            if (claves[2 * i] == a && claves[2 * i + 1] == b) return indices[i];
+        }
+    }
+
+    /** Índice del par, o -1 si no está. */
+    int buscar(long a, long b) {
+        int mascara = indices.length - 1;
+        for (int i = casilla(a, b, mascara); ; i = (i + 1) & mascara) {
+            if (indices[i] == VACIA) return -1;
+            if (claves[2 * i] == a && claves[2 * i + 1] == b) return indices[i];
+        }
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    private static int casilla(long a, long b, int mascara) {
+        long h = (a * 0x9E3779B97F4A7C15L) ^ (b * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 29;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void crecer() {
+        long[] viejasClaves = claves;
+        int[] viejosIndices = indices;
+        int capacidad = indices.length * 2;
+        claves = new long[2 * capacidad];
+        indices = new int[capacidad];
+        Arrays.fill(indices, VACIA);
+        int mascara = capacidad - 1;
+        for (int k = 0; k < viejosIndices.length; k++) {
+            if (viejosIndices[k] == VACIA) continue;
+            long a = viejasClaves[2 * k];
+            long b = viejasClaves[2 * k + 1];
+            int i = casilla(a, b, mascara);
+            while (indices[i] != VACIA) i = (i + 1) & mascara;
+            claves[2 * i] = a;
+            claves[2 * i + 1] = b;
+            indices[i] = viejosIndices[k];
+        }
+    }
+}
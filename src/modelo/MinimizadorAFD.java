@@ -0,0 +1,300 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimización de AFD: poda de estados inalcanzables seguida del refinamiento de
+ * particiones de Hopcroft, en O(n·k·log n) para n estados y k símbolos.
+ *
+ * Trabaja sobre la tabla compilada, que es completa gracias al estado muerto; los
+ * estados equivalentes al estado muerto (los que no pueden llegar a un estado final)
+ * desaparecen del resultado junto con sus transiciones.
+ */
+public final class MinimizadorAFD {
+
+    private MinimizadorAFD() {}
+
+    public static ResultadoMinimizacion minimizar(AFD afd) {
+        AFDCompilado c = afd.getCompilado();
+        int k = c.getNumColumnas();
+        int[] tabla = c.tabla();
+
+        // 1. Estados alcanzables desde q0 (BFS), renumerados 0..m-1 en orden de visita
+        int[] idLocal = new int[c.getNumEstados()];
+        Arrays.fill(idLocal, -1);
+        int[] alcanzables = new int[c.getNumEstados()];
+        int m = 0;
+        alcanzables[m] = c.getEstadoInicial();
+        idLocal[c.getEstadoInicial()] = m++;
+        for (int i = 0; i < m; i++) {
+            int q = alcanzables[i];
+            for (int a = 0; a < k; a++) {
+                int p = tabla[q * k + a];
+                if (idLocal[p] < 0) {
+                    idLocal[p] = m;
+                    alcanzables[m++] = p;
+                }
+            }
+        }
+
+        int[] delta = new int[m * k];
+        for (int i = 0; i < m; i++) {
+            for (int a = 0; a < k; a++) {
+                delta[i * k + a] = idLocal[tabla[alcanzables[i] * k + a]];
+            }
+        }
+
+        // 2. Refinamiento de Hopcroft
+        boolean[] finales = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            finales[i] = c.esFinal(alcanzables[i]);
+        }
+        int[] bloqueDe = particionar(delta, m, k, finales);
+
+        // 3. Construir el AFD cociente
+        int muertoLocal = idLocal[c.getEstadoMuerto()];
+        int bloqueMuerto = muertoLocal < 0 ? -1 : bloqueDe[muertoLocal];
+
+        // Representante de cada bloque: el primer estado real visitado
+        Map<Integer, String> nombreBloque = new LinkedHashMap<>();
+        Map<String, String> mapeo = new LinkedHashMap<>();
+        for (int i = 0; i < m; i++) {
+            String nombre = c.nombreEstado(alcanzables[i]);
+            if (nombre == null || bloqueDe[i] == bloqueMuerto) continue;
+            nombreBloque.putIfAbsent(bloqueDe[i], nombre);
+            mapeo.put(nombre, nombreBloque.get(bloqueDe[i]));
+        }
+
+        String inicial = c.nombreEstado(c.getEstadoInicial());
+        Set<String> estados = new LinkedHashSet<>();
+        Set<String> estadosFinales = new HashSet<>();
+        Map<String, Map<String, String>> transiciones = new HashMap<>();
+
+        if (bloqueDe[0] == bloqueMuerto) {
+            // El lenguaje es vacío: basta el estado inicial sin transiciones
+            estados.add(inicial);
+            mapeo.put(inicial, inicial);
+        }
+
+        char[] caracteres = c.getCaracteres();
+        int[] representante = new int[m];
+        Arrays.fill(representante, -1);
+        for (int i = 0; i < m; i++) {
+            if (representante[bloqueDe[i]] < 0) representante[bloqueDe[i]] = i;
+        }
+
+        for (Map.Entry<Integer, String> e : nombreBloque.entrySet()) {
+            int bloque = e.getKey();
+            String nombre = e.getValue();
+            estados.add(nombre);
+            int r = representante[bloque];
+            if (finales[r]) estadosFinales.add(nombre);
+
+            for (char ch : caracteres) {
+                int destino = bloqueDe[delta[r * k + c.columna(ch)]];
+                if (destino == bloqueMuerto) continue;
+                transiciones.computeIfAbsent(nombre, x -> new HashMap<>())
+                        .put(String.valueOf(ch), nombreBloque.get(destino));
+            }
+        }
+
+        AFD minimo = new AFD(estados, afd.getAlfabeto(), transiciones, inicial, estadosFinales);
+        return new ResultadoMinimizacion(afd, minimo, mapeo, m - (muertoLocal < 0 ? 0 : 1));
+    }
+
+    /**
+     * Refinamiento de particiones de Hopcroft sobre un AFD completo.
+     * @param delta Tabla local m×k.
+     * @return El bloque (clase de equivalencia) de cada estado.
+     */
+    private static int[] particionar(int[] delta, int m, int k, boolean[] finales) {
+        // Predecesores por columna en formato CSR: pred[inicioPred[a*m+s] .. inicioPred[a*m+s+1])
+        int[] inicioPred = new int[m * k + 1];
+        for (int q = 0; q < m; q++) {
+            for (int a = 0; a < k; a++) {
+                inicioPred[a * m + delta[q * k + a] + 1]++;
+            }
+        }
+        for (int i = 0; i < m * k; i++) {
+            inicioPred[i + 1] += inicioPred[i];
+        }
+        int[] pred = new int[m * k];
+        int[] llenado = inicioPred.clone();
+        for (int q = 0; q < m; q++) {
+            for (int a = 0; a < k; a++) {
+                pred[llenado[a * m + delta[q * k + a]]++] = q;
+            }
+        }
+
+        // Partición: cada bloque ocupa elementos[inicio[b] .. fin[b]); los marcados van al frente
+        int[] elementos = new int[m];
+        int[] posicion = new int[m];
+        int[] bloqueDe = new int[m];
+        int[] inicio = new int[m];
+        int[] fin = new int[m];
+        int[] marcados = new int[m];
+
+        int numFinales = 0;
+        for (int q = 0; q < m; q++) {
+            if (finales[q]) numFinales++;
+        }
+        int siguienteFinal = 0;
+        int siguienteNoFinal = numFinales;
+        for (int q = 0; q < m; q++) {
+            int p = finales[q] ? siguienteFinal++ : siguienteNoFinal++;
+            elementos[p] = q;
+            posicion[q] = p;
+        }
+
+        int numBloques = 0;
+        if (numFinales > 0) {
+            inicio[numBloques] = 0;
+            fin[numBloques] = numFinales;
+            numBloques++;
+        }
+        if (numFinales < m) {
+            inicio[numBloques] = numFinales;
+            fin[numBloques] = m;
+            numBloques++;
+        }
+        for (int b = 0; b < numBloques; b++) {
+            for (int i = inicio[b]; i < fin[b]; i++) bloqueDe[elementos[i]] = b;
+        }
+
+        // Lista de espera de divisores (bloque, símbolo)
+        boolean[] enEspera = new boolean[m * k];
+        int[] espera = new int[m * k];
+        int tope = 0;
+        if (numBloques == 2) {
+            int menor = (fin[0] - inicio[0]) <= (fin[1] - inicio[1]) ? 0 : 1;
+            for (int a = 0; a < k; a++) {
+                espera[tope++] = menor * k + a;
+                enEspera[menor * k + a] = true;
+            }
+        }
+
+        int[] copia = new int[m];
+        int[] tocados = new int[m];
+        while (tope > 0) {
+            int divisor = espera[--tope];
+            enEspera[divisor] = false;
+            int b = divisor / k;
+            int a = divisor % k;
+
+            // Copiar B: marcar puede reordenar sus elementos
+            int tam = fin[b] - inicio[b];
+            System.arraycopy(elementos, inicio[b], copia, 0, tam);
+
+            int numTocados = 0;
+            for (int i = 0; i < tam; i++) {
+                int s = copia[i];
+                for (int j = inicioPred[a * m + s]; j < inicioPred[a * m + s + 1]; j++) {
+                    int p = pred[j];
+                    int cb = bloqueDe[p];
+                    int frontera = inicio[cb] + marcados[cb];
+                    if (posicion[p] < frontera) continue; // ya marcado
+                    if (marcados[cb] == 0) tocados[numTocados++] = cb;
+                    // Intercambiar p con el primer elemento no marcado del bloque
+                    int otro = elementos[frontera];
+                    elementos[frontera] = p;
+                    elementos[posicion[p]] = otro;
+                    posicion[otro] = posicion[p];
+                    posicion[p] = frontera;
+                    marcados[cb]++;
+                }
+            }
+
+            for (int i = 0; i < numTocados; i++) {
+                int cb = tocados[i];
+                int marcas = marcados[cb];
+                marcados[cb] = 0;
+                if (marcas == fin[cb] - inicio[cb]) continue;
+
+                // Los marcados forman el bloque nuevo
+                int nuevo = numBloques++;
+                inicio[nuevo] = inicio[cb];
+                fin[nuevo] = inicio[cb] + marcas;
+                inicio[cb] = fin[nuevo];
+                for (int j = inicio[nuevo]; j < fin[nuevo]; j++) bloqueDe[elementos[j]] = nuevo;
+
+                int menor = marcas <= fin[cb] - inicio[cb] ? nuevo : cb;
+                for (int x = 0; x < k; x++) {
+                    int agregar = enEspera[cb * k + x] ? nuevo : menor;
+                    if (!enEspera[agregar * k + x]) {
+                        enEspera[agregar * k + x] = true;
+                        espera[tope++] = agregar * k + x;
+                    }
+                }
+            }
+        }
+        return bloqueDe;
+    }
+
+    /**
+     * AFD mínimo equivalente junto con el mapeo de estados y los tamaños antes/después.
+     */
+    public static final class ResultadoMinimizacion {
+        private final AFD original;
+        private final AFD minimo;
+        private final Map<String, String> mapeoEstados;
+        private final int estadosAlcanzables;
+
+        ResultadoMinimizacion(AFD original, AFD minimo, Map<String, String> mapeoEstados, int estadosAlcanzables) {
+            this.original = original;
+            this.minimo = minimo;
+            this.mapeoEstados = mapeoEstados;
+            this.estadosAlcanzables = estadosAlcanzables;
+        }
+
+        public AFD getMinimo() { return minimo; }
+
+        /**
+         * Estado original -> estado del AFD mínimo que lo representa. Los estados
+         * inalcanzables y los que no pueden llegar a un estado final no aparecen.
+         */
+        public Map<String, String> getMapeoEstados() { return mapeoEstados; }
+
+        public int getEstadosAntes() { return original.getEstados().size(); }
+        public int getEstadosAlcanzables() { return estadosAlcanzables; }
+        public int getEstadosDespues() { return minimo.getEstados().size(); }
+        public int getTransicionesAntes() { return original.getNumTransiciones(); }
+        public int getTransicionesDespues() { return minimo.getNumTransiciones(); }
+
+        /**
+         * Texto para la vista: tamaños antes/después, mapeo y el AFD mínimo en el
+         * mismo formato que acepta el panel.
+         */
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- MINIMIZACIÓN DEL AFD (Hopcroft) ---\n");
+            sb.append("Estados: ").append(getEstadosAntes()).append(" -> ").append(getEstadosDespues())
+                    .append(" (alcanzables: ").append(estadosAlcanzables).append(")\n");
+            sb.append("Transiciones: ").append(getTransicionesAntes()).append(" -> ").append(getTransicionesDespues()).append("\n");
+
+            sb.append("\nMapeo de estados (original -> mínimo):\n");
+            for (Map.Entry<String, String> e : mapeoEstados.entrySet()) {
+                sb.append("  ").append(e.getKey()).append(" -> ").append(e.getValue()).append("\n");
+            }
+
+            sb.append("\nAFD mínimo:\n");
+            sb.append("Q: ").append(String.join(", ", minimo.getEstados())).append("\n");
+            sb.append("q0: ").append(minimo.getEstadoInicial()).append("\n");
+            sb.append("F: ").append(String.join(", ", minimo.getEstadosFinales())).append("\n");
+            sb.append("δ:\n");
+            for (String q : minimo.getEstados()) {
+                Map<String, String> desde = minimo.getTransiciones().getOrDefault(q, Map.of());
+                desde.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .forEach(t -> sb.append(q).append(",").append(t.getKey()).append("=").append(t.getValue()).append("\n"));
+            }
+            sb.append("--------------------------\n");
+            return sb.toString();
+        }
+    }
+}
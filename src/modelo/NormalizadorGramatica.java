@@ -0,0 +1,657 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Normalización de una gramática: pasos que conservan el lenguaje y achican la
+ * gramática una sola vez, para que todos los análisis posteriores trabajen menos.
+ * <ol>
+ *   <li>Símbolos no generadores: se quitan las variables que no derivan ninguna cadena
+ *       de terminales y las producciones que las usan.</li>
+ *   <li>Símbolos inalcanzables: se quitan las variables a las que no se llega desde el
+ *       símbolo inicial.</li>
+ *   <li>Producciones λ: se agregan las variantes que omiten variables anulables y se
+ *       quitan las producciones vacías. Si el inicial es anulable conserva S -> λ; si
+ *       además aparece en algún cuerpo, antes se agrega un inicial nuevo S0 -> S.</li>
+ *   <li>Producciones unitarias: A -> B se reemplaza por las producciones no unitarias
+ *       de cada variable que A alcanza por unitarias.</li>
+ *   <li>Limpieza: los dos primeros pasos otra vez, porque los anteriores dejan variables
+ *       sin producciones o a las que solo se llegaba por unitarias.</li>
+ *   <li>Factorización por la izquierda (opcional): A -> αβ1 | αβ2 pasa a A -> αA',
+ *       A' -> β1 | β2, hasta que ninguna variable tenga dos producciones que empiecen
+ *       con el mismo símbolo. Puede volver a crear producciones λ en las variables
+ *       nuevas.</li>
+ * </ol>
+ * Cada producción resultante guarda una plantilla con la derivación de la gramática
+ * original que representa, así que cualquier derivación de la gramática normalizada se
+ * traduce a una de la original ({@link ResultadoNormalizacion#traducirDerivacion(int[])}).
+ * Los terminales conservan sus ids.
+ */
+public final class NormalizadorGramatica {
+
+    /**
+     * Producciones que puede tener la gramática en cualquier paso: la eliminación de λ
+     * crece exponencialmente con las variables anulables de un cuerpo.
+     */
+    public static final int MAX_PRODUCCIONES = 100_000;
+
+    private NormalizadorGramatica() {}
+
+    /**
+     * Normaliza la gramática con los pasos de la clase.
+     * @param factorizar si también se factoriza por la izquierda.
+     * @throws IllegalStateException si algún paso supera {@link #MAX_PRODUCCIONES}.
+     */
+    public static ResultadoNormalizacion normalizar(GramaticaCompilada g, boolean factorizar) {
+        long inicio = System.nanoTime();
+        Trabajo t = new Trabajo(g);
+        t.medir("Gramática original", inicio);
+
+        long paso = System.nanoTime();
+        t.quitarNoGeneradores();
+        t.medir("Sin símbolos no generadores", paso);
+
+        paso = System.nanoTime();
+        t.quitarInalcanzables();
+        t.medir("Sin símbolos inalcanzables", paso);
+
+        paso = System.nanoTime();
+        t.eliminarLambda();
+        t.medir("Sin producciones λ", paso);
+
+        paso = System.nanoTime();
+        t.eliminarUnitarias();
+        t.medir("Sin producciones unitarias", paso);
+
+        paso = System.nanoTime();
+        t.quitarNoGeneradores();
+        t.quitarInalcanzables();
+        t.medir("Sin símbolos inútiles (otra vez)", paso);
+
+        if (factorizar) {
+            paso = System.nanoTime();
+            t.factorizar();
+            t.medir("Factorizada por la izquierda", paso);
+        }
+        return t.resultado(factorizar, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Producción de trabajo. Los símbolos del cuerpo son variables de trabajo (>= 0) o
+     * el terminal t como -(t + 1). La plantilla es la derivación original que representa,
+     * en preorden: ids de producciones originales (>= 0) y, como -(k + 1), el lugar donde
+     * va el subárbol de la k-ésima variable del cuerpo. Es null en el A -> αA' de la
+     * factorización, cuyo origen lo decide la producción que se elija para A'.
+     */
+    private static final class Regla {
+        final int cabeza;
+        final int[] cuerpo;
+        final int[] plantilla;
+
+        Regla(int cabeza, int[] cuerpo, int[] plantilla) {
+            this.cabeza = cabeza;
+            this.cuerpo = cuerpo;
+            this.plantilla = plantilla;
+        }
+
+        boolean esUnitaria() {
+            return cuerpo.length == 1 && cuerpo[0] >= 0;
+        }
+    }
+
+    /**
+     * Estado de la normalización: las producciones de trabajo (sin repetidas, en orden
+     * de aparición) y las medidas de cada paso.
+     */
+    private static final class Trabajo {
+        private final GramaticaCompilada original;
+        private final List<String> nombres = new ArrayList<>();
+        private final Set<String> nombresUsados = new HashSet<>();
+        private int inicial;
+        private Map<List<Integer>, Regla> reglas = new LinkedHashMap<>();
+
+        private final List<String> nombresPasos = new ArrayList<>();
+        private final List<int[]> medidas = new ArrayList<>();
+        private final List<Long> nanosPasos = new ArrayList<>();
+
+        Trabajo(GramaticaCompilada g) {
+            this.original = g;
+            for (int v = 0; v < g.numVariables; v++) {
+                nombres.add(g.nombreSimbolo(v));
+                nombresUsados.add(g.nombreSimbolo(v));
+            }
+            this.inicial = g.inicial;
+            for (int p = 0; p < g.getNumProducciones(); p++) {
+                int[] cuerpo = new int[g.longitudCuerpo(p)];
+                int numVariables = 0;
+                for (int i = 0; i < cuerpo.length; i++) {
+                    int s = g.simbolos[g.inicioCuerpo[p] + i];
+                    cuerpo[i] = g.esVariable(s) ? s : -(s - g.numVariables + 1);
+                    if (g.esVariable(s)) numVariables++;
+                }
+                int[] plantilla = new int[numVariables + 1];
+                plantilla[0] = p;
+                for (int k = 0; k < numVariables; k++) plantilla[k + 1] = -(k + 1);
+                agregar(reglas, new Regla(g.cabeza[p], cuerpo, plantilla));
+            }
+        }
+
+        private static void agregar(Map<List<Integer>, Regla> destino, Regla r) {
+            List<Integer> clave = new ArrayList<>(r.cuerpo.length + 1);
+            clave.add(r.cabeza);
+            for (int s : r.cuerpo) clave.add(s);
+            destino.putIfAbsent(clave, r);
+            if (destino.size() > MAX_PRODUCCIONES) {
+                throw new IllegalStateException("La normalización superó las " + MAX_PRODUCCIONES + " producciones.");
+            }
+        }
+
+        private int variableNueva(String base) {
+            String nombre = base;
+            while (nombresUsados.contains(nombre)) nombre += "'";
+            nombresUsados.add(nombre);
+            nombres.add(nombre);
+            return nombres.size() - 1;
+        }
+
+        private List<List<Regla>> porCabeza() {
+            List<List<Regla>> lista = new ArrayList<>();
+            for (int v = 0; v < nombres.size(); v++) lista.add(new ArrayList<>());
+            for (Regla r : reglas.values()) lista.get(r.cabeza).add(r);
+            return lista;
+        }
+
+        /** Punto fijo: una variable genera si tiene una producción cuyas variables generan. */
+        void quitarNoGeneradores() {
+            boolean[] generadora = new boolean[nombres.size()];
+            for (boolean cambio = true; cambio; ) {
+                cambio = false;
+                for (Regla r : reglas.values()) {
+                    if (generadora[r.cabeza] || !todasCumplen(r.cuerpo, generadora)) continue;
+                    generadora[r.cabeza] = true;
+                    cambio = true;
+                }
+            }
+            reglas.values().removeIf(r -> !generadora[r.cabeza] || !todasCumplen(r.cuerpo, generadora));
+        }
+
+        private static boolean todasCumplen(int[] cuerpo, boolean[] marca) {
+            for (int s : cuerpo) {
+                if (s >= 0 && !marca[s]) return false;
+            }
+            return true;
+        }
+
+        void quitarInalcanzables() {
+            List<List<Regla>> porCabeza = porCabeza();
+            boolean[] alcanzable = new boolean[nombres.size()];
+            int[] pendientes = new int[nombres.size()];
+            int numPendientes = 0;
+            alcanzable[inicial] = true;
+            pendientes[numPendientes++] = inicial;
+            while (numPendientes > 0) {
+                int a = pendientes[--numPendientes];
+                for (Regla r : porCabeza.get(a)) {
+                    for (int s : r.cuerpo) {
+                        if (s >= 0 && !alcanzable[s]) {
+                            alcanzable[s] = true;
+                            pendientes[numPendientes++] = s;
+                        }
+                    }
+                }
+            }
+            reglas.values().removeIf(r -> !alcanzable[r.cabeza]);
+        }
+
+        void eliminarLambda() {
+            // Anulables en el orden en que se descubren, cada una con la plantilla de una
+            // derivación de λ que solo usa anulables descubiertas antes (no tiene ciclos)
+            int[][] arbolLambda = new int[nombres.size()][];
+            for (boolean cambio = true; cambio; ) {
+                cambio = false;
+                for (Regla r : reglas.values()) {
+                    if (arbolLambda[r.cabeza] != null) continue;
+                    boolean todas = true;
+                    for (int s : r.cuerpo) {
+                        if (s < 0 || arbolLambda[s] == null) {
+                            todas = false;
+                            break;
+                        }
+                    }
+                    if (!todas) continue;
+                    int[][] porHijo = new int[r.cuerpo.length][];
+                    for (int k = 0; k < r.cuerpo.length; k++) porHijo[k] = arbolLambda[r.cuerpo[k]];
+                    arbolLambda[r.cabeza] = componer(r.plantilla, porHijo);
+                    cambio = true;
+                }
+            }
+
+            // El inicial puede conservar λ solo si no aparece en ningún cuerpo
+            if (arbolLambda[inicial] != null && apareceEnCuerpos(inicial)) {
+                int nuevo = variableNueva(nombres.get(inicial) + "0");
+                agregar(reglas, new Regla(nuevo, new int[]{inicial}, new int[]{-1}));
+                arbolLambda = Arrays.copyOf(arbolLambda, nombres.size());
+                arbolLambda[nuevo] = arbolLambda[inicial];
+                inicial = nuevo;
+            }
+
+            Map<List<Integer>, Regla> nuevas = new LinkedHashMap<>();
+            int[] anulables = new int[16];
+            for (Regla r : reglas.values()) {
+                // Posiciones del cuerpo con variables anulables, y el índice de hijo de cada posición
+                int numAnulables = 0;
+                int[] hijoDePosicion = new int[r.cuerpo.length];
+                int numHijos = 0;
+                for (int i = 0; i < r.cuerpo.length; i++) {
+                    int s = r.cuerpo[i];
+                    hijoDePosicion[i] = s >= 0 ? numHijos++ : -1;
+                    if (s >= 0 && arbolLambda[s] != null) {
+                        if (numAnulables == anulables.length) anulables = Arrays.copyOf(anulables, numAnulables * 2);
+                        anulables[numAnulables++] = i;
+                    }
+                }
+                if (numAnulables >= 31 || (1L << numAnulables) > MAX_PRODUCCIONES) {
+                    throw new IllegalStateException("La eliminación de producciones λ superaría las " + MAX_PRODUCCIONES
+                            + " producciones: un cuerpo tiene " + numAnulables + " variables anulables.");
+                }
+                // Cada subconjunto de anulables omitidas da una variante
+                for (int mascara = 0; mascara < (1 << numAnulables); mascara++) {
+                    boolean[] omitida = new boolean[r.cuerpo.length];
+                    for (int b = 0; b < numAnulables; b++) {
+                        if ((mascara & (1 << b)) != 0) omitida[anulables[b]] = true;
+                    }
+                    int[] cuerpo = new int[r.cuerpo.length - Integer.bitCount(mascara)];
+                    int[][] porHijo = new int[numHijos][];
+                    int largo = 0;
+                    int hijosNuevos = 0;
+                    for (int i = 0; i < r.cuerpo.length; i++) {
+                        int k = hijoDePosicion[i];
+                        if (omitida[i]) {
+                            porHijo[k] = arbolLambda[r.cuerpo[i]];
+                            continue;
+                        }
+                        cuerpo[largo++] = r.cuerpo[i];
+                        if (k >= 0) porHijo[k] = new int[]{-(++hijosNuevos)};
+                    }
+                    if (cuerpo.length == 0 && r.cabeza != inicial) continue;
+                    agregar(nuevas, new Regla(r.cabeza, cuerpo, componer(r.plantilla, porHijo)));
+                }
+            }
+            reglas = nuevas;
+        }
+
+        private boolean apareceEnCuerpos(int variable) {
+            for (Regla r : reglas.values()) {
+                for (int s : r.cuerpo) {
+                    if (s == variable) return true;
+                }
+            }
+            return false;
+        }
+
+        void eliminarUnitarias() {
+            List<List<Regla>> porCabeza = porCabeza();
+            Map<List<Integer>, Regla> nuevas = new LinkedHashMap<>();
+            int numVariables = nombres.size();
+            for (int a = 0; a < numVariables; a++) {
+                // Variables que A alcanza por unitarias, con la plantilla del camino: una
+                // derivación original con un único hueco, el de la variable alcanzada
+                int[][] camino = new int[numVariables][];
+                int[] orden = new int[numVariables];
+                int numOrden = 0;
+                camino[a] = new int[]{-1};
+                orden[numOrden++] = a;
+                for (int i = 0; i < numOrden; i++) {
+                    int b = orden[i];
+                    for (Regla r : porCabeza.get(b)) {
+                        if (!r.esUnitaria() || camino[r.cuerpo[0]] != null) continue;
+                        camino[r.cuerpo[0]] = componer(camino[b], new int[][]{r.plantilla});
+                        orden[numOrden++] = r.cuerpo[0];
+                    }
+                }
+                for (int i = 0; i < numOrden; i++) {
+                    int b = orden[i];
+                    for (Regla r : porCabeza.get(b)) {
+                        if (r.esUnitaria()) continue;
+                        agregar(nuevas, new Regla(a, r.cuerpo, componer(camino[b], new int[][]{r.plantilla})));
+                    }
+                }
+            }
+            reglas = nuevas;
+        }
+
+        void factorizar() {
+            int[] pendientes = new int[nombres.size()];
+            int numPendientes = 0;
+            for (int v = nombres.size() - 1; v >= 0; v--) pendientes[numPendientes++] = v;
+            while (numPendientes > 0) {
+                int a = pendientes[--numPendientes];
+                while (true) {
+                    // Un grupo de al menos dos producciones de A con el mismo primer símbolo
+                    Map<Integer, List<Regla>> porPrimero = new LinkedHashMap<>();
+                    for (Regla r : reglas.values()) {
+                        if (r.cabeza == a && r.cuerpo.length > 0) {
+                            porPrimero.computeIfAbsent(r.cuerpo[0], s -> new ArrayList<>()).add(r);
+                        }
+                    }
+                    List<Regla> grupo = null;
+                    for (List<Regla> candidato : porPrimero.values()) {
+                        if (candidato.size() > 1) {
+                            grupo = candidato;
+                            break;
+                        }
+                    }
+                    if (grupo == null) break;
+
+                    int comun = grupo.get(0).cuerpo.length;
+                    for (Regla r : grupo) {
+                        int k = 0;
+                        while (k < comun && k < r.cuerpo.length && r.cuerpo[k] == grupo.get(0).cuerpo[k]) k++;
+                        comun = k;
+                    }
+                    int auxiliar = variableNueva(nombres.get(a) + "'");
+                    if (numPendientes == pendientes.length) pendientes = Arrays.copyOf(pendientes, numPendientes * 2);
+                    pendientes[numPendientes++] = auxiliar;
+
+                    Map<List<Integer>, Regla> nuevas = new LinkedHashMap<>();
+                    Set<Regla> delGrupo = new HashSet<>(grupo);
+                    for (Regla r : reglas.values()) {
+                        if (!delGrupo.contains(r)) agregar(nuevas, r);
+                    }
+                    int[] prefijo = Arrays.copyOf(grupo.get(0).cuerpo, comun + 1);
+                    prefijo[comun] = auxiliar;
+                    agregar(nuevas, new Regla(a, prefijo, null));
+                    for (Regla r : grupo) {
+                        agregar(nuevas, new Regla(auxiliar, Arrays.copyOfRange(r.cuerpo, comun, r.cuerpo.length), r.plantilla));
+                    }
+                    reglas = nuevas;
+                }
+            }
+        }
+
+        /** Variables en uso (el inicial y las que aparecen en alguna producción), producciones y símbolos de los cuerpos. */
+        void medir(String paso, long inicio) {
+            boolean[] usada = new boolean[nombres.size()];
+            usada[inicial] = true;
+            int simbolos = 0;
+            for (Regla r : reglas.values()) {
+                usada[r.cabeza] = true;
+                for (int s : r.cuerpo) {
+                    if (s >= 0) usada[s] = true;
+                }
+                simbolos += r.cuerpo.length;
+            }
+            int variables = 0;
+            for (boolean u : usada) {
+                if (u) variables++;
+            }
+            nombresPasos.add(paso);
+            medidas.add(new int[]{variables, reglas.size(), simbolos});
+            nanosPasos.add(System.nanoTime() - inicio);
+        }
+
+        ResultadoNormalizacion resultado(boolean factorizada, long nanos) {
+            // Variables en uso renumeradas en orden, terminales después como en GramaticaCompilada
+            int[] nuevoId = new int[nombres.size()];
+            Arrays.fill(nuevoId, -1);
+            nuevoId[inicial] = 0;
+            for (Regla r : reglas.values()) {
+                nuevoId[r.cabeza] = 0;
+                for (int s : r.cuerpo) {
+                    if (s >= 0) nuevoId[s] = 0;
+                }
+            }
+            List<String> nombresNuevos = new ArrayList<>();
+            for (int v = 0; v < nombres.size(); v++) {
+                if (nuevoId[v] < 0) continue;
+                nuevoId[v] = nombresNuevos.size();
+                nombresNuevos.add(nombres.get(v));
+            }
+            int numVariables = nombresNuevos.size();
+            int n = reglas.size();
+            int[] cabeza = new int[n];
+            int[][] cuerpos = new int[n][];
+            int[][] plantillas = new int[n][];
+            int p = 0;
+            for (Regla r : reglas.values()) {
+                cabeza[p] = nuevoId[r.cabeza];
+                cuerpos[p] = new int[r.cuerpo.length];
+                for (int i = 0; i < r.cuerpo.length; i++) {
+                    int s = r.cuerpo[i];
+                    cuerpos[p][i] = s >= 0 ? nuevoId[s] : numVariables + (-s - 1);
+                }
+                plantillas[p++] = r.plantilla;
+            }
+            GramaticaCompilada normalizada = original.conProducciones(nombresNuevos.toArray(new String[0]),
+                    nuevoId[inicial], cabeza, cuerpos);
+            long[] nanosArreglo = new long[nanosPasos.size()];
+            for (int i = 0; i < nanosArreglo.length; i++) nanosArreglo[i] = nanosPasos.get(i);
+            return new ResultadoNormalizacion(original, normalizada, plantillas, factorizada,
+                    nombresPasos.toArray(new String[0]), medidas.toArray(new int[0][]), nanosArreglo, nanos);
+        }
+    }
+
+    /**
+     * Reemplaza en la plantilla cada hueco -(k + 1) por porHijo[k], que puede ser otra
+     * plantilla (con sus propios huecos) o una derivación completa.
+     */
+    private static int[] componer(int[] plantilla, int[][] porHijo) {
+        int largo = 0;
+        for (int x : plantilla) largo += x >= 0 ? 1 : porHijo[-x - 1].length;
+        int[] resultado = new int[largo];
+        int i = 0;
+        for (int x : plantilla) {
+            if (x >= 0) {
+                resultado[i++] = x;
+            } else {
+                int[] reemplazo = porHijo[-x - 1];
+                System.arraycopy(reemplazo, 0, resultado, i, reemplazo.length);
+                i += reemplazo.length;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Gramática normalizada con las medidas de cada paso y el origen de cada producción.
+     */
+    public static final class ResultadoNormalizacion {
+        private final GramaticaCompilada original;
+        private final GramaticaCompilada normalizada;
+        // Por producción normalizada: su plantilla de derivación original, o null (A -> αA')
+        private final int[][] plantillas;
+        private final boolean factorizada;
+        private final String[] pasos;
+        // Por paso: variables, producciones y símbolos en los cuerpos
+        private final int[][] medidas;
+        private final long[] nanosPasos;
+        private final long nanos;
+
+        ResultadoNormalizacion(GramaticaCompilada original, GramaticaCompilada normalizada, int[][] plantillas,
+                               boolean factorizada, String[] pasos, int[][] medidas, long[] nanosPasos, long nanos) {
+            this.original = original;
+            this.normalizada = normalizada;
+            this.plantillas = plantillas;
+            this.factorizada = factorizada;
+            this.pasos = pasos;
+            this.medidas = medidas;
+            this.nanosPasos = nanosPasos;
+            this.nanos = nanos;
+        }
+
+        public GramaticaCompilada getOriginal() { return original; }
+        public GramaticaCompilada getGramatica() { return normalizada; }
+        public boolean isFactorizada() { return factorizada; }
+        public int getVariablesAntes() { return medidas[0][0]; }
+        public int getVariablesDespues() { return medidas[medidas.length - 1][0]; }
+        public int getProduccionesAntes() { return medidas[0][1]; }
+        public int getProduccionesDespues() { return medidas[medidas.length - 1][1]; }
+        public int getSimbolosAntes() { return medidas[0][2]; }
+        public int getSimbolosDespues() { return medidas[medidas.length - 1][2]; }
+        public long getNanos() { return nanos; }
+
+        /**
+         * Traduce una derivación izquierda de la gramática normalizada (ids de producción
+         * en preorden, como {@link BosqueSPPF#primeraDerivacionIzquierda()}) a una
+         * derivación izquierda de la original de la misma cadena. Si varias derivaciones
+         * originales se confundieron en una al normalizar, devuelve una de ellas.
+         * @throws IllegalArgumentException si la secuencia no es una derivación izquierda
+         * completa desde el símbolo inicial de la gramática normalizada.
+         */
+        public int[] traducirDerivacion(int[] derivacion) {
+            GramaticaCompilada g = normalizada;
+            int m = derivacion.length;
+            if (m == 0 || derivacion[0] < 0 || derivacion[0] >= g.getNumProducciones()
+                    || g.cabeza[derivacion[0]] != g.inicial) {
+                throw new IllegalArgumentException("La secuencia no es una derivación izquierda de la gramática normalizada.");
+            }
+
+            // 1. Árbol de la derivación: los hijos (variables del cuerpo) de cada nodo en un arreglo plano
+            int[] inicioHijos = new int[m + 1];
+            for (int i = 0; i < m; i++) {
+                int p = derivacion[i];
+                if (p < 0 || p >= g.getNumProducciones()) {
+                    throw new IllegalArgumentException("La producción " + p + " no existe en la gramática normalizada.");
+                }
+                int variables = 0;
+                for (int j = g.inicioCuerpo[p]; j < g.inicioCuerpo[p + 1]; j++) {
+                    if (g.esVariable(g.simbolos[j])) variables++;
+                }
+                inicioHijos[i + 1] = inicioHijos[i] + variables;
+            }
+            int[] hijos = new int[inicioHijos[m]];
+            int[] variableDeHijo = new int[inicioHijos[m]];
+            // Casillas de hijo por llenar, la de más a la izquierda arriba
+            int[] pendientes = new int[Math.max(inicioHijos[m], 1)];
+            int cima = 0;
+            for (int i = 0; i < m; i++) {
+                int p = derivacion[i];
+                if (i > 0) {
+                    if (cima == 0 || variableDeHijo[pendientes[cima - 1]] != g.cabeza[p]) {
+                        throw new IllegalArgumentException("La secuencia no es una derivación izquierda de la gramática normalizada.");
+                    }
+                    hijos[pendientes[--cima]] = i;
+                }
+                int k = inicioHijos[i];
+                for (int j = g.inicioCuerpo[p]; j < g.inicioCuerpo[p + 1]; j++) {
+                    if (g.esVariable(g.simbolos[j])) variableDeHijo[k++] = g.simbolos[j];
+                }
+                for (int c = inicioHijos[i + 1] - 1; c >= inicioHijos[i]; c--) pendientes[cima++] = c;
+            }
+            if (cima > 0) {
+                throw new IllegalArgumentException("La derivación está incompleta: quedan variables sin expandir.");
+            }
+
+            // 2. Recorrer las plantillas: cada marco es una plantilla, su posición y los nodos de sus huecos
+            int[] salida = new int[Math.max(m, 16)];
+            int numSalida = 0;
+            int[][] marcoPlantilla = new int[16][];
+            int[][] marcoHijos = new int[16][];
+            int[] marcoPosicion = new int[16];
+            int numMarcos = 0;
+            int nodo = 0;
+            while (true) {
+                if (nodo >= 0) {
+                    // Los A -> αA' juntan sus hijos con los de la producción elegida para A'
+                    int p = derivacion[nodo];
+                    int[] nodosHijos = Arrays.copyOfRange(hijos, inicioHijos[nodo], inicioHijos[nodo + 1]);
+                    while (plantillas[p] == null) {
+                        int auxiliar = nodosHijos[nodosHijos.length - 1];
+                        int[] juntos = Arrays.copyOf(nodosHijos, nodosHijos.length - 1 + inicioHijos[auxiliar + 1] - inicioHijos[auxiliar]);
+                        System.arraycopy(hijos, inicioHijos[auxiliar], juntos, nodosHijos.length - 1,
+                                inicioHijos[auxiliar + 1] - inicioHijos[auxiliar]);
+                        nodosHijos = juntos;
+                        p = derivacion[auxiliar];
+                    }
+                    if (numMarcos == marcoPlantilla.length) {
+                        marcoPlantilla = Arrays.copyOf(marcoPlantilla, numMarcos * 2);
+                        marcoHijos = Arrays.copyOf(marcoHijos, numMarcos * 2);
+                        marcoPosicion = Arrays.copyOf(marcoPosicion, numMarcos * 2);
+                    }
+                    marcoPlantilla[numMarcos] = plantillas[p];
+                    marcoHijos[numMarcos] = nodosHijos;
+                    marcoPosicion[numMarcos++] = 0;
+                    nodo = -1;
+                }
+                if (numMarcos == 0) break;
+                int tope = numMarcos - 1;
+                if (marcoPosicion[tope] == marcoPlantilla[tope].length) {
+                    numMarcos--;
+                    continue;
+                }
+                int x = marcoPlantilla[tope][marcoPosicion[tope]++];
+                if (x >= 0) {
+                    if (numSalida == salida.length) salida = Arrays.copyOf(salida, numSalida * 2);
+                    salida[numSalida++] = x;
+                } else {
+                    nodo = marcoHijos[tope][-x - 1];
+                }
+            }
+            return Arrays.copyOf(salida, numSalida);
+        }
+
+        /**
+         * De qué producciones originales viene la producción p de la normalizada, en el
+         * orden de la derivación que representa.
+         */
+        public String origen(int p) {
+            if (plantillas[p] == null) return "factorización";
+            StringBuilder sb = new StringBuilder();
+            int mostradas = 0;
+            for (int x : plantillas[p]) {
+                if (x < 0) continue;
+                if (mostradas++ == 4) {
+                    sb.append("; ...");
+                    break;
+                }
+                if (sb.length() > 0) sb.append("; ");
+                sb.append(original.produccion(x));
+            }
+            return sb.length() == 0 ? "inicial nuevo" : sb.toString();
+        }
+
+        /**
+         * Texto para la vista: las medidas de cada paso, las reducciones y las
+         * producciones normalizadas con su origen, a lo sumo maxProducciones.
+         */
+        public String describir(int maxProducciones) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- NORMALIZACIÓN DE LA GRAMÁTICA ---\n");
+            sb.append(String.format("%-34s %9s %12s %9s %11s%n", "Paso", "Variables", "Producciones", "Símbolos", "Tiempo"));
+            for (int i = 0; i < pasos.length; i++) {
+                sb.append(String.format("%-34s %9d %12d %9d %8.3f ms%n", pasos[i], medidas[i][0], medidas[i][1],
+                        medidas[i][2], nanosPasos[i] / 1e6));
+            }
+            sb.append("Variables: ").append(reduccion(getVariablesAntes(), getVariablesDespues()))
+                    .append("; producciones: ").append(reduccion(getProduccionesAntes(), getProduccionesDespues()))
+                    .append("; símbolos en los cuerpos: ").append(reduccion(getSimbolosAntes(), getSimbolosDespues())).append("\n");
+            sb.append(String.format("Tiempo total: %.3f ms%n", nanos / 1e6));
+
+            sb.append("\nGramática normalizada (inicial ").append(normalizada.nombreSimbolo(normalizada.inicial)).append("):\n");
+            int n = normalizada.getNumProducciones();
+            for (int p = 0; p < n && p < maxProducciones; p++) {
+                sb.append("  ").append(normalizada.produccion(p)).append("   <- ").append(origen(p)).append("\n");
+            }
+            if (n > maxProducciones) {
+                sb.append("  ... (").append(n - maxProducciones).append(" producciones más)\n");
+            }
+            return sb.toString();
+        }
+
+        private static String reduccion(int antes, int despues) {
+            if (antes == 0) return antes + " -> " + despues;
+            return antes + " -> " + despues + String.format(" (%+.1f %%)", 100.0 * (despues - antes) / antes);
+        }
+
+        @Override
+        public String toString() {
+            return "Normalización: " + getProduccionesAntes() + " -> " + getProduccionesDespues() + " producciones";
+        }
+    }
+}
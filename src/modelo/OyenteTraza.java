@@ -0,0 +1,120 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Receptor de los eventos paso a paso que emiten las simulaciones de los modelos
+ * (AFD, AP, GR y GLC).
+ *
+ * Los eventos solo transportan primitivos y referencias a objetos que el modelo ya
+ * tiene (nombres de estados, reglas, pilas), nunca texto formateado: el costo de
+ * convertirlos en texto lo paga el oyente, y solo si lo necesita.
+ * Todos los métodos tienen una implementación vacía por defecto para que cada oyente
+ * sobrescriba únicamente los eventos que le interesan.
+ */
+public interface OyenteTraza {
+
+    /** Oyente que descarta todos los eventos; el JIT elimina las llamadas por completo. */
+    OyenteTraza NULO = new OyenteNulo();
+
+    /** Modelo que emite los eventos. */
+    enum Modelo { AFD, AP, GR, GLC }
+
+    /**
+     * Indica si el oyente consume eventos. Los modelos lo consultan para omitir
+     * trabajo que solo sirve para la traza.
+     */
+    default boolean activo() { return true; }
+
+    // --- Eventos comunes ---
+
+    default void inicio(Modelo modelo, CharSequence cadena) {}
+
+    default void fin(boolean aceptada) {}
+
+    // --- AFD ---
+
+    default void estadoInicial(String estado) {}
+
+    default void transicion(int paso, String estado, char simbolo, String estadoSiguiente) {}
+
+    /** El símbolo en la posición dada no pertenece a Σ. */
+    default void simboloFueraDeAlfabeto(int posicion, char simbolo) {}
+
+    /** No existe δ(estado, simbolo). */
+    default void sinTransicion(int posicion, String estado, char simbolo) {}
+
+    default void estadoAlcanzado(String estado, boolean esFinal) {}
+
+    // --- Autómata con Pila ---
+
+    /** @param simbolo Z0, o null si la pila inicia vacía. */
+    default void pilaInicial(String simbolo) {}
+
+    /**
+     * Se aplicó una transición del AP.
+     * @param tope Símbolo en el tope antes de aplicarla (λ si la pila estaba vacía).
+     */
+    default void transicionPila(int nivel, AutomataPila.TransicionAP transicion, String tope,
+                                List<String> pilaAntes, List<String> pilaDespues) {}
+
+    /**
+     * Forma compacta de {@link #transicionPila(int, AutomataPila.TransicionAP, String, List, List)}:
+     * la transición por su id en el AP compilado y la pila (inmutable) sobre la que se
+     * aplicó; la pila resultante se deduce de ambas. Es el evento que emiten los
+     * simuladores del AP. Por defecto se traduce al evento con listas, que cuesta
+     * O(altura de la pila); los oyentes que guardan la traza sin formatearla lo
+     * sobrescriben y el paso les cuesta O(1).
+     */
+    default void transicionPila(int nivel, AutomataPilaCompilado ap, int transicion, PilaPersistente pilaAntes) {
+        String tope = pilaAntes.esVacia() ? AutomataPila.LAMBDA : ap.nombreSimboloPila(pilaAntes.tope());
+        transicionPila(nivel, ap.transicion(transicion), tope, pilaAntes.aLista(ap.simbolosPila()),
+                ap.aplicar(transicion, pilaAntes).aLista(ap.simbolosPila()));
+    }
+
+    default void aceptacionPila(int nivel, String estado) {}
+
+    /**
+     * La configuración actual no se expande.
+     * @param ciclo true si reaparece dentro de su propia rama; false si ya se sabía que fallaba.
+     */
+    default void configuracionRepetida(int nivel, String estado, boolean ciclo) {}
+
+    // --- Gramáticas ---
+
+    default void simboloInicial(String simbolo) {}
+
+    /**
+     * Se aplicó la producción variable -> cuerpo.
+     * @param paso Número de paso (GLC) o -1 si el modelo no numera los pasos (GR).
+     * @param restante Entrada pendiente antes de aplicar la producción.
+     * @param consumidos Caracteres de restante consumidos por la producción.
+     * @param tipo Qué ocurrió con la entrada al aplicar la producción.
+     * @param proximaVariable Variable en la que continúa la derivación, o null.
+     */
+    default void derivacion(int nivel, int paso, String variable, String cuerpo, CharSequence restante,
+                            int consumidos, TipoDerivacion tipo, String proximaVariable) {}
+
+    /** Resultado de aplicar una producción durante la verificación de una gramática. */
+    enum TipoDerivacion {
+        /** La variable deriva λ al terminar la cadena. */
+        LAMBDA,
+        /** Se consumieron terminales y la derivación continúa en otra variable. */
+        CONTINUA,
+        /** Se consumieron terminales y queda entrada pendiente. */
+        CONSUMIDO,
+        /** La producción consumió toda la entrada restante. */
+        CADENA_CONSUMIDA
+    }
+
+    /**
+     * Implementación vacía. Es final y no sobrescribe nada para que las llamadas
+     * sean monomórficas y el compilador JIT las descarte.
+     */
+    final class OyenteNulo implements OyenteTraza {
+        private OyenteNulo() {}
+
+        @Override
+        public boolean activo() { return false; }
+    }
+}
@@ -0,0 +1,69 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Pila explícita de marcos para las búsquedas que antes eran recursivas.
+ *
+ * Los marcos viven en el heap y se reutilizan: desapilar no libera el objeto, y el
+ * siguiente apilar a esa profundidad lo vuelve a usar. La profundidad queda acotada
+ * por un presupuesto de marcos en lugar del tamaño de la pila del hilo.
+ */
+final class PilaMarcos<M> {
+
+    /** Presupuesto por defecto: un millón de marcos. */
+    static final int MAX_MARCOS_POR_DEFECTO = 1_000_000;
+
+    private final Supplier<M> fabrica;
+    private final int maxMarcos;
+    private Object[] marcos = new Object[64];
+    private int tamano;
+
+    PilaMarcos(Supplier<M> fabrica, int maxMarcos) {
+        if (maxMarcos <= 0) {
+            throw new IllegalArgumentException("El presupuesto de marcos debe ser positivo.");
+        }
+        this.fabrica = fabrica;
+        this.maxMarcos = maxMarcos;
+    }
+
+    /**
+     * Marco libre en la cima, que el llamador debe inicializar por completo.
+     * @throws IllegalStateException si se supera el presupuesto.
+     */
+    @SuppressWarnings("unchecked")
+    M apilar() {
+        if (tamano == maxMarcos) {
+            throw new IllegalStateException("La búsqueda superó el presupuesto de " + maxMarcos
+                    + " marcos de profundidad.");
+        }
+        if (tamano == marcos.length) {
+            marcos = Arrays.copyOf(marcos, (int) Math.min((long) tamano * 2, maxMarcos));
+        }
+        M marco = (M) marcos[tamano];
+        if (marco == null) {
+            marco = fabrica.get();
+            marcos[tamano] = marco;
+        }
+        tamano++;
+        return marco;
+    }
+
+    @SuppressWarnings("unchecked")
+    M cima() {
+        return (M) marcos[tamano - 1];
+    }
+
+    void desapilar() {
+        tamano--;
+    }
+
+    boolean esVacia() {
+        return tamano == 0;
+    }
+
+    int tamano() {
+        return tamano;
+    }
+}
@@ -0,0 +1,177 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pila inmutable de símbolos internados como enteros (lista enlazada hacia el fondo).
+ *
+ * Apilar y desapilar son O(1) y no copian nada: cada rama de la búsqueda conserva su
+ * propia pila y todas comparten la cola común. La altura y el hash se calculan al
+ * apilar, así que comparar dos pilas distintas suele resolverse sin recorrerlas.
+ *
+ * Dos pilas iguales construidas por caminos distintos no comparten nodos, y compararlas
+ * cuesta O(altura). Las búsquedas que guardan muchas configuraciones usan una
+ * {@link Fabrica}, que reutiliza los nodos existentes: así dos pilas iguales son el
+ * mismo objeto y la comparación es O(1).
+ */
+public final class PilaPersistente {
+
+    public static final PilaPersistente VACIA = new PilaPersistente();
+
+    private final int tope;
+    private final PilaPersistente resto;
+    private final int altura;
+    private final int hash;
+
+    private PilaPersistente() {
+        this.tope = -1;
+        this.resto = null;
+        this.altura = 0;
+        this.hash = 1;
+    }
+
+    private PilaPersistente(int tope, PilaPersistente resto) {
+        this.tope = tope;
+        this.resto = resto;
+        this.altura = resto.altura + 1;
+        this.hash = 31 * resto.hash + tope;
+    }
+
+    public PilaPersistente apilar(int simbolo) {
+        return new PilaPersistente(simbolo, this);
+    }
+
+    /**
+     * Apila una secuencia de forma que simbolos[0] quede en el tope.
+     */
+    public PilaPersistente apilar(int[] simbolos) {
+        PilaPersistente p = this;
+        for (int i = simbolos.length - 1; i >= 0; i--) {
+            p = new PilaPersistente(simbolos[i], p);
+        }
+        return p;
+    }
+
+    public boolean esVacia() {
+        return altura == 0;
+    }
+
+    public int tope() {
+        if (altura == 0) throw new IllegalStateException("La pila está vacía.");
+        return tope;
+    }
+
+    public PilaPersistente desapilar() {
+        if (altura == 0) throw new IllegalStateException("La pila está vacía.");
+        return resto;
+    }
+
+    public int altura() {
+        return altura;
+    }
+
+    /**
+     * Contenido con los nombres de los símbolos, del fondo al tope (como Stack.toString()).
+     */
+    public List<String> aLista(String[] nombres) {
+        List<String> lista = new ArrayList<>(altura);
+        for (PilaPersistente p = this; p.altura > 0; p = p.resto) {
+            lista.add(nombres[p.tope]);
+        }
+        Collections.reverse(lista);
+        return lista;
+    }
+
+    /**
+     * Construye pilas con hash-consing: apilar un símbolo sobre la misma cola devuelve
+     * siempre el mismo nodo. Las pilas que salen de una fábrica (y sus colas) son
+     * iguales si y solo si son idénticas.
+     */
+    public static final class Fabrica {
+        private final Map<Nodo, PilaPersistente> nodos;
+
+        /** Fábrica para un solo hilo. */
+        public Fabrica() {
+            this(new HashMap<>());
+        }
+
+        private Fabrica(Map<Nodo, PilaPersistente> nodos) {
+            this.nodos = nodos;
+        }
+
+        /** Fábrica que pueden usar varios hilos a la vez. */
+        public static Fabrica concurrente() {
+            return new Fabrica(new ConcurrentHashMap<>());
+        }
+
+        public PilaPersistente apilar(PilaPersistente resto, int simbolo) {
+            Nodo clave = new Nodo(simbolo, resto);
+            PilaPersistente p = nodos.get(clave);
+            if (p == null) {
+                p = new PilaPersistente(simbolo, resto);
+                PilaPersistente previa = nodos.putIfAbsent(clave, p);
+                if (previa != null) p = previa;
+            }
+            return p;
+        }
+
+        /** Apila una secuencia de forma que simbolos[0] quede en el tope. */
+        public PilaPersistente apilar(PilaPersistente resto, int[] simbolos) {
+            PilaPersistente p = resto;
+            for (int i = simbolos.length - 1; i >= 0; i--) {
+                p = apilar(p, simbolos[i]);
+            }
+            return p;
+        }
+
+        /** Nodos distintos creados hasta ahora. */
+        public int tamano() {
+            return nodos.size();
+        }
+    }
+
+    /** Clave de la fábrica: símbolo y cola comparada por identidad. */
+    private static final class Nodo {
+        private final int simbolo;
+        private final PilaPersistente resto;
+
+        Nodo(int simbolo, PilaPersistente resto) {
+            this.simbolo = simbolo;
+            this.resto = resto;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Nodo && ((Nodo) o).simbolo == simbolo && ((Nodo) o).resto == resto;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(resto) + simbolo;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PilaPersistente)) return false;
+        PilaPersistente a = this;
+        PilaPersistente b = (PilaPersistente) o;
+        // Se detiene en cuanto las dos pilas comparten la misma cola
+        while (a != b) {
+            if (a.hash != b.hash || a.altura != b.altura || a.tope != b.tope) return false;
+            a = a.resto;
+            b = b.resto;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
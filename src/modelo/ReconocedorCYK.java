@@ -0,0 +1,144 @@
+package modelo;
+
+/**
+ * Reconocedor CYK sobre la forma normal de Chomsky de una GLC.
+ *
+ * La celda (i, l) de la tabla es el conjunto de variables que derivan los l caracteres
+ * que empiezan en i, guardado como bitset de long[] sobre los ids de variable; todas las
+ * celdas viven en un único long[], fila por fila de longitud. Para combinar dos celdas
+ * se recorren los bits de la izquierda (B) y, por cada C con alguna A -> BC que esté en
+ * la derecha, se hace OR de palabras completas con el conjunto de esas A. El costo es
+ * O(n³·|G|/64) sin importar la forma de la gramática ni la cadena, y la tabla ocupa
+ * n(n+1)/2 celdas.
+ */
+public final class ReconocedorCYK {
+
+    private final GramaticaCompilada g;
+    private final FormaNormalChomsky fnc;
+
+    public ReconocedorCYK(GramaticaCompilada g, FormaNormalChomsky fnc) {
+        this.g = g;
+        this.fnc = fnc;
+    }
+
+    public ResultadoCYK reconocer(String cadena) {
+        long inicio = System.nanoTime();
+        int n = cadena.length();
+        if (n == 0) {
+            return new ResultadoCYK(fnc.aceptaVacia, 0, 0, System.nanoTime() - inicio);
+        }
+        int w = fnc.palabras;
+        long celdas = (long) n * (n + 1) / 2;
+        if (celdas * w > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La cadena es demasiado larga para la tabla de CYK.");
+        }
+        int[] terminales = new int[n];
+        for (int i = 0; i < n; i++) {
+            terminales[i] = g.terminalDeCaracter(cadena.charAt(i));
+            if (terminales[i] < 0) {
+                // Un carácter fuera de Σ: no hace falta llenar la tabla
+                return new ResultadoCYK(false, celdas, 0, System.nanoTime() - inicio);
+            }
+        }
+        long[] tabla = new long[(int) (celdas * w)];
+        int noVacias = 0;
+
+        // Longitud 1: las variables A con A -> a
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(fnc.cabezasTerminal[terminales[i] - g.numVariables], 0, tabla, i * w, w);
+            if (!vacia(tabla, i * w, w)) noVacias++;
+        }
+
+        // Longitudes 2..n: cada división en k + (l - k) caracteres
+        for (int l = 2; l <= n; l++) {
+            for (int i = 0; i + l <= n; i++) {
+                int destino = celda(n, i, l) * w;
+                for (int k = 1; k < l; k++) {
+                    int izquierda = celda(n, i, k) * w;
+                    int derecha = celda(n, i + k, l - k) * w;
+                    combinar(tabla, izquierda, derecha, destino, w);
+                }
+                if (!vacia(tabla, destino, w)) noVacias++;
+            }
+        }
+
+        int raiz = celda(n, 0, n) * w;
+        boolean aceptada = (tabla[raiz + (fnc.inicial >>> 6)] & (1L << fnc.inicial)) != 0;
+        return new ResultadoCYK(aceptada, celdas, noVacias, System.nanoTime() - inicio);
+    }
+
+    /** Agrega a destino las A con A -> BC, B en la celda izquierda y C en la derecha. */
+    private void combinar(long[] tabla, int izquierda, int derecha, int destino, int w) {
+        if (vacia(tabla, derecha, w)) return;
+        for (int p = 0; p < w; p++) {
+            long bits = tabla[izquierda + p];
+            while (bits != 0) {
+                int b = (p << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int[] cs = fnc.segundos[b];
+                long[][] cabezas = fnc.cabezasBinarias[b];
+                for (int j = 0; j < cs.length; j++) {
+                    int c = cs[j];
+                    if ((tabla[derecha + (c >>> 6)] & (1L << c)) == 0) continue;
+                    long[] a = cabezas[j];
+                    for (int q = 0; q < w; q++) {
+                        tabla[destino + q] |= a[q];
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean vacia(long[] tabla, int desde, int w) {
+        for (int q = 0; q < w; q++) {
+            if (tabla[desde + q] != 0) return false;
+        }
+        return true;
+    }
+
+    /** Índice de la celda (i, l): las filas de longitudes 1..l-1 van antes. */
+    private static int celda(int n, int i, int l) {
+        return (int) ((long) (l - 1) * (2L * n - l + 2) / 2) + i;
+    }
+
+    /**
+     * Resultado del reconocimiento con CYK.
+     */
+    public static final class ResultadoCYK {
+        private final boolean aceptada;
+        private final long celdas;
+        private final int celdasNoVacias;
+        private final long nanos;
+
+        ResultadoCYK(boolean aceptada, long celdas, int celdasNoVacias, long nanos) {
+            this.aceptada = aceptada;
+            this.celdas = celdas;
+            this.celdasNoVacias = celdasNoVacias;
+            this.nanos = nanos;
+        }
+
+        public boolean isAceptada() { return aceptada; }
+
+        /** Celdas de la tabla, n(n+1)/2. */
+        public long getCeldas() { return celdas; }
+
+        /** Celdas con al menos una variable. */
+        public int getCeldasNoVacias() { return celdasNoVacias; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- RECONOCIMIENTO CON CYK ---\n");
+            sb.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+            sb.append("Celdas de la tabla: ").append(celdas).append(" (").append(celdasNoVacias).append(" no vacías)\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return (aceptada ? "ACEPTADA" : "RECHAZADA") + " (" + celdas + " celdas)";
+        }
+    }
+}
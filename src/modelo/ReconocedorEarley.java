@@ -0,0 +1,262 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Reconocedor de Earley para una GLC compilada: decide si la cadena pertenece al
+ * lenguaje para cualquier gramática libre de contexto, incluidas las ambiguas, las
+ * recursivas por la izquierda y las que tienen producciones λ.
+ *
+ * La tabla tiene un conjunto de ítems (A -> α • β, origen) por posición de la entrada.
+ * Cada conjunto se cierra con las tres operaciones clásicas: predecir las producciones
+ * de la variable tras el punto, completar los ítems que esperaban a una variable que
+ * terminó, y leer el carácter siguiente para sembrar el conjunto de la posición
+ * siguiente. Las variables anulables se tratan como propone Aycock y Horspool: al
+ * predecir una variable anulable el punto también la salta en ese momento, así que un
+ * ítem completo con origen en el mismo conjunto no necesita completar nada.
+ *
+ * Los ítems que esperan a cada variable se encadenan por conjunto, de modo que
+ * completar solo visita los ítems que avanzan. El costo es O(n³) en el peor caso,
+ * O(n²) para gramáticas no ambiguas y casi lineal para la mayoría de las LR.
+ */
+public final class ReconocedorEarley {
+
+    // Siguiente símbolo de una regla con el punto al final
+    private static final int COMPLETA = -1;
+
+    private final GramaticaCompilada g;
+
+    // Regla punteada r = inicioRegla[p] + k: la producción p con el punto antes del símbolo k
+    private final int[] inicioRegla;
+    private final int[] produccionDeRegla;
+    private final int[] siguienteSimbolo;
+    private final int numReglas;
+
+    public ReconocedorEarley(GramaticaCompilada g) {
+        this.g = g;
+        int numProducciones = g.getNumProducciones();
+        inicioRegla = new int[numProducciones];
+        // Cada producción ocupa en las reglas su cuerpo más la posición final
+        for (int p = 0; p < numProducciones; p++) {
+            inicioRegla[p] = g.inicioCuerpo[p] + p;
+        }
+        int total = g.simbolos.length + numProducciones;
+        numReglas = total;
+        produccionDeRegla = new int[total];
+        siguienteSimbolo = new int[total];
+        for (int p = 0; p < numProducciones; p++) {
+            int longitud = g.longitudCuerpo(p);
+            for (int k = 0; k <= longitud; k++) {
+                produccionDeRegla[inicioRegla[p] + k] = p;
+                siguienteSimbolo[inicioRegla[p] + k] = k < longitud ? g.simbolos[g.inicioCuerpo[p] + k] : COMPLETA;
+            }
+        }
+    }
+
+    public ResultadoEarley reconocer(String cadena) {
+        long inicio = System.nanoTime();
+        Tabla tabla = new Tabla(cadena);
+        boolean aceptada = tabla.llenar();
+        return new ResultadoEarley(aceptada, cadena.length(), tabla.conjuntos, tabla.numItems, tabla.maxConjunto,
+                tabla.posicionRechazo, System.nanoTime() - inicio);
+    }
+
+    /**
+     * La tabla de una cadena. Los ítems de todos los conjuntos viven en arreglos
+     * paralelos; los del conjunto i ocupan [inicioConjunto[i], inicioConjunto[i + 1]).
+     */
+    private final class Tabla {
+        private final String cadena;
+        private final int n;
+
+        private int[] regla = new int[256];
+        private int[] origen = new int[256];
+        // Siguiente ítem del mismo conjunto que espera a la misma variable, o -1
+        private int[] siguienteEnEspera = new int[256];
+        private int numItems;
+
+        private final int[] inicioConjunto;
+        // Primer ítem del conjunto i que espera a cada variable (se crea al usarse)
+        private final int[][] esperando;
+        // Conjunto + 1 en el que ya se predijo cada variable
+        private final int[] predicha;
+
+        // Ítems del conjunto actual, para no repetirlos
+        private TablaClaves vistos;
+
+        // Ítems que sembrará la lectura del carácter actual: pares (regla, origen)
+        private int[] leidos = new int[64];
+        private int numLeidos;
+
+        int conjuntos;
+        int maxConjunto;
+        int posicionRechazo = -1;
+
+        Tabla(String cadena) {
+            this.cadena = cadena;
+            this.n = cadena.length();
+            inicioConjunto = new int[n + 2];
+            esperando = new int[n + 1][];
+            predicha = new int[g.numVariables];
+        }
+
+        boolean llenar() {
+            vistos = new TablaClaves();
+            for (int p : g.produccionesDe[g.inicial]) {
+                agregar(inicioRegla[p], 0);
+            }
+
+            for (int i = 0; ; i++) {
+                cerrar(i);
+                conjuntos++;
+                inicioConjunto[i + 1] = numItems;
+                maxConjunto = Math.max(maxConjunto, numItems - inicioConjunto[i]);
+                if (i == n) break;
+
+                // Sembrar el conjunto siguiente con los ítems que leyeron el carácter
+                if (numLeidos == 0) {
+                    posicionRechazo = i;
+                    return false;
+                }
+                vistos = new TablaClaves();
+                for (int k = 0; k < numLeidos; k += 2) {
+                    agregar(leidos[k], leidos[k + 1]);
+                }
+                numLeidos = 0;
+            }
+
+            for (int k = inicioConjunto[n]; k < numItems; k++) {
+                int r = regla[k];
+                if (origen[k] == 0 && siguienteSimbolo[r] == COMPLETA && g.cabeza[produccionDeRegla[r]] == g.inicial) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Procesa los ítems del conjunto i en orden, incluidos los que se agregan
+         * mientras tanto, hasta que no aparecen más.
+         */
+        private void cerrar(int i) {
+            int terminal = i < n ? g.terminalDeCaracter(cadena.charAt(i)) : -1;
+            for (int k = inicioConjunto[i]; k < numItems; k++) {
+                int r = regla[k];
+                int o = origen[k];
+                int s = siguienteSimbolo[r];
+
+                if (s == COMPLETA) {
+                    // Completar: avanzan los ítems del conjunto de origen que esperaban a la cabeza.
+                    // Con origen en este mismo conjunto la variable es anulable y ya se saltó al predecirla.
+                    if (o == i) continue;
+                    int[] cabezas = esperando[o];
+                    if (cabezas == null) continue;
+                    for (int w = cabezas[g.cabeza[produccionDeRegla[r]]]; w >= 0; w = siguienteEnEspera[w]) {
+                        agregar(regla[w] + 1, origen[w]);
+                    }
+                } else if (g.esVariable(s)) {
+                    if (esperando[i] == null) {
+                        esperando[i] = new int[g.numVariables];
+                        Arrays.fill(esperando[i], -1);
+                    }
+                    siguienteEnEspera[k] = esperando[i][s];
+                    esperando[i][s] = k;
+
+                    // Predecir
+                    if (predicha[s] != i + 1) {
+                        predicha[s] = i + 1;
+                        for (int p : g.produccionesDe[s]) {
+                            agregar(inicioRegla[p], i);
+                        }
+                    }
+                    if (g.anulable[s]) {
+                        agregar(r + 1, o);
+                    }
+                } else if (s == terminal) {
+                    // Leer
+                    if (numLeidos + 2 > leidos.length) leidos = Arrays.copyOf(leidos, leidos.length * 2);
+                    leidos[numLeidos++] = r + 1;
+                    leidos[numLeidos++] = o;
+                }
+            }
+        }
+
+        private void agregar(int r, int o) {
+            if (!vistos.agregar((long) o * numReglas + r)) return;
+            if (numItems == regla.length) {
+                if (numItems > Integer.MAX_VALUE / 2) {
+                    throw new IllegalStateException("La tabla de Earley superó el máximo de ítems.");
+                }
+                int capacidad = numItems * 2;
+                regla = Arrays.copyOf(regla, capacidad);
+                origen = Arrays.copyOf(origen, capacidad);
+                siguienteEnEspera = Arrays.copyOf(siguienteEnEspera, capacidad);
+            }
+            regla[numItems] = r;
+            origen[numItems] = o;
+            siguienteEnEspera[numItems] = -1;
+            numItems++;
+        }
+    }
+
+    /**
+     * Resultado del reconocimiento con Earley.
+     */
+    public static final class ResultadoEarley {
+        private final boolean aceptada;
+        private final int longitud;
+        private final int conjuntos;
+        private final int items;
+        private final int maxConjunto;
+        private final int posicionRechazo;
+        private final long nanos;
+
+        ResultadoEarley(boolean aceptada, int longitud, int conjuntos, int items, int maxConjunto,
+                        int posicionRechazo, long nanos) {
+            this.aceptada = aceptada;
+            this.longitud = longitud;
+            this.conjuntos = conjuntos;
+            this.items = items;
+            this.maxConjunto = maxConjunto;
+            this.posicionRechazo = posicionRechazo;
+            this.nanos = nanos;
+        }
+
+        public boolean isAceptada() { return aceptada; }
+
+        /** Conjuntos de la tabla que se llegaron a construir (a lo sumo n + 1). */
+        public int getConjuntos() { return conjuntos; }
+
+        /** Ítems en todos los conjuntos. */
+        public int getItems() { return items; }
+
+        /** Ítems del conjunto más grande. */
+        public int getMaxConjunto() { return maxConjunto; }
+
+        /**
+         * Posición del carácter que ningún ítem pudo leer, o -1 si se llegó al final de
+         * la cadena.
+         */
+        public int getPosicionRechazo() { return posicionRechazo; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- RECONOCIMIENTO CON EARLEY ---\n");
+            sb.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+            if (posicionRechazo >= 0) {
+                sb.append("Ningún ítem puede leer el carácter en la posición ").append(posicionRechazo).append("\n");
+            }
+            sb.append("Conjuntos de la tabla: ").append(conjuntos).append(" de ").append(longitud + 1).append("\n");
+            sb.append("Ítems: ").append(items).append(" (máximo ").append(maxConjunto).append(" en un conjunto)\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return (aceptada ? "ACEPTADA" : "RECHAZADA") + " (" + conjuntos + " conjuntos, " + items + " ítems)";
+        }
+    }
+}
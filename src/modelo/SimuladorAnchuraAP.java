@@ -0,0 +1,296 @@
+package modelo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulación en anchura de un AP: avanza sobre la entrada el conjunto (sin repetidos)
+ * de todas las configuraciones vivas, en lugar de probar una rama a la vez.
+ *
+ * En cada posición se calcula primero la clausura λ del conjunto; como las
+ * configuraciones repetidas se descartan, los ciclos λ que vuelven a la misma
+ * configuración terminan solos. Los que hacen crecer la pila sin fin (q, γ) ->* (q, βγ)
+ * se detectan y se informan, y los presupuestos de pasos y de configuraciones vivas
+ * garantizan que la simulación siempre responde: aceptada, rechazada (definitivo, se
+ * exploró todo) o presupuesto agotado.
+ */
+public final class SimuladorAnchuraAP {
+
+    public static final long PASOS_POR_DEFECTO = 1_000_000;
+    public static final int CONFIGURACIONES_POR_DEFECTO = 200_000;
+
+    // Ancestros λ que se revisan al buscar un ciclo que hace crecer la pila
+    private static final int PROFUNDIDAD_CICLOS = 64;
+
+    public enum Veredicto { ACEPTADA, RECHAZADA, PRESUPUESTO_AGOTADO }
+
+    private final AutomataPilaCompilado ap;
+    private final long maxPasos;
+    private final int maxConfiguraciones;
+
+    public SimuladorAnchuraAP(AutomataPilaCompilado ap) {
+        this(ap, PASOS_POR_DEFECTO, CONFIGURACIONES_POR_DEFECTO);
+    }
+
+    /**
+     * @param maxPasos Configuraciones que se pueden expandir en total.
+     * @param maxConfiguraciones Configuraciones vivas que se pueden tener a la vez.
+     */
+    public SimuladorAnchuraAP(AutomataPilaCompilado ap, long maxPasos, int maxConfiguraciones) {
+        if (maxPasos <= 0 || maxConfiguraciones <= 0) {
+            throw new IllegalArgumentException("Los presupuestos deben ser positivos.");
+        }
+        this.ap = ap;
+        this.maxPasos = maxPasos;
+        this.maxConfiguraciones = maxConfiguraciones;
+    }
+
+    public ResultadoAnchura simular(String cadena) {
+        long inicio = System.nanoTime();
+        int n = cadena.length();
+
+        // Configuraciones pendientes por posición de lectura (los símbolos de Σ pueden
+        // tener varios caracteres, así que no todas avanzan a la misma posición).
+        // El valor es el padre λ de la configuración, o null si llegó consumiendo entrada.
+        List<Map<Config, Config>> porPosicion = new ArrayList<>(Collections.nCopies(n + 1, null));
+        // Las pilas salen de una fábrica para que comparar configuraciones sea O(1)
+        PilaPersistente.Fabrica pilas = new PilaPersistente.Fabrica();
+        PilaPersistente pilaInicial = ap.simboloInicialPila == AutomataPilaCompilado.LAMBDA
+                ? PilaPersistente.VACIA : pilas.apilar(PilaPersistente.VACIA, ap.simboloInicialPila);
+        porPosicion.set(0, new HashMap<>());
+        porPosicion.get(0).put(new Config(ap.getEstadoInicial(), pilaInicial), null);
+
+        Contadores cont = new Contadores();
+        cont.sumarViva();
+        ArrayDeque<Config> cola = new ArrayDeque<>();
+
+        for (int p = 0; p <= n; p++) {
+            Map<Config, Config> actual = porPosicion.get(p);
+            if (actual == null) continue;
+            porPosicion.set(p, null);
+            cont.posicionAlcanzada = p;
+            cola.addAll(actual.keySet());
+
+            while (!cola.isEmpty()) {
+                Config conf = cola.poll();
+                if (++cont.pasos > maxPasos) {
+                    return cont.resultado(Veredicto.PRESUPUESTO_AGOTADO, "pasos", inicio);
+                }
+                if (p == n && conf.pila.esVacia() && ap.esFinal(conf.estado)) {
+                    return cont.resultado(Veredicto.ACEPTADA, null, inicio);
+                }
+                int tope = conf.pila.esVacia() ? AutomataPilaCompilado.LAMBDA : conf.pila.tope();
+
+                // Transiciones λ: quedan en esta posición
+                for (int t : candidatos(conf.estado, AutomataPilaCompilado.LAMBDA, tope)) {
+                    Config siguiente = aplicar(conf, t, pilas);
+                    if (actual.containsKey(siguiente)) continue;
+                    actual.put(siguiente, conf);
+                    cola.add(siguiente);
+                    cont.sumarViva();
+                    if (!cont.cicloCreciente && creceEnCiclo(siguiente, actual)) {
+                        cont.cicloCreciente = true;
+                        cont.estadoCiclo = ap.nombreEstado(siguiente.estado);
+                    }
+                }
+
+                // Transiciones que consumen entrada: van a la posición p + |a|
+                if (p < n) {
+                    int simbolo = ap.entradaDeCaracter(cadena.charAt(p));
+                    if (simbolo != AutomataPilaCompilado.LAMBDA) {
+                        avanzar(conf, simbolo, tope, p + 1, porPosicion, pilas, cont);
+                    }
+                    for (int larga : ap.entradasLargas) {
+                        String texto = ap.entrada(larga);
+                        if (cadena.startsWith(texto, p)) {
+                            avanzar(conf, larga, tope, p + texto.length(), porPosicion, pilas, cont);
+                        }
+                    }
+                }
+                if (cont.vivas > maxConfiguraciones) {
+                    return cont.resultado(Veredicto.PRESUPUESTO_AGOTADO, "configuraciones", inicio);
+                }
+            }
+            cont.vivas -= actual.size();
+        }
+        return cont.resultado(Veredicto.RECHAZADA, null, inicio);
+    }
+
+    private void avanzar(Config conf, int simbolo, int tope, int destino, List<Map<Config, Config>> porPosicion,
+                         PilaPersistente.Fabrica pilas, Contadores cont) {
+        for (int t : candidatos(conf.estado, simbolo, tope)) {
+            if (porPosicion.get(destino) == null) porPosicion.set(destino, new HashMap<>());
+            Config siguiente = aplicar(conf, t, pilas);
+            if (!porPosicion.get(destino).containsKey(siguiente)) {
+                porPosicion.get(destino).put(siguiente, null);
+                cont.sumarViva();
+            }
+        }
+    }
+
+    /**
+     * Transiciones aplicables: las de la celda (estado, entrada, tope) seguidas de las de
+     * (estado, entrada, λ).
+     */
+    private int[] candidatos(int estado, int entrada, int tope) {
+        int desdeLambda = ap.inicioCandidatos(estado, entrada, AutomataPilaCompilado.LAMBDA);
+        int hastaLambda = ap.finCandidatos(estado, entrada, AutomataPilaCompilado.LAMBDA);
+        int desdeTope = 0;
+        int hastaTope = 0;
+        if (tope != AutomataPilaCompilado.LAMBDA) {
+            desdeTope = ap.inicioCandidatos(estado, entrada, tope);
+            hastaTope = ap.finCandidatos(estado, entrada, tope);
+        }
+        int[] ts = new int[(hastaTope - desdeTope) + (hastaLambda - desdeLambda)];
+        System.arraycopy(ap.candidatos, desdeTope, ts, 0, hastaTope - desdeTope);
+        System.arraycopy(ap.candidatos, desdeLambda, ts, hastaTope - desdeTope, hastaLambda - desdeLambda);
+        return ts;
+    }
+
+    private Config aplicar(Config conf, int t, PilaPersistente.Fabrica pilas) {
+        PilaPersistente pila = ap.tope[t] == AutomataPilaCompilado.LAMBDA ? conf.pila : conf.pila.desapilar();
+        return new Config(ap.destino[t], pilas.apilar(pila, ap.apilar[t]));
+    }
+
+    /**
+     * ¿Algún ancestro λ cercano está en el mismo estado y con el mismo tope, más abajo, y
+     * la pila nunca bajó de su altura en el camino hasta la nueva? Entonces el camino solo
+     * miró símbolos apilados en él (y el tope, que vuelve a estar) y puede repetirse sin fin,
+     * el mismo criterio que usa {@link AnalisisDeterminismoAP}.
+     */
+    private static boolean creceEnCiclo(Config nueva, Map<Config, Config> padres) {
+        // Altura mínima de las configuraciones entre el ancestro y la nueva
+        int minima = nueva.pila.altura();
+        Config ancestro = padres.get(nueva);
+        for (int i = 0; i < PROFUNDIDAD_CICLOS && ancestro != null; i++, ancestro = padres.get(ancestro)) {
+            int altura = ancestro.pila.altura();
+            if (ancestro.estado == nueva.estado && altura < nueva.pila.altura() && minima >= altura
+                    && (ancestro.pila.esVacia() || ancestro.pila.tope() == nueva.pila.tope())) {
+                return true;
+            }
+            minima = Math.min(minima, altura);
+        }
+        return false;
+    }
+
+    /**
+     * Configuración (estado, pila); la posición la da el conjunto que la contiene.
+     */
+    private static final class Config {
+        final int estado;
+        final PilaPersistente pila;
+
+        Config(int estado, PilaPersistente pila) {
+            this.estado = estado;
+            this.pila = pila;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Config)) return false;
+            Config c = (Config) o;
+            return estado == c.estado && pila == c.pila; // pilas de la fábrica
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * estado + pila.hashCode();
+        }
+    }
+
+    private static final class Contadores {
+        long pasos;
+        int vivas;
+        int picoVivas;
+        int posicionAlcanzada;
+        boolean cicloCreciente;
+        String estadoCiclo;
+
+        void sumarViva() {
+            if (++vivas > picoVivas) picoVivas = vivas;
+        }
+
+        ResultadoAnchura resultado(Veredicto veredicto, String presupuesto, long inicio) {
+            return new ResultadoAnchura(veredicto, presupuesto, pasos, picoVivas, posicionAlcanzada,
+                    cicloCreciente, estadoCiclo, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Resultado de la simulación en anchura.
+     */
+    public static final class ResultadoAnchura {
+        private final Veredicto veredicto;
+        private final String presupuestoAgotado;
+        private final long pasos;
+        private final int configuracionesVivas;
+        private final int posicionAlcanzada;
+        private final boolean cicloCreciente;
+        private final String estadoCiclo;
+        private final long nanos;
+
+        ResultadoAnchura(Veredicto veredicto, String presupuestoAgotado, long pasos, int configuracionesVivas,
+                         int posicionAlcanzada, boolean cicloCreciente, String estadoCiclo, long nanos) {
+            this.veredicto = veredicto;
+            this.presupuestoAgotado = presupuestoAgotado;
+            this.pasos = pasos;
+            this.configuracionesVivas = configuracionesVivas;
+            this.posicionAlcanzada = posicionAlcanzada;
+            this.cicloCreciente = cicloCreciente;
+            this.estadoCiclo = estadoCiclo;
+            this.nanos = nanos;
+        }
+
+        public Veredicto getVeredicto() { return veredicto; }
+
+        /** true si la cadena fue aceptada (false también cuando se agotó el presupuesto). */
+        public boolean isAceptada() { return veredicto == Veredicto.ACEPTADA; }
+
+        public long getPasos() { return pasos; }
+
+        /** Máximo de configuraciones vivas a la vez. */
+        public int getConfiguracionesVivas() { return configuracionesVivas; }
+
+        /** Última posición de la entrada a la que llegó alguna configuración. */
+        public int getPosicionAlcanzada() { return posicionAlcanzada; }
+
+        /** Se encontró un ciclo de transiciones λ que hace crecer la pila sin límite. */
+        public boolean isCicloCreciente() { return cicloCreciente; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- SIMULACIÓN EN ANCHURA DEL AP ---\n");
+            switch (veredicto) {
+                case ACEPTADA:
+                    sb.append("RESULTADO: ACEPTADA\n");
+                    break;
+                case RECHAZADA:
+                    sb.append("RESULTADO: RECHAZADA (se exploraron todas las configuraciones)\n");
+                    break;
+                default:
+                    sb.append("RESULTADO: PRESUPUESTO AGOTADO (límite de ").append(presupuestoAgotado)
+                            .append("); no se pudo decidir.\n");
+            }
+            sb.append("Configuraciones expandidas: ").append(pasos).append("\n");
+            sb.append("Máximo de configuraciones vivas: ").append(configuracionesVivas).append("\n");
+            sb.append("Posición alcanzada en la entrada: ").append(posicionAlcanzada).append("\n");
+            if (cicloCreciente) {
+                sb.append("Advertencia: ciclo de transiciones λ en ").append(estadoCiclo)
+                        .append(" que hace crecer la pila sin límite.\n");
+            }
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return veredicto + " (" + pasos + " pasos)";
+        }
+    }
+}
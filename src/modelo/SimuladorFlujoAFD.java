@@ -0,0 +1,284 @@
+package modelo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Simula un AFD compilado sobre entradas que no caben (o no conviene cargar) en memoria.
+ *
+ * La entrada se consume en bloques de tamaño fijo y el estado actual se conserva entre
+ * bloques, así que la memoria usada es constante sin importar el tamaño de la entrada.
+ * Admite un {@link Reader}, un {@link ReadableByteChannel} (bloqueante) o una región de
+ * un {@link FileChannel} mapeada en memoria por ventanas.
+ */
+public final class SimuladorFlujoAFD {
+
+    public static final int TAMANO_BLOQUE_DEFECTO = 64 * 1024;
+
+    // Tamaño de cada ventana mapeada de un archivo
+    private static final long TAMANO_VENTANA = 64L * 1024 * 1024;
+
+    // Unsafe.invokeCleaner para desmapear ventanas; null si la JVM no lo expone
+    private static final Object UNSAFE;
+    private static final Method LIBERADOR;
+
+    static {
+        Object unsafe = null;
+        Method liberador = null;
+        try {
+            Class<?> clase = Class.forName("sun.misc.Unsafe");
+            Field campo = clase.getDeclaredField("theUnsafe");
+            campo.setAccessible(true);
+            unsafe = campo.get(null);
+            liberador = clase.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            liberador = null;
+        }
+        UNSAFE = unsafe;
+        LIBERADOR = liberador;
+    }
+
+    private final AFDCompilado afd;
+    private final int tamanoBloque;
+
+    public SimuladorFlujoAFD(AFDCompilado afd) {
+        this(afd, TAMANO_BLOQUE_DEFECTO);
+    }
+
+    /**
+     * @param tamanoBloque Número de caracteres (o bytes) que se leen por bloque.
+     */
+    public SimuladorFlujoAFD(AFDCompilado afd, int tamanoBloque) {
+        if (tamanoBloque < 16) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser de al menos 16.");
+        }
+        this.afd = afd;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Simula el AFD sobre los caracteres de un Reader.
+     */
+    public ResultadoFlujo simular(Reader lector) throws IOException {
+        Cursor cursor = new Cursor(afd.getEstadoInicial());
+        char[] bloque = new char[tamanoBloque];
+        int leidos;
+        while ((leidos = lector.read(bloque, 0, bloque.length)) >= 0) {
+            if (!cursor.consumir(bloque, 0, leidos)) break;
+        }
+        return cursor.resultado();
+    }
+
+    /**
+     * Simula el AFD sobre los bytes de un canal, decodificados con el charset dado.
+     * Las secuencias de bytes inválidas producen una CharacterCodingException.
+     */
+    public ResultadoFlujo simular(ReadableByteChannel canal, Charset charset) throws IOException {
+        Cursor cursor = new Cursor(afd.getEstadoInicial());
+        CharsetDecoder decodificador = nuevoDecodificador(charset);
+        ByteBuffer bytes = ByteBuffer.allocate(tamanoBloque);
+        CharBuffer caracteres = CharBuffer.allocate(tamanoBloque);
+
+        boolean finEntrada = false;
+        while (!finEntrada) {
+            finEntrada = canal.read(bytes) < 0;
+            bytes.flip();
+            boolean continuar = decodificar(decodificador, bytes, caracteres, finEntrada, cursor);
+            bytes.compact();
+            if (!continuar) return cursor.resultado();
+        }
+        vaciar(decodificador, caracteres, cursor);
+        return cursor.resultado();
+    }
+
+    /**
+     * Simula el AFD sobre la región [posicion, posicion + longitud) de un archivo,
+     * mapeándola en memoria por ventanas.
+     */
+    public ResultadoFlujo simular(FileChannel archivo, long posicion, long longitud, Charset charset) throws IOException {
+        Cursor cursor = new Cursor(afd.getEstadoInicial());
+        CharsetDecoder decodificador = nuevoDecodificador(charset);
+        CharBuffer caracteres = CharBuffer.allocate(tamanoBloque);
+
+        long fin = posicion + longitud;
+        if (longitud <= 0) {
+            // Sin ventanas que decodificar: el decodificador debe terminar la entrada antes de vaciarse
+            decodificar(decodificador, ByteBuffer.allocate(0), caracteres, true, cursor);
+        }
+        long inicioVentana = posicion;
+        while (inicioVentana < fin) {
+            long tamano = Math.min(TAMANO_VENTANA, fin - inicioVentana);
+            boolean ultima = inicioVentana + tamano == fin;
+            MappedByteBuffer ventana = archivo.map(FileChannel.MapMode.READ_ONLY, inicioVentana, tamano);
+            try {
+                if (!decodificar(decodificador, ventana, caracteres, ultima, cursor)) {
+                    return cursor.resultado();
+                }
+                // Los bytes de un carácter partido entre ventanas se vuelven a mapear en la siguiente
+                inicioVentana += ventana.position();
+                if (!ultima && ventana.position() == 0) {
+                    throw new IOException("No se pudo decodificar la ventana que inicia en el byte " + inicioVentana + ".");
+                }
+            } finally {
+                liberar(ventana);
+            }
+        }
+        vaciar(decodificador, caracteres, cursor);
+        return cursor.resultado();
+    }
+
+    /**
+     * Simula el AFD sobre un archivo completo mapeado en memoria.
+     */
+    public ResultadoFlujo simular(FileChannel archivo, Charset charset) throws IOException {
+        return simular(archivo, 0, archivo.size(), charset);
+    }
+
+    /**
+     * Desmapea una ventana ya consumida en lugar de esperar al GC, que con archivos
+     * grandes puede dejar vivas muchas ventanas a la vez. Si la JVM no expone
+     * invokeCleaner, la ventana queda para el GC como antes.
+     */
+    private static void liberar(MappedByteBuffer ventana) {
+        if (LIBERADOR == null) return;
+        try {
+            LIBERADOR.invoke(UNSAFE, ventana);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Sin liberación explícita; el GC la desmapeará
+        }
+    }
+
+    private static CharsetDecoder nuevoDecodificador(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * Decodifica todo lo posible de bytes, pasando cada bloque de caracteres al cursor.
+     * @return false si el AFD ya rechazó la entrada.
+     */
+    private static boolean decodificar(CharsetDecoder decodificador, ByteBuffer bytes, CharBuffer caracteres,
+                                       boolean finEntrada, Cursor cursor) throws IOException {
+        while (true) {
+            CoderResult cr = decodificador.decode(bytes, caracteres, finEntrada);
+            if (cr.isError()) cr.throwException();
+            if (!cursor.consumir(caracteres)) return false;
+            if (cr.isUnderflow()) return true;
+        }
+    }
+
+    private static void vaciar(CharsetDecoder decodificador, CharBuffer caracteres, Cursor cursor) throws IOException {
+        while (true) {
+            CoderResult cr = decodificador.flush(caracteres);
+            if (cr.isError()) cr.throwException();
+            if (!cursor.consumir(caracteres) || cr.isUnderflow()) return;
+        }
+    }
+
+    /**
+     * Estado de una simulación en curso: se conserva entre bloques.
+     */
+    private final class Cursor {
+        private int estado;
+        private long leidos;
+        private long posicionRechazo = -1;
+
+        Cursor(int estado) {
+            this.estado = estado;
+        }
+
+        /**
+         * Consume el contenido pendiente del buffer y lo deja listo para volver a escribirse.
+         */
+        boolean consumir(CharBuffer caracteres) {
+            caracteres.flip();
+            boolean continuar = consumir(caracteres.array(), caracteres.arrayOffset() + caracteres.position(),
+                    caracteres.arrayOffset() + caracteres.limit());
+            caracteres.clear();
+            return continuar;
+        }
+
+        /**
+         * Aplica δ sobre bloque[desde, hasta).
+         * @return false si el AFD cayó en el estado muerto (la entrada ya es rechazada).
+         */
+        boolean consumir(char[] bloque, int desde, int hasta) {
+            final int muerto = afd.getEstadoMuerto();
+            int e = estado;
+            for (int i = desde; i < hasta; i++) {
+                e = afd.siguiente(e, bloque[i]);
+                if (e == muerto) {
+                    estado = e;
+                    posicionRechazo = leidos + (i - desde);
+                    leidos += i - desde + 1;
+                    return false;
+                }
+            }
+            estado = e;
+            leidos += hasta - desde;
+            return true;
+        }
+
+        ResultadoFlujo resultado() {
+            return new ResultadoFlujo(posicionRechazo < 0 && afd.esFinal(estado), leidos,
+                    posicionRechazo, afd.nombreEstado(estado));
+        }
+    }
+
+    /**
+     * Resultado de simular un flujo de entrada.
+     */
+    public static final class ResultadoFlujo {
+        private final boolean aceptada;
+        private final long caracteresLeidos;
+        private final long posicionRechazo;
+        private final String estadoFinal;
+
+        ResultadoFlujo(boolean aceptada, long caracteresLeidos, long posicionRechazo, String estadoFinal) {
+            this.aceptada = aceptada;
+            this.caracteresLeidos = caracteresLeidos;
+            this.posicionRechazo = posicionRechazo;
+            this.estadoFinal = estadoFinal;
+        }
+
+        public boolean isAceptada() { return aceptada; }
+
+        /** Caracteres procesados hasta terminar (o hasta el símbolo que rechazó la entrada). */
+        public long getCaracteresLeidos() { return caracteresLeidos; }
+
+        /**
+         * Posición (en caracteres, desde 0) del primer símbolo que llevó al AFD a rechazar:
+         * un símbolo fuera de Σ o sin transición definida. Es -1 si no hubo tal símbolo,
+         * aunque la entrada pueda ser rechazada por terminar en un estado no final.
+         */
+        public long getPosicionRechazo() { return posicionRechazo; }
+
+        /** Estado alcanzado, o null si el AFD cayó en el estado muerto. */
+        public String getEstadoFinal() { return estadoFinal; }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA")
+                    .append(" (").append(caracteresLeidos).append(" caracteres leídos");
+            if (posicionRechazo >= 0) {
+                sb.append(", rechazo en la posición ").append(posicionRechazo);
+            } else {
+                sb.append(", estado final: ").append(estadoFinal);
+            }
+            return sb.append(")").toString();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Simulación de un AP con una pila estructurada como grafo (GSS): en lugar de una pila
+ * por rama, todas las configuraciones vivas comparten un único grafo en el que las
+ * partes comunes de sus pilas son los mismos nodos.
+ *
+ * Los nodos de control son los pares (estado, posición de lectura); una arista u -X-> v
+ * dice que X puede estar sobre cualquiera de las pilas que representa v. Las pilas
+ * posibles en (q, i) son las etiquetas de los caminos que van de (q, i) al nodo final, y
+ * toda pila termina en un símbolo de fondo ⊥ que el AP no ve. El grafo se satura con el
+ * algoritmo post* para sistemas de pila (Schwoon):
+ * <ul>
+ *   <li>(q, a, X) -> (p, β) sobre la arista (q, i) -X-> v apila β desde (p, i + |a|)
+ *       hasta v, con nodos intermedios propios de la transición y la posición.</li>
+ *   <li>Si β es λ, (p, i + |a|) hereda las aristas de v (una arista vacía).</li>
+ *   <li>(q, a, λ) -> (p, β) no mira el tope: apila β desde (p, i + |a|) hasta un nodo
+ *       que hereda las aristas de (q, i), de modo que vale para cualquier pila,
+ *       incluida la vacía.</li>
+ * </ul>
+ * La cadena se acepta si hay una arista (f, n) -⊥-> final con f final, es decir, si
+ * (f, n) es alcanzable con la pila vacía. El grafo tiene O(|Q|·n + |δ|·|β|·n) nodos y
+ * cada arista se procesa una vez, así que el costo es polinomial aunque el número de
+ * ramas sea exponencial, y los ciclos λ (también los que hacen crecer la pila) terminan.
+ */
+public final class SimuladorGSSAP {
+
+    private final AutomataPilaCompilado ap;
+
+    // Nodos intermedios que necesita cada transición por posición
+    private final int[] largoCadena;
+    private final int[] inicioCadena;
+    private final int totalCadenas;
+
+    public SimuladorGSSAP(AutomataPilaCompilado ap) {
+        this.ap = ap;
+        int n = ap.getNumTransiciones();
+        largoCadena = new int[n];
+        inicioCadena = new int[n];
+        int total = 0;
+        for (int t = 0; t < n; t++) {
+            int k = ap.apilar[t].length;
+            largoCadena[t] = ap.tope[t] == AutomataPilaCompilado.LAMBDA ? k : Math.max(k - 1, 0);
+            inicioCadena[t] = total;
+            total += largoCadena[t];
+        }
+        totalCadenas = total;
+    }
+
+    public ResultadoGSS simular(String cadena) {
+        long inicio = System.nanoTime();
+        Saturacion s = new Saturacion(cadena);
+        boolean aceptada = s.saturar();
+        return new ResultadoGSS(aceptada, s.nodosUsados, s.aristas.tamano(), s.vacias.tamano(),
+                System.nanoTime() - inicio);
+    }
+
+    /**
+     * Estado de una simulación: el grafo y la lista de aristas pendientes.
+     */
+    private final class Saturacion {
+        private final String cadena;
+        private final int n;
+        private final int ancho;
+        private final int numControl;
+        private final int nodoFinal;
+        private final int nodoBajoZ0;
+        private final int numNodos;
+        private final int fondo;
+        private final int numEtiquetas;
+
+        // Aristas etiquetadas y vacías ya vistas (procesadas o pendientes)
+        private final TablaClaves aristas = new TablaClaves();
+        private final TablaClaves vacias = new TablaClaves();
+
+        // Aristas procesadas que salen de cada nodo: pares (etiqueta, destino)
+        private final int[][] salidas;
+        private final int[] numSalidas;
+
+        // Nodos w con una arista vacía w -> u, por u
+        private final int[][] heredan;
+        private final int[] numHeredan;
+
+        // Nodos de control cuyas transiciones con tope λ ya se aplicaron
+        private final boolean[] activado;
+
+        private int[] pendientes = new int[3 * 64];
+        private int numPendientes;
+        private int nodosUsados;
+
+        Saturacion(String cadena) {
+            this.cadena = cadena;
+            n = cadena.length();
+            ancho = n + 1;
+            numControl = ap.getNumEstados() * ancho;
+            nodoFinal = numControl;
+            nodoBajoZ0 = numControl + 1;
+            long nodos = numControl + 2L + (long) totalCadenas * ancho;
+            fondo = ap.getNumSimbolosPila();
+            numEtiquetas = fondo + 1;
+            if (nodos > Integer.MAX_VALUE || nodos * nodos > Long.MAX_VALUE / numEtiquetas) {
+                throw new IllegalArgumentException("La cadena es demasiado larga para la simulación con GSS.");
+            }
+            numNodos = (int) nodos;
+            salidas = new int[numNodos][];
+            numSalidas = new int[numNodos];
+            heredan = new int[numNodos][];
+            numHeredan = new int[numNodos];
+            activado = new boolean[numControl];
+        }
+
+        boolean saturar() {
+            int nodoInicial = ap.getEstadoInicial() * ancho;
+            if (ap.simboloInicialPila == AutomataPilaCompilado.LAMBDA) {
+                agregar(nodoInicial, fondo, nodoFinal);
+            } else {
+                agregar(nodoInicial, ap.simboloInicialPila, nodoBajoZ0);
+                agregar(nodoBajoZ0, fondo, nodoFinal);
+            }
+
+            while (numPendientes > 0) {
+                numPendientes -= 3;
+                int u = pendientes[numPendientes];
+                int etiqueta = pendientes[numPendientes + 1];
+                int v = pendientes[numPendientes + 2];
+                if (procesar(u, etiqueta, v)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Registra la arista u -etiqueta-> v, la pasa a los nodos que heredan de u y
+         * aplica las transiciones si u es un nodo de control.
+         * @return true si la arista prueba que la cadena se acepta.
+         */
+        private boolean procesar(int u, int etiqueta, int v) {
+            if (numSalidas[u] == 0) nodosUsados++;
+            salidas[u] = agregarPar(salidas[u], numSalidas[u], etiqueta, v);
+            numSalidas[u] += 2;
+
+            for (int k = 0; k < numHeredan[u]; k++) {
+                agregar(heredan[u][k], etiqueta, v);
+            }
+            if (u >= numControl) return false;
+
+            int q = u / ancho;
+            int i = u % ancho;
+            if (etiqueta == fondo && i == n && ap.esFinal(q)) return true;
+
+            if (!activado[u]) {
+                activado[u] = true;
+                for (int t : ap.transicionesDe[q]) {
+                    if (ap.tope[t] == AutomataPilaCompilado.LAMBDA && aplica(t, i)) {
+                        int ultimo = apilarCadena(t, i, ap.apilar[t].length);
+                        agregarVacia(ultimo, u);
+                    }
+                }
+            }
+            if (etiqueta == fondo) return false;
+
+            for (int t : ap.transicionesDe[q]) {
+                if (ap.tope[t] != etiqueta || !aplica(t, i)) continue;
+                int[] beta = ap.apilar[t];
+                if (beta.length == 0) {
+                    agregarVacia(destino(t, i), v);
+                } else {
+                    int ultimo = apilarCadena(t, i, beta.length - 1);
+                    agregar(ultimo, beta[beta.length - 1], v);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Aristas (p, i + |a|) -β[0]-> s0 -β[1]-> ... de los primeros simbolos símbolos
+         * de β, por los nodos intermedios de la transición t en la posición i.
+         * @return El último nodo de la cadena.
+         */
+        private int apilarCadena(int t, int i, int simbolos) {
+            int anterior = destino(t, i);
+            for (int j = 0; j < simbolos; j++) {
+                int siguiente = numControl + 2 + (inicioCadena[t] + j) * ancho + i;
+                agregar(anterior, ap.apilar[t][j], siguiente);
+                anterior = siguiente;
+            }
+            return anterior;
+        }
+
+        private int destino(int t, int i) {
+            String a = ap.entrada[t];
+            return ap.destino[t] * ancho + i + (a == null ? 0 : a.length());
+        }
+
+        private boolean aplica(int t, int i) {
+            String a = ap.entrada[t];
+            return a == null || cadena.startsWith(a, i);
+        }
+
+        private void agregar(int u, int etiqueta, int v) {
+            if (!aristas.agregar(((long) u * numEtiquetas + etiqueta) * numNodos + v)) return;
+            if (numPendientes + 3 > pendientes.length) pendientes = Arrays.copyOf(pendientes, pendientes.length * 2);
+            pendientes[numPendientes++] = u;
+            pendientes[numPendientes++] = etiqueta;
+            pendientes[numPendientes++] = v;
+        }
+
+        /** Arista vacía w -> u: w hereda todas las aristas de u, las actuales y las futuras. */
+        private void agregarVacia(int w, int u) {
+            if (w == u || !vacias.agregar((long) w * numNodos + u)) return;
+            if (heredan[u] == null) heredan[u] = new int[4];
+            else if (numHeredan[u] == heredan[u].length) heredan[u] = Arrays.copyOf(heredan[u], numHeredan[u] * 2);
+            heredan[u][numHeredan[u]++] = w;
+            for (int k = 0; k < numSalidas[u]; k += 2) {
+                agregar(w, salidas[u][k], salidas[u][k + 1]);
+            }
+        }
+
+        private int[] agregarPar(int[] pares, int usados, int a, int b) {
+            if (pares == null) pares = new int[4];
+            else if (usados + 2 > pares.length) pares = Arrays.copyOf(pares, pares.length * 2);
+            pares[usados] = a;
+            pares[usados + 1] = b;
+            return pares;
+        }
+    }
+
+    /**
+     * Resultado de la simulación con GSS.
+     */
+    public static final class ResultadoGSS {
+        private final boolean aceptada;
+        private final int nodos;
+        private final int aristas;
+        private final int aristasVacias;
+        private final long nanos;
+
+        ResultadoGSS(boolean aceptada, int nodos, int aristas, int aristasVacias, long nanos) {
+            this.aceptada = aceptada;
+            this.nodos = nodos;
+            this.aristas = aristas;
+            this.aristasVacias = aristasVacias;
+            this.nanos = nanos;
+        }
+
+        public boolean isAceptada() { return aceptada; }
+
+        /** Nodos del grafo con al menos una arista saliente. */
+        public int getNodos() { return nodos; }
+
+        public int getAristas() { return aristas; }
+
+        public int getAristasVacias() { return aristasVacias; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- SIMULACIÓN DEL AP CON PILA EN GRAFO (GSS) ---\n");
+            sb.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+            sb.append("Nodos del grafo: ").append(nodos).append("\n");
+            sb.append("Aristas: ").append(aristas).append(" (+ ").append(aristasVacias).append(" vacías)\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return (aceptada ? "ACEPTADA" : "RECHAZADA") + " (" + nodos + " nodos, " + aristas + " aristas)";
+        }
+    }
+}
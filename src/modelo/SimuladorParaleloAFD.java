@@ -0,0 +1,184 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulación especulativa en paralelo de una sola cadena muy larga sobre un AFD compilado.
+ *
+ * La cadena se divide en tramos. Para cada tramo se calcula en paralelo la función
+ * estado -> estado que resulta de componer δ sobre todo el tramo; luego se componen
+ * esas funciones en orden partiendo de q0. Como el estado real al inicio de un tramo
+ * debe ser imagen de δ(·, c) para el carácter c anterior al tramo, solo se especula
+ * desde ese conjunto, y los caminos que confluyen en un mismo estado se fusionan
+ * para no recorrerlos dos veces.
+ */
+public final class SimuladorParaleloAFD {
+
+    // Por debajo de esta longitud la simulación secuencial es más rápida
+    static final int LONGITUD_MINIMA = 1 << 16;
+
+    // Longitud mínima de cada tramo
+    private static final int TAMANO_MINIMO_TRAMO = 1 << 14;
+
+    // Con más estados el costo especulativo supera la ganancia del paralelismo
+    static final int MAX_ESTADOS = 1024;
+
+    // Cada cuántos caracteres se buscan caminos que confluyeron
+    private static final int PERIODO_FUSION = 32;
+
+    private final AFDCompilado afd;
+    private final ForkJoinPool pool;
+
+    public SimuladorParaleloAFD(AFDCompilado afd) {
+        this(afd, ForkJoinPool.commonPool());
+    }
+
+    public SimuladorParaleloAFD(AFDCompilado afd, ForkJoinPool pool) {
+        this.afd = afd;
+        this.pool = pool;
+    }
+
+    public boolean acepta(CharSequence cadena) {
+        return afd.esFinal(recorrer(cadena));
+    }
+
+    /**
+     * Estado alcanzado tras leer toda la cadena desde q0. Recurre a la simulación
+     * secuencial si la cadena es corta, el AFD demasiado grande o no hay más de un hilo.
+     */
+    public int recorrer(CharSequence cadena) {
+        int longitud = cadena.length();
+        int numTramos = Math.min(pool.getParallelism() * 4, longitud / TAMANO_MINIMO_TRAMO);
+        if (longitud < LONGITUD_MINIMA || afd.getNumEstados() > MAX_ESTADOS
+                || pool.getParallelism() < 2 || numTramos < 2) {
+            return afd.recorrer(afd.getEstadoInicial(), cadena, 0, longitud);
+        }
+
+        List<Tramo> tramos = new ArrayList<>(numTramos);
+        for (int i = 0; i < numTramos; i++) {
+            int desde = (int) ((long) longitud * i / numTramos);
+            int hasta = (int) ((long) longitud * (i + 1) / numTramos);
+            tramos.add(new Tramo(cadena, desde, hasta));
+        }
+        pool.invoke(new Tarea(tramos));
+
+        // Componer las funciones de cada tramo en orden
+        int estado = afd.getEstadoInicial();
+        for (Tramo t : tramos) {
+            estado = t.funcion[estado];
+            if (estado == afd.getEstadoMuerto()) break;
+        }
+        return estado;
+    }
+
+    /**
+     * Lanza el cálculo de todos los tramos y espera a que terminen.
+     */
+    private static final class Tarea extends RecursiveTask<Void> {
+        private final List<Tramo> tramos;
+
+        Tarea(List<Tramo> tramos) {
+            this.tramos = tramos;
+        }
+
+        @Override
+        protected Void compute() {
+            ForkJoinTask.invokeAll(tramos);
+            return null;
+        }
+    }
+
+    /**
+     * Calcula la función de transición compuesta sobre cadena[desde, hasta).
+     */
+    private final class Tramo extends RecursiveTask<Void> {
+        private final CharSequence cadena;
+        private final int desde;
+        private final int hasta;
+
+        // Estado al inicio del tramo -> estado al final (-1 si no se especuló desde él)
+        int[] funcion;
+
+        Tramo(CharSequence cadena, int desde, int hasta) {
+            this.cadena = cadena;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Void compute() {
+            int n = afd.getNumEstados();
+            funcion = new int[n];
+            Arrays.fill(funcion, -1);
+
+            // Caminos vivos (sin repetidos) y el camino que sigue cada estado de partida
+            int[] vivos = new int[n];
+            int numVivos = 0;
+            int[] caminoDe = new int[n];
+            Arrays.fill(caminoDe, -1);
+
+            if (desde == 0) {
+                vivos[numVivos] = afd.getEstadoInicial();
+                caminoDe[afd.getEstadoInicial()] = numVivos++;
+            } else {
+                // Solo los estados a los que se puede entrar con el carácter anterior
+                char anterior = cadena.charAt(desde - 1);
+                int[] indice = new int[n];
+                Arrays.fill(indice, -1);
+                for (int q = 0; q < n; q++) {
+                    int p = afd.siguiente(q, anterior);
+                    if (indice[p] < 0) {
+                        indice[p] = numVivos;
+                        vivos[numVivos++] = p;
+                    }
+                    caminoDe[p] = indice[p];
+                }
+            }
+
+            // marca[estado] = época en que se vio; destino[estado] = camino fusionado
+            int[] marca = new int[n];
+            int[] destino = new int[n];
+            int[] remapeo = new int[n];
+            int epoca = 0;
+
+            final int[] tabla = afd.tabla();
+            final int k = afd.getNumColumnas();
+            for (int i = desde; i < hasta; i++) {
+                int columna = afd.columna(cadena.charAt(i));
+                for (int j = 0; j < numVivos; j++) {
+                    vivos[j] = tabla[vivos[j] * k + columna];
+                }
+                if (numVivos == 1 || (i - desde) % PERIODO_FUSION != 0) continue;
+
+                // Fusionar caminos que llegaron al mismo estado
+                epoca++;
+                int nuevos = 0;
+                for (int j = 0; j < numVivos; j++) {
+                    int s = vivos[j];
+                    if (marca[s] != epoca) {
+                        marca[s] = epoca;
+                        destino[s] = nuevos;
+                        vivos[nuevos++] = s;
+                    }
+                    remapeo[j] = destino[s];
+                }
+                if (nuevos < numVivos) {
+                    for (int q = 0; q < n; q++) {
+                        if (caminoDe[q] >= 0) caminoDe[q] = remapeo[caminoDe[q]];
+                    }
+                    numVivos = nuevos;
+                }
+            }
+
+            for (int q = 0; q < n; q++) {
+                if (caminoDe[q] >= 0) funcion[q] = vivos[caminoDe[q]];
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package modelo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Búsqueda en profundidad de un AP repartida entre los núcleos con fork-join.
+ *
+ * Cada tarea explora su rama con una pila local de configuraciones. Una rama hermana
+ * se publica como tarea nueva, para que otro hilo la robe, solo si el pool tiene más
+ * de un hilo, la cola local está vacía y hay hilos ociosos o la pila local ya es
+ * profunda; si no, se queda en la pila local (en una máquina de un núcleo la búsqueda
+ * es una sola tarea, sin el costo de crear y robar tareas que nadie más va a ejecutar).
+ * Un conjunto concurrente de configuraciones visitadas evita que dos hilos exploren la
+ * misma configuración (quien la añade es responsable de explorarla), y en cuanto una
+ * rama acepta se marca la bandera de fin y todas las tareas pendientes terminan en su
+ * siguiente paso.
+ *
+ * Como la simulación en anchura, tiene un presupuesto de configuraciones para los AP
+ * cuyos ciclos λ hacen crecer la pila sin límite.
+ */
+public final class SimuladorParaleloAP {
+
+    public static final long CONFIGURACIONES_POR_DEFECTO = 2_000_000;
+
+    /**
+     * Presupuesto para la vista, que espera la respuesta: del orden del de la simulación
+     * en anchura, así un ciclo λ que hace crecer la pila se informa en fracciones de segundo.
+     */
+    public static final long CONFIGURACIONES_INTERACTIVAS = 200_000;
+
+    // Configuraciones en la pila local a partir de las cuales se publica aunque no haya hilos ociosos
+    private static final int PILA_PROFUNDA = 64;
+
+    private final AutomataPilaCompilado ap;
+    private final ForkJoinPool pool;
+    private final long maxConfiguraciones;
+
+    /** Simulador sobre el pool común, con el presupuesto por defecto. */
+    public SimuladorParaleloAP(AutomataPilaCompilado ap) {
+        this(ap, ForkJoinPool.commonPool(), CONFIGURACIONES_POR_DEFECTO);
+    }
+
+    /**
+     * @param maxConfiguraciones Configuraciones distintas que se pueden visitar en total.
+     */
+    public SimuladorParaleloAP(AutomataPilaCompilado ap, ForkJoinPool pool, long maxConfiguraciones) {
+        if (maxConfiguraciones <= 0) {
+            throw new IllegalArgumentException("El presupuesto debe ser positivo.");
+        }
+        this.ap = ap;
+        this.pool = pool;
+        this.maxConfiguraciones = maxConfiguraciones;
+    }
+
+    public ResultadoParalelo simular(String cadena) {
+        long inicio = System.nanoTime();
+        Busqueda busqueda = new Busqueda(cadena);
+        PilaPersistente pilaInicial = ap.simboloInicialPila == AutomataPilaCompilado.LAMBDA
+                ? PilaPersistente.VACIA : busqueda.pilas.apilar(PilaPersistente.VACIA, ap.simboloInicialPila);
+        Config inicial = new Config(ap.getEstadoInicial(), 0, pilaInicial);
+        busqueda.visitadas.add(inicial);
+        busqueda.configuraciones.incrementAndGet();
+        pool.invoke(new Rama(null, busqueda, inicial));
+
+        SimuladorAnchuraAP.Veredicto veredicto = busqueda.aceptada.get() ? SimuladorAnchuraAP.Veredicto.ACEPTADA
+                : busqueda.presupuestoAgotado.get() ? SimuladorAnchuraAP.Veredicto.PRESUPUESTO_AGOTADO
+                : SimuladorAnchuraAP.Veredicto.RECHAZADA;
+        return new ResultadoParalelo(veredicto, busqueda.configuraciones.get(), busqueda.tareas.get(),
+                pool.getParallelism(), System.nanoTime() - inicio);
+    }
+
+    /**
+     * Estado compartido por todas las tareas de una simulación.
+     */
+    private static final class Busqueda {
+        final String cadena;
+        final Set<Config> visitadas = ConcurrentHashMap.newKeySet();
+        // Pilas compartidas para que comparar configuraciones sea O(1)
+        final PilaPersistente.Fabrica pilas = PilaPersistente.Fabrica.concurrente();
+        final AtomicBoolean terminada = new AtomicBoolean();
+        final AtomicBoolean aceptada = new AtomicBoolean();
+        final AtomicBoolean presupuestoAgotado = new AtomicBoolean();
+        final AtomicLong configuraciones = new AtomicLong();
+        final AtomicInteger tareas = new AtomicInteger(1);
+
+        Busqueda(String cadena) {
+            this.cadena = cadena;
+        }
+    }
+
+    /**
+     * Tarea que explora en profundidad desde una configuración y publica ramas hermanas
+     * mientras los demás hilos tengan poco trabajo. Es un CountedCompleter: la tarea
+     * termina cuando terminan ella y sus ramas publicadas, sin bloquearse esperándolas
+     * (un join anidado por cada rama desbordaría la pila del hilo en búsquedas profundas).
+     */
+    private final class Rama extends CountedCompleter<Void> {
+        private final Busqueda busqueda;
+        private final Config raiz;
+
+        Rama(Rama padre, Busqueda busqueda, Config raiz) {
+            super(padre);
+            this.busqueda = busqueda;
+            this.raiz = raiz;
+        }
+
+        @Override
+        public void compute() {
+            ArrayDeque<Config> pendientes = new ArrayDeque<>();
+            List<Config> hijas = new ArrayList<>();
+            pendientes.push(raiz);
+            String cadena = busqueda.cadena;
+
+            while (!pendientes.isEmpty() && !busqueda.terminada.get()) {
+                Config conf = pendientes.pop();
+                if (conf.posicion == cadena.length() && conf.pila.esVacia() && ap.esFinal(conf.estado)) {
+                    busqueda.aceptada.set(true);
+                    busqueda.terminada.set(true);
+                    break;
+                }
+
+                hijas.clear();
+                expandir(conf, busqueda, hijas);
+                for (int k = hijas.size() - 1; k >= 0; k--) {
+                    Config hija = hijas.get(k);
+                    if (!busqueda.visitadas.add(hija)) continue;
+                    if (busqueda.configuraciones.incrementAndGet() > maxConfiguraciones) {
+                        busqueda.presupuestoAgotado.set(true);
+                        busqueda.terminada.set(true);
+                        break;
+                    }
+                    // Se queda siempre con una rama; las demás se publican si alguien puede robarlas
+                    if (!pendientes.isEmpty() && convienePublicar(pendientes.size())) {
+                        addToPendingCount(1);
+                        new Rama(this, busqueda, hija).fork();
+                        busqueda.tareas.incrementAndGet();
+                    } else {
+                        pendientes.push(hija);
+                    }
+                }
+            }
+            tryComplete();
+        }
+
+        /**
+         * Publicar solo vale si hay otro hilo que pueda robar la tarea y la cola local no
+         * tiene ya trabajo para robar; entonces, si hay hilos ociosos o si la pila local
+         * es profunda (una rama larga que conviene repartir).
+         */
+        private boolean convienePublicar(int enPila) {
+            return pool.getParallelism() > 1 && getQueuedTaskCount() == 0
+                    && (pool.getActiveThreadCount() < pool.getParallelism() || enPila >= PILA_PROFUNDA);
+        }
+    }
+
+    /**
+     * Sucesoras de una configuración, en el orden de la búsqueda secuencial: primero las
+     * que consumen entrada y al final las λ.
+     */
+    private void expandir(Config conf, Busqueda busqueda, List<Config> hijas) {
+        String cadena = busqueda.cadena;
+        int tope = conf.pila.esVacia() ? AutomataPilaCompilado.LAMBDA : conf.pila.tope();
+        if (conf.posicion < cadena.length()) {
+            int simbolo = ap.entradaDeCaracter(cadena.charAt(conf.posicion));
+            if (simbolo != AutomataPilaCompilado.LAMBDA) {
+                aplicarCelda(conf, simbolo, tope, 1, busqueda.pilas, hijas);
+            }
+            for (int larga : ap.entradasLargas) {
+                String texto = ap.entrada(larga);
+                if (cadena.startsWith(texto, conf.posicion)) {
+                    aplicarCelda(conf, larga, tope, texto.length(), busqueda.pilas, hijas);
+                }
+            }
+        }
+        aplicarCelda(conf, AutomataPilaCompilado.LAMBDA, tope, 0, busqueda.pilas, hijas);
+    }
+
+    private void aplicarCelda(Config conf, int entrada, int tope, int consumidos, PilaPersistente.Fabrica pilas,
+                              List<Config> hijas) {
+        for (int vuelta = 0; vuelta < 2; vuelta++) {
+            int celda = vuelta == 0 ? tope : AutomataPilaCompilado.LAMBDA;
+            if (vuelta == 0 && celda == AutomataPilaCompilado.LAMBDA) continue;
+            int fin = ap.finCandidatos(conf.estado, entrada, celda);
+            for (int i = ap.inicioCandidatos(conf.estado, entrada, celda); i < fin; i++) {
+                int t = ap.candidatos[i];
+                PilaPersistente pila = vuelta == 0 ? conf.pila.desapilar() : conf.pila;
+                hijas.add(new Config(ap.destino[t], conf.posicion + consumidos, pilas.apilar(pila, ap.apilar[t])));
+            }
+        }
+    }
+
+    /**
+     * Configuración instantánea (estado, posición de lectura, pila de la fábrica).
+     */
+    private static final class Config {
+        final int estado;
+        final int posicion;
+        final PilaPersistente pila;
+
+        Config(int estado, int posicion, PilaPersistente pila) {
+            this.estado = estado;
+            this.posicion = posicion;
+            this.pila = pila;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Config)) return false;
+            Config c = (Config) o;
+            return estado == c.estado && posicion == c.posicion && pila == c.pila; // pilas de la fábrica
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * estado + posicion) + pila.hashCode();
+        }
+    }
+
+    /**
+     * Resultado de la búsqueda paralela.
+     */
+    public static final class ResultadoParalelo {
+        private final SimuladorAnchuraAP.Veredicto veredicto;
+        private final long configuraciones;
+        private final int tareas;
+        private final int hilos;
+        private final long nanos;
+
+        ResultadoParalelo(SimuladorAnchuraAP.Veredicto veredicto, long configuraciones, int tareas, int hilos,
+                          long nanos) {
+            this.veredicto = veredicto;
+            this.configuraciones = configuraciones;
+            this.tareas = tareas;
+            this.hilos = hilos;
+            this.nanos = nanos;
+        }
+
+        public SimuladorAnchuraAP.Veredicto getVeredicto() { return veredicto; }
+
+        /** true si la cadena fue aceptada (false también cuando se agotó el presupuesto). */
+        public boolean isAceptada() { return veredicto == SimuladorAnchuraAP.Veredicto.ACEPTADA; }
+
+        /** Configuraciones distintas visitadas. */
+        public long getConfiguraciones() { return configuraciones; }
+
+        /** Tareas creadas, incluida la inicial. */
+        public int getTareas() { return tareas; }
+
+        public int getHilos() { return hilos; }
+
+        public long getNanos() { return nanos; }
+
+        public String describir() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- SIMULACIÓN PARALELA DEL AP ---\n");
+            switch (veredicto) {
+                case ACEPTADA:
+                    sb.append("RESULTADO: ACEPTADA (se cancelaron las demás ramas)\n");
+                    break;
+                case RECHAZADA:
+                    sb.append("RESULTADO: RECHAZADA (se exploraron todas las configuraciones)\n");
+                    break;
+                default:
+                    sb.append("RESULTADO: PRESUPUESTO AGOTADO (límite de configuraciones); no se pudo decidir.\n");
+            }
+            sb.append("Configuraciones visitadas: ").append(configuraciones).append("\n");
+            sb.append("Tareas: ").append(tareas).append(" en ").append(hilos).append(" hilos\n");
+            sb.append(String.format("Tiempo: %.3f ms%n", nanos / 1e6));
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return veredicto + " (" + configuraciones + " configuraciones, " + tareas + " tareas)";
+        }
+    }
+}
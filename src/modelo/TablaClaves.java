@@ -0,0 +1,68 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de claves long no negativas con direccionamiento abierto, sin objetos por
+ * elemento. Lo usan los motores que guardan millones de tuplas codificadas como long.
+ */
+final class TablaClaves {
+
+    private static final long VACIA = -1L;
+
+    private long[] claves;
+    private int tamano;
+
+    TablaClaves() {
+        claves = new long[64];
+        Arrays.fill(claves, VACIA);
+    }
+
+    /**
+     * Añade la clave.
+     * @return true si no estaba.
+     */
+    boolean agregar(long clave) {
+        if (clave < 0) throw new IllegalArgumentException("Las claves no pueden ser negativas.");
+        if (2 * (tamano + 1) > claves.length) crecer();
+        int mascara = claves.length - 1;
+        for (int i = indice(clave, mascara); ; i = (i + 1) & mascara) {
+            if (claves[i] == VACIA) {
+                claves[i] = clave;
+                tamano++;
+                return true;
+            }
+            if (claves[i] == clave) return false;
+        }
+    }
+
+    boolean contiene(long clave) {
+        int mascara = claves.length - 1;
+        for (int i = indice(clave, mascara); ; i = (i + 1) & mascara) {
+            if (claves[i] == VACIA) return false;
+            if (claves[i] == clave) return true;
+        }
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    private static int indice(long clave, int mascara) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void crecer() {
+        long[] viejas = claves;
+        claves = new long[viejas.length * 2];
+        Arrays.fill(claves, VACIA);
+        int mascara = claves.length - 1;
+        for (long clave : viejas) {
+            if (clave == VACIA) continue;
+            int i = indice(clave, mascara);
+            while (claves[i] != VACIA) i = (i + 1) & mascara;
+            claves[i] = clave;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Oyente que guarda la traza de un AP sin formatearla: cada paso es un registro de
+ * tamaño fijo (nivel, id de la transición y la pila persistente sobre la que se aplicó,
+ * que comparte sus nodos con las demás ramas), así que registrar un paso es O(1) sin
+ * importar la altura de la pila ni la profundidad de la búsqueda.
+ *
+ * El texto se construye solo cuando alguien pide un rango de pasos, con el formato
+ * resumido de {@link TrazaTexto}: sangría y pilas acotadas, así que una página cuesta lo
+ * mismo a cualquier profundidad. En búsquedas poco profundas con pilas bajas coincide
+ * con el registro tradicional; el registro completo sigue disponible pasando un
+ * StringBuilder al simulador.
+ */
+public class TrazaCompactaAP implements OyenteTraza {
+
+    // Códigos de los pasos que no son transiciones (las transiciones guardan su id)
+    private static final int ACEPTACION = -1;
+    private static final int CICLO = -2;
+    private static final int YA_FALLIDA = -3;
+
+    private CharSequence cadena;
+    private String simboloInicial;
+    private AutomataPilaCompilado ap;
+    private boolean terminada;
+    private boolean aceptada;
+
+    // Un registro por paso: nivel, transición o código, y la pila de partida
+    // (o el nombre del estado para los pasos que no son transiciones)
+    private int[] niveles = new int[64];
+    private int[] transiciones = new int[64];
+    private Object[] datos = new Object[64];
+    private int numPasos;
+
+    @Override
+    public void inicio(Modelo modelo, CharSequence cadena) {
+        if (modelo != Modelo.AP) {
+            throw new IllegalArgumentException("La traza compacta solo registra simulaciones de AP.");
+        }
+        this.cadena = cadena;
+        this.simboloInicial = null;
+        this.ap = null;
+        this.terminada = false;
+        this.aceptada = false;
+        Arrays.fill(datos, 0, numPasos, null);
+        this.numPasos = 0;
+    }
+
+    @Override
+    public void fin(boolean aceptada) {
+        this.terminada = true;
+        this.aceptada = aceptada;
+    }
+
+    @Override
+    public void pilaInicial(String simbolo) {
+        this.simboloInicial = simbolo;
+    }
+
+    @Override
+    public void transicionPila(int nivel, AutomataPilaCompilado ap, int transicion, PilaPersistente pilaAntes) {
+        this.ap = ap;
+        registrar(nivel, transicion, pilaAntes);
+    }
+
+    @Override
+    public void aceptacionPila(int nivel, String estado) {
+        registrar(nivel, ACEPTACION, estado);
+    }
+
+    @Override
+    public void configuracionRepetida(int nivel, String estado, boolean ciclo) {
+        registrar(nivel, ciclo ? CICLO : YA_FALLIDA, estado);
+    }
+
+    private void registrar(int nivel, int transicion, Object dato) {
+        if (numPasos == niveles.length) {
+            int capacidad = numPasos * 2;
+            niveles = Arrays.copyOf(niveles, capacidad);
+            transiciones = Arrays.copyOf(transiciones, capacidad);
+            datos = Arrays.copyOf(datos, capacidad);
+        }
+        niveles[numPasos] = nivel;
+        transiciones[numPasos] = transicion;
+        datos[numPasos] = dato;
+        numPasos++;
+    }
+
+    /** Pasos registrados: transiciones, configuraciones repetidas y la aceptación. */
+    public int getNumPasos() {
+        return numPasos;
+    }
+
+    public boolean isTerminada() {
+        return terminada;
+    }
+
+    public boolean isAceptada() {
+        return aceptada;
+    }
+
+    /**
+     * Escribe el encabezado, los pasos [desde, hasta) y, si la simulación terminó, el
+     * resultado. Los pasos fuera del rango se resumen en una línea. Cuesta O(pasos del
+     * rango), sin importar la profundidad de la búsqueda ni la altura de la pila.
+     */
+    public void renderizar(StringBuilder destino, int desde, int hasta) {
+        if (cadena == null) {
+            throw new IllegalStateException("Todavía no se registró ninguna simulación.");
+        }
+        if (desde < 0 || hasta > numPasos || desde > hasta) {
+            throw new IllegalArgumentException("Rango de pasos inválido: [" + desde + ", " + hasta + ") de " + numPasos + ".");
+        }
+        TrazaTexto texto = new TrazaTexto(destino, Integer.MAX_VALUE, true);
+        texto.inicio(Modelo.AP, cadena);
+        texto.pilaInicial(simboloInicial);
+        if (desde > 0) {
+            destino.append("... (").append(desde).append(" pasos anteriores)\n");
+        }
+        for (int i = desde; i < hasta; i++) {
+            switch (transiciones[i]) {
+                case ACEPTACION:
+                    texto.aceptacionPila(niveles[i], (String) datos[i]);
+                    break;
+                case CICLO:
+                case YA_FALLIDA:
+                    texto.configuracionRepetida(niveles[i], (String) datos[i], transiciones[i] == CICLO);
+                    break;
+                default:
+                    texto.transicionPila(niveles[i], ap, transiciones[i], (PilaPersistente) datos[i]);
+            }
+        }
+        if (hasta < numPasos) {
+            destino.append("... (").append(numPasos - hasta).append(" pasos posteriores)\n");
+        }
+        if (terminada) {
+            texto.fin(aceptada);
+        }
+    }
+}
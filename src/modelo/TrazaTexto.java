@@ -0,0 +1,335 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Oyente que convierte los eventos de simulación en el texto paso a paso que se
+ * muestra en los paneles de resultados.
+ *
+ * Sin límite produce exactamente el registro tradicional de cada modelo. Con un
+ * límite de pasos deja de escribir pasos al alcanzarlo (el encabezado y el resultado
+ * se escriben siempre) e informa cuántos se omitieron, de modo que la memoria usada
+ * no crece con la longitud de la entrada.
+ *
+ * En modo resumido (para páginas de una traza guardada, ver {@link TrazaCompactaAP})
+ * cada paso cuesta lo mismo sin importar la profundidad ni la altura de la pila: la
+ * sangría deja de crecer a partir de {@link #NIVEL_MAXIMO_SANGRIA} y se reemplaza por
+ * "[nivel N]", y de cada pila se escriben los {@link #SIMBOLOS_PILA_RESUMIDA} símbolos
+ * del tope. Mientras la búsqueda es poco profunda y la pila baja, el texto es el mismo.
+ */
+public class TrazaTexto implements OyenteTraza {
+
+    /** Niveles de sangría que se escriben como espacios en modo resumido. */
+    public static final int NIVEL_MAXIMO_SANGRIA = 20;
+
+    /** Símbolos del tope que se escriben de cada pila en modo resumido. */
+    public static final int SIMBOLOS_PILA_RESUMIDA = 8;
+
+    private final StringBuilder destino;
+    private final int limitePasos;
+    private final boolean resumida;
+
+    private Modelo modelo;
+    private int pasosEscritos;
+    private int pasosOmitidos;
+    private boolean omitidosInformados;
+    private CharSequence cadena;
+
+    // El AFD no escribe el cierre cuando rechaza antes de terminar la cadena
+    private boolean rechazoAnticipado;
+
+    /**
+     * Renderizador sin límite (registro completo).
+     */
+    public TrazaTexto(StringBuilder destino) {
+        this(destino, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Renderizador acotado.
+     * @param limitePasos Número máximo de pasos que se escriben.
+     */
+    public TrazaTexto(StringBuilder destino, int limitePasos) {
+        this(destino, limitePasos, false);
+    }
+
+    /**
+     * Renderizador acotado, opcionalmente resumido.
+     * @param limitePasos Número máximo de pasos que se escriben.
+     * @param resumida Si la sangría y las pilas se acotan (ver la descripción de la clase).
+     */
+    public TrazaTexto(StringBuilder destino, int limitePasos, boolean resumida) {
+        if (limitePasos < 0) {
+            throw new IllegalArgumentException("El límite de pasos no puede ser negativo.");
+        }
+        this.destino = destino;
+        this.limitePasos = limitePasos;
+        this.resumida = resumida;
+    }
+
+    public int getPasosOmitidos() {
+        return pasosOmitidos;
+    }
+
+    /**
+     * Decide si el siguiente paso cabe dentro del límite.
+     */
+    private boolean admitirPaso() {
+        if (pasosEscritos < limitePasos) {
+            pasosEscritos++;
+            return true;
+        }
+        pasosOmitidos++;
+        return false;
+    }
+
+    private StringBuilder sangria(int nivel) {
+        int espacios = resumida ? Math.min(nivel, NIVEL_MAXIMO_SANGRIA) : nivel;
+        for (int i = 0; i < espacios * 2; i++) {
+            destino.append(' ');
+        }
+        if (nivel > espacios) {
+            destino.append("[nivel ").append(nivel).append("] ");
+        }
+        return destino;
+    }
+
+    private void escribirOmitidos() {
+        if (pasosOmitidos > 0 && !omitidosInformados) {
+            omitidosInformados = true;
+            destino.append("... (").append(pasosOmitidos).append(" pasos omitidos)\n");
+        }
+    }
+
+    // --- Eventos comunes ---
+
+    @Override
+    public void inicio(Modelo modelo, CharSequence cadena) {
+        this.modelo = modelo;
+        this.pasosEscritos = 0;
+        this.pasosOmitidos = 0;
+        this.omitidosInformados = false;
+        this.rechazoAnticipado = false;
+        this.cadena = cadena;
+
+        switch (modelo) {
+            case AFD:
+                destino.append("--- INICIO DE SIMULACIÓN ---\n");
+                destino.append("Cadena a evaluar: ").append(cadena).append("\n");
+                break;
+            case AP:
+                destino.append("--- INICIO DE SIMULACIÓN AP (Aceptación por F y Pila Vacía) ---\n");
+                destino.append("Cadena a probar: ").append(cadena.length() == 0 ? AutomataPila.LAMBDA : cadena).append("\n");
+                break;
+            case GR:
+                destino.append("--- INICIO DE VERIFICACIÓN (GR) ---\n");
+                destino.append("Cadena a evaluar: ").append(cadena).append("\n");
+                destino.append("Implementación completa pendiente: Se requiere transformación a AFD/AFN.\n");
+                destino.append("Por ahora, la verificación es un STUB y aceptará cadenas que solo usen terminales simples.\n");
+                break;
+            case GLC:
+                destino.append("--- INICIO DE VERIFICACIÓN (GLC) ---\n");
+                destino.append("Cadena a evaluar: ").append(cadena).append("\n");
+                break;
+        }
+    }
+
+    @Override
+    public void fin(boolean aceptada) {
+        escribirOmitidos();
+        switch (modelo) {
+            case AFD:
+                if (!rechazoAnticipado) {
+                    destino.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+                    destino.append("--------------------------\n");
+                }
+                break;
+            case AP:
+                destino.append("\n--- FIN DE SIMULACIÓN ---\n");
+                destino.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+                destino.append("---------------------------------------------------\n");
+                break;
+            case GR:
+                destino.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+                destino.append("---------------------------------\n");
+                break;
+            case GLC:
+                destino.append("==================================\n");
+                destino.append("RESULTADO: ").append(aceptada ? "ACEPTADA" : "RECHAZADA").append("\n");
+                destino.append("---------------------------------\n");
+                break;
+        }
+    }
+
+    // --- AFD ---
+
+    @Override
+    public void estadoInicial(String estado) {
+        destino.append("Paso 0: Estado inicial: ").append(estado).append("\n");
+    }
+
+    @Override
+    public void transicion(int paso, String estado, char simbolo, String estadoSiguiente) {
+        if (!admitirPaso()) return;
+        destino.append("Paso ").append(paso).append(": Leer '").append(simbolo)
+                .append("'. Transición δ(").append(estado).append(", ").append(simbolo)
+                .append(") -> ").append(estadoSiguiente).append("\n");
+    }
+
+    @Override
+    public void simboloFueraDeAlfabeto(int posicion, char simbolo) {
+        rechazoAnticipado = true;
+        escribirOmitidos();
+        destino.append("\n!!! ERROR !!!\n");
+        destino.append("El símbolo '").append(simbolo).append("' de la cadena no pertenece al alfabeto del AFD.\n");
+    }
+
+    @Override
+    public void sinTransicion(int posicion, String estado, char simbolo) {
+        rechazoAnticipado = true;
+        escribirOmitidos();
+        destino.append("\nEstado actual: ").append(estado).append(", Símbolo leído: ").append(simbolo).append("\n");
+        destino.append("!!! RECHAZADA !!!\n");
+        destino.append("No existe transición definida para el par (").append(estado).append(", ").append(simbolo).append(").\n");
+    }
+
+    @Override
+    public void estadoAlcanzado(String estado, boolean esFinal) {
+        escribirOmitidos();
+        destino.append("\n--- FIN DE CADENA ---\n");
+        destino.append("Estado final alcanzado: ").append(estado).append("\n");
+        if (esFinal) {
+            destino.append("El estado ").append(estado).append(" es un estado FINAL (F).\n");
+        } else {
+            destino.append("El estado ").append(estado).append(" NO es un estado final (F).\n");
+        }
+    }
+
+    // --- Autómata con Pila ---
+
+    @Override
+    public void pilaInicial(String simbolo) {
+        if (simbolo != null) {
+            destino.append("Símbolo Inicial de Pila (Z0): ").append(simbolo).append(". Pila inicial: [").append(simbolo).append("]\n");
+        } else {
+            destino.append("Símbolo Inicial de Pila (Z0): ").append(AutomataPila.LAMBDA).append(" (Pila inicia vacía).\n");
+        }
+    }
+
+    @Override
+    public void transicionPila(int nivel, AutomataPila.TransicionAP t, String tope,
+                               List<String> pilaAntes, List<String> pilaDespues) {
+        if (!admitirPaso()) return;
+        sangria(nivel).append("Paso: (").append(t.estadoActual).append(", '").append(t.simboloEntrada).append("', '").append(t.simboloTope)
+                .append("') [Tope: ").append(tope).append("] -> (").append(t.estadoSiguiente).append(", '").append(t.reemplazoPila)
+                .append("'). Pila: ").append(pilaAntes).append(" -> ").append(pilaDespues).append("\n");
+    }
+
+    /**
+     * En modo resumido escribe el paso directamente desde la pila persistente, sin
+     * convertirla en listas; si no, usa el evento con listas (registro completo).
+     */
+    @Override
+    public void transicionPila(int nivel, AutomataPilaCompilado ap, int transicion, PilaPersistente pilaAntes) {
+        if (!resumida) {
+            OyenteTraza.super.transicionPila(nivel, ap, transicion, pilaAntes);
+            return;
+        }
+        if (!admitirPaso()) return;
+        AutomataPila.TransicionAP t = ap.transicion(transicion);
+        String tope = pilaAntes.esVacia() ? AutomataPila.LAMBDA : ap.nombreSimboloPila(pilaAntes.tope());
+        sangria(nivel).append("Paso: (").append(t.estadoActual).append(", '").append(t.simboloEntrada).append("', '").append(t.simboloTope)
+                .append("') [Tope: ").append(tope).append("] -> (").append(t.estadoSiguiente).append(", '").append(t.reemplazoPila)
+                .append("'). Pila: ");
+        pilaResumida(ap, pilaAntes).append(" -> ");
+        pilaResumida(ap, ap.aplicar(transicion, pilaAntes)).append("\n");
+    }
+
+    /**
+     * La pila del fondo al tope, como Stack.toString(), con solo los símbolos del tope:
+     * [... (h más), X, Y, Z].
+     */
+    private StringBuilder pilaResumida(AutomataPilaCompilado ap, PilaPersistente pila) {
+        int mostrados = Math.min(pila.altura(), SIMBOLOS_PILA_RESUMIDA);
+        int[] tope = new int[mostrados];
+        PilaPersistente p = pila;
+        for (int i = mostrados - 1; i >= 0; i--) {
+            tope[i] = p.tope();
+            p = p.desapilar();
+        }
+        destino.append('[');
+        if (pila.altura() > mostrados) {
+            destino.append("... (").append(pila.altura() - mostrados).append(" más)");
+            if (mostrados > 0) destino.append(", ");
+        }
+        for (int i = 0; i < mostrados; i++) {
+            if (i > 0) destino.append(", ");
+            destino.append(ap.nombreSimboloPila(tope[i]));
+        }
+        return destino.append(']');
+    }
+
+    @Override
+    public void aceptacionPila(int nivel, String estado) {
+        sangria(nivel).append("-> ACEPTADO: Cadena terminada, Pila vacía, Estado (").append(estado).append(") es Final.\n");
+    }
+
+    @Override
+    public void configuracionRepetida(int nivel, String estado, boolean ciclo) {
+        if (!admitirPaso()) return;
+        sangria(nivel).append(ciclo
+                ? "(Ciclo: la configuración en " + estado + " ya está en esta rama, se corta)\n"
+                : "(Configuración en " + estado + " ya explorada sin éxito, se omite)\n");
+    }
+
+    // --- Gramáticas ---
+
+    @Override
+    public void simboloInicial(String simbolo) {
+        if (modelo == Modelo.GLC) {
+            destino.append("Pila Inicial: [#, ").append(simbolo).append("], Entrada: ").append(cadena).append("#\n");
+            destino.append("==================================\n");
+        }
+    }
+
+    @Override
+    public void derivacion(int nivel, int paso, String variable, String cuerpo, CharSequence restante,
+                           int consumidos, TipoDerivacion tipo, String proximaVariable) {
+        if (!admitirPaso()) return;
+        sangria(nivel);
+        if (modelo == Modelo.GR) {
+            destino.append("-> ").append(variable).append(" -> ").append(cuerpo);
+            switch (tipo) {
+                case LAMBDA:
+                    destino.append(" (Éxito parcial)\n");
+                    break;
+                case CONTINUA:
+                case CONSUMIDO:
+                    destino.append(". Restante: ").append(restante, consumidos, restante.length()).append("\n");
+                    break;
+                case CADENA_CONSUMIDA:
+                    destino.append(" (Cadena consumida)\n");
+                    break;
+            }
+            return;
+        }
+
+        destino.append("Paso ").append(paso).append(": ").append(variable).append(" -> ").append(cuerpo);
+        switch (tipo) {
+            case LAMBDA:
+                destino.append(" (Fin de cadena)\n");
+                break;
+            case CONTINUA:
+                destino.append(". Consumido (T): '").append(restante, 0, consumidos)
+                        .append("'. Próxima Variable: ").append(proximaVariable).append("\n");
+                break;
+            case CONSUMIDO:
+                destino.append(". Consumido: '").append(restante, 0, consumidos)
+                        .append("'. Restante: '").append(restante, consumidos, restante.length()).append("'\n");
+                break;
+            case CADENA_CONSUMIDA:
+                destino.append(". Cadena consumida completamente.\n");
+                break;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package modelo;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Verifica grandes volúmenes de cadenas contra un mismo AFD compilado.
+ *
+ * El lote se divide en tramos de cadenas que se reparten en un ForkJoinPool. Cada
+ * tarea escribe sus resultados en su propio arreglo de bits (alineado a 64 cadenas)
+ * y los tramos se concatenan al unir las tareas, así que no hay datos mutables
+ * compartidos entre hilos: la tabla compilada es inmutable.
+ */
+public final class VerificadorLoteAFD {
+
+    // Cadenas que procesa una tarea hoja; múltiplo de 64 para no partir palabras del bitmap
+    private static final int CADENAS_POR_TAREA = 64 * 64;
+
+    private final AFDCompilado afd;
+    private final ForkJoinPool pool;
+
+    public VerificadorLoteAFD(AFDCompilado afd) {
+        this(afd, ForkJoinPool.commonPool());
+    }
+
+    public VerificadorLoteAFD(AFDCompilado afd, ForkJoinPool pool) {
+        this.afd = afd;
+        this.pool = pool;
+    }
+
+    public ResultadoLote verificar(Collection<? extends CharSequence> cadenas) {
+        return verificar(cadenas.toArray(new CharSequence[0]));
+    }
+
+    /**
+     * El flujo se materializa (solo las referencias) para poder repartirlo por índices.
+     */
+    public ResultadoLote verificar(Stream<? extends CharSequence> cadenas) {
+        return verificar(cadenas.toArray(CharSequence[]::new));
+    }
+
+    private ResultadoLote verificar(CharSequence[] cadenas) {
+        long inicio = System.nanoTime();
+        Parcial total = pool.invoke(new Tarea(cadenas, 0, cadenas.length));
+        long nanos = System.nanoTime() - inicio;
+        return new ResultadoLote(total.bits, cadenas.length, total.aceptadas, total.caracteres, nanos);
+    }
+
+    /**
+     * Resultado de un tramo [desde, hasta) del lote.
+     */
+    private static final class Parcial {
+        final long[] bits;
+        final int aceptadas;
+        final long caracteres;
+
+        Parcial(long[] bits, int aceptadas, long caracteres) {
+            this.bits = bits;
+            this.aceptadas = aceptadas;
+            this.caracteres = caracteres;
+        }
+    }
+
+    private final class Tarea extends RecursiveTask<Parcial> {
+        private final CharSequence[] cadenas;
+        private final int desde;
+        private final int hasta;
+
+        Tarea(CharSequence[] cadenas, int desde, int hasta) {
+            this.cadenas = cadenas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Parcial compute() {
+            int n = hasta - desde;
+            if (n <= CADENAS_POR_TAREA) {
+                return procesar();
+            }
+
+            // Punto medio alineado a 64 para que la mitad izquierda ocupe palabras completas
+            int medio = desde + ((n / 2) & ~63);
+            Tarea izquierda = new Tarea(cadenas, desde, medio);
+            Tarea derecha = new Tarea(cadenas, medio, hasta);
+            izquierda.fork();
+            Parcial der = derecha.compute();
+            Parcial izq = izquierda.join();
+
+            long[] bits = new long[izq.bits.length + der.bits.length];
+            System.arraycopy(izq.bits, 0, bits, 0, izq.bits.length);
+            System.arraycopy(der.bits, 0, bits, izq.bits.length, der.bits.length);
+            return new Parcial(bits, izq.aceptadas + der.aceptadas, izq.caracteres + der.caracteres);
+        }
+
+        private Parcial procesar() {
+            long[] bits = new long[(hasta - desde + 63) >>> 6];
+            int aceptadas = 0;
+            long caracteres = 0;
+            for (int i = desde; i < hasta; i++) {
+                CharSequence cadena = cadenas[i];
+                caracteres += cadena.length();
+                if (afd.acepta(cadena)) {
+                    int j = i - desde;
+                    bits[j >>> 6] |= 1L << j;
+                    aceptadas++;
+                }
+            }
+            return new Parcial(bits, aceptadas, caracteres);
+        }
+    }
+
+    /**
+     * Resultado de un lote: un bit por cadena (1 = aceptada) y el rendimiento medido.
+     */
+    public static final class ResultadoLote {
+        private final long[] bits;
+        private final int total;
+        private final int aceptadas;
+        private final long caracteres;
+        private final long nanos;
+
+        ResultadoLote(long[] bits, int total, int aceptadas, long caracteres, long nanos) {
+            this.bits = bits;
+            this.total = total;
+            this.aceptadas = aceptadas;
+            this.caracteres = caracteres;
+            this.nanos = nanos;
+        }
+
+        /** Indica si la cadena en la posición dada del lote fue aceptada. */
+        public boolean aceptada(int indice) {
+            if (indice < 0 || indice >= total) {
+                throw new IndexOutOfBoundsException("Índice fuera del lote: " + indice);
+            }
+            return (bits[indice >>> 6] & (1L << indice)) != 0;
+        }
+
+        /** Copia del bitmap de resultados. */
+        public BitSet getAceptadas() { return BitSet.valueOf(bits); }
+
+        public int getTotal() { return total; }
+        public int getNumAceptadas() { return aceptadas; }
+        public long getCaracteres() { return caracteres; }
+        public long getNanos() { return nanos; }
+
+        public double cadenasPorSegundo() {
+            return nanos == 0 ? 0 : total * 1e9 / nanos;
+        }
+
+        public double caracteresPorSegundo() {
+            return nanos == 0 ? 0 : caracteres * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Lote: %d cadenas (%d aceptadas), %d caracteres en %.3f ms. "
+                            + "Rendimiento: %.0f cadenas/s, %.0f caracteres/s",
+                    total, aceptadas, caracteres, nanos / 1e6, cadenasPorSegundo(), caracteresPorSegundo());
+        }
+    }
+}
@@ -13,6 +13,7 @@ public class AFDPanel extends JPanel {
 
     // Constante de comando para el controlador
     public static final String CMD_SIMULAR_AFD = "SIMULAR_AFD";
+    public static final String CMD_MINIMIZAR_AFD = "MINIMIZAR_AFD";
 
     // Campos de entrada
     private JTextField txtEstados;
@@ -125,6 +126,18 @@ public class AFDPanel extends JPanel {
         btnSimular.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(btnSimular);
 
+        panel.add(Box.createVerticalStrut(10));
+
+        // --- Botón de Minimización ---
+        JButton btnMinimizar = new JButton("MINIMIZAR AFD");
+        btnMinimizar.setActionCommand(CMD_MINIMIZAR_AFD);
+        btnMinimizar.addActionListener(listener);
+        btnMinimizar.setBackground(new Color(41, 128, 185)); // Azul
+        btnMinimizar.setForeground(Color.WHITE);
+        btnMinimizar.setFont(new Font("Arial", Font.BOLD, 14));
+        btnMinimizar.setAlignmentX(Component.CENTER_ALIGNMENT);
+        panel.add(btnMinimizar);
+
         panel.add(Box.createVerticalGlue()); // Empuja el contenido hacia arriba
 
         return panel;
@@ -11,6 +11,11 @@ import modelo.AutomataPila; // Se usa para la constante LAMBDA
  */
 public class APPanel extends JPanel {
     public static final String CMD_SIMULAR_AP = "SIMULAR_AP";
+    public static final String CMD_SIMULAR_AP_ANCHURA = "SIMULAR_AP_ANCHURA";
+    public static final String CMD_SIMULAR_AP_GSS = "SIMULAR_AP_GSS";
+    public static final String CMD_SIMULAR_AP_PARALELO = "SIMULAR_AP_PARALELO";
+    public static final String CMD_TRAZA_AP_ANTERIOR = "TRAZA_AP_ANTERIOR";
+    public static final String CMD_TRAZA_AP_SIGUIENTE = "TRAZA_AP_SIGUIENTE";
 
     private final JTextField estadosInput = new JTextField();
     private final JTextField alfabetoInput = new JTextField();
@@ -22,6 +27,11 @@ public class APPanel extends JPanel {
     private final JTextField cadenaPruebaInput = new JTextField();
     private final JTextArea resultadoOutput = new JTextArea(10, 40);
 
+    // Navegación por páginas de la traza (solo para la simulación paso a paso)
+    private final JButton btnTrazaAnterior = new JButton("< Pasos anteriores");
+    private final JButton btnTrazaSiguiente = new JButton("Pasos siguientes >");
+    private final JLabel paginaTrazaLabel = new JLabel();
+
     public APPanel(ActionListener listener) {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -93,7 +103,29 @@ public class APPanel extends JPanel {
         btnCargar.addActionListener(e -> cargarEjemploDefecto());
         simulationPanel.add(btnCargar);
 
-        southPanel.add(simulationPanel, BorderLayout.NORTH);
+        // Motores alternativos (sin traza paso a paso), en una segunda fila
+        JPanel motoresPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        motoresPanel.add(new JLabel("Otros motores:"));
+
+        JButton btnAnchura = new JButton("Simular en Anchura (con Presupuesto)");
+        btnAnchura.setActionCommand(CMD_SIMULAR_AP_ANCHURA);
+        btnAnchura.addActionListener(listener);
+        motoresPanel.add(btnAnchura);
+
+        JButton btnGSS = new JButton("Simular con Pila en Grafo (GSS)");
+        btnGSS.setActionCommand(CMD_SIMULAR_AP_GSS);
+        btnGSS.addActionListener(listener);
+        motoresPanel.add(btnGSS);
+
+        JButton btnParalelo = new JButton("Simular en Paralelo");
+        btnParalelo.setActionCommand(CMD_SIMULAR_AP_PARALELO);
+        btnParalelo.addActionListener(listener);
+        motoresPanel.add(btnParalelo);
+
+        JPanel botonesPanel = new JPanel(new GridLayout(2, 1));
+        botonesPanel.add(simulationPanel);
+        botonesPanel.add(motoresPanel);
+        southPanel.add(botonesPanel, BorderLayout.NORTH);
 
         // Área de resultados
         resultadoOutput.setEditable(false);
@@ -102,6 +134,16 @@ public class APPanel extends JPanel {
         resultsScroll.setBorder(BorderFactory.createTitledBorder("Resultado de la Simulación"));
         southPanel.add(resultsScroll, BorderLayout.CENTER);
 
+        JPanel paginacionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        btnTrazaAnterior.setActionCommand(CMD_TRAZA_AP_ANTERIOR);
+        btnTrazaAnterior.addActionListener(listener);
+        paginacionPanel.add(btnTrazaAnterior);
+        btnTrazaSiguiente.setActionCommand(CMD_TRAZA_AP_SIGUIENTE);
+        btnTrazaSiguiente.addActionListener(listener);
+        paginacionPanel.add(btnTrazaSiguiente);
+        paginacionPanel.add(paginaTrazaLabel);
+        southPanel.add(paginacionPanel, BorderLayout.SOUTH);
+
         add(southPanel, BorderLayout.SOUTH);
 
         cargarEjemploDefecto(); // Cargar ejemplo al inicio
@@ -144,7 +186,18 @@ public class APPanel extends JPanel {
     public String getCadenaPruebaInput() { return cadenaPruebaInput.getText().trim(); }
 
     public void mostrarResultado(String resultado) {
+        mostrarPaginaTraza(resultado, "", false, false);
+    }
+
+    /**
+     * Muestra una página de la traza paso a paso.
+     * @param descripcion Qué pasos se muestran (ej: "Pasos 1-500 de 1200").
+     */
+    public void mostrarPaginaTraza(String resultado, String descripcion, boolean hayAnterior, boolean haySiguiente) {
         resultadoOutput.setText(resultado);
         resultadoOutput.setCaretPosition(0);
+        paginaTrazaLabel.setText(descripcion);
+        btnTrazaAnterior.setEnabled(hayAnterior);
+        btnTrazaSiguiente.setEnabled(haySiguiente);
     }
 }
\ No newline at end of file
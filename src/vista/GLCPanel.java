@@ -11,6 +11,13 @@ import java.awt.event.ActionListener;
 public class GLCPanel extends JPanel {
 
     public static final String CMD_VERIFICAR_GLC = "VERIFICAR_GLC";
+    public static final String CMD_RECONOCER_GLC_EARLEY = "RECONOCER_GLC_EARLEY";
+    public static final String CMD_RECONOCER_GLC_CYK = "RECONOCER_GLC_CYK";
+    public static final String CMD_ANALIZAR_GLC_LL1 = "ANALIZAR_GLC_LL1";
+    public static final String CMD_ANALIZAR_GLC_LALR = "ANALIZAR_GLC_LALR";
+    public static final String CMD_ANALIZAR_GLC_GLL = "ANALIZAR_GLC_GLL";
+    public static final String CMD_NORMALIZAR_GLC = "NORMALIZAR_GLC";
+    public static final String CMD_NORMALIZAR_FACTORIZAR_GLC = "NORMALIZAR_FACTORIZAR_GLC";
 
     private JTextField txtVariables;
     private JTextField txtTerminales;
@@ -100,6 +107,54 @@ public class GLCPanel extends JPanel {
         btnVerificar.setAlignmentX(Component.CENTER_ALIGNMENT);
         panel.add(btnVerificar);
 
+        panel.add(Box.createVerticalStrut(10));
+
+        // --- Motores de análisis completos (sin traza paso a paso) ---
+        JPanel motoresPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        motoresPanel.setBackground(Color.WHITE);
+        motoresPanel.add(new JLabel("Otros motores:"));
+
+        JButton btnEarley = new JButton("Reconocer con Earley");
+        btnEarley.setActionCommand(CMD_RECONOCER_GLC_EARLEY);
+        btnEarley.addActionListener(listener);
+        motoresPanel.add(btnEarley);
+        JButton btnCYK = new JButton("Reconocer con CYK");
+        btnCYK.setActionCommand(CMD_RECONOCER_GLC_CYK);
+        btnCYK.addActionListener(listener);
+        motoresPanel.add(btnCYK);
+        JButton btnLL1 = new JButton("Analizar LL(1)");
+        btnLL1.setActionCommand(CMD_ANALIZAR_GLC_LL1);
+        btnLL1.addActionListener(listener);
+        motoresPanel.add(btnLL1);
+        JButton btnLALR = new JButton("Analizar LALR(1)");
+        btnLALR.setActionCommand(CMD_ANALIZAR_GLC_LALR);
+        btnLALR.addActionListener(listener);
+        motoresPanel.add(btnLALR);
+        JButton btnGLL = new JButton("Analizar GLL (todas las derivaciones)");
+        btnGLL.setActionCommand(CMD_ANALIZAR_GLC_GLL);
+        btnGLL.addActionListener(listener);
+        motoresPanel.add(btnGLL);
+
+        motoresPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, motoresPanel.getPreferredSize().height + 10));
+        panel.add(motoresPanel);
+
+        // --- Transformaciones de la gramática ---
+        JPanel transformacionesPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        transformacionesPanel.setBackground(Color.WHITE);
+        transformacionesPanel.add(new JLabel("Transformaciones:"));
+
+        JButton btnNormalizar = new JButton("Normalizar gramática");
+        btnNormalizar.setActionCommand(CMD_NORMALIZAR_GLC);
+        btnNormalizar.addActionListener(listener);
+        transformacionesPanel.add(btnNormalizar);
+        JButton btnFactorizar = new JButton("Normalizar y factorizar");
+        btnFactorizar.setActionCommand(CMD_NORMALIZAR_FACTORIZAR_GLC);
+        btnFactorizar.addActionListener(listener);
+        transformacionesPanel.add(btnFactorizar);
+
+        transformacionesPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, transformacionesPanel.getPreferredSize().height + 10));
+        panel.add(transformacionesPanel);
+
         panel.add(Box.createVerticalGlue());
 
         return panel;